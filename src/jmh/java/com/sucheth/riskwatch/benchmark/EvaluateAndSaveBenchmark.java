@@ -0,0 +1,63 @@
+package com.sucheth.riskwatch.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.sucheth.riskwatch.dto.api.TransactionRequest;
+import com.sucheth.riskwatch.dto.api.TransactionResponse;
+import com.sucheth.riskwatch.service.TransactionService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EvaluateAndSaveBenchmark {
+
+    @Param({"1000"})
+    private int users;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        transactionService = context.getBean(TransactionService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionResponse evaluateAndSave() {
+        long id = sequence.incrementAndGet();
+        TransactionRequest request = new TransactionRequest();
+        request.setTransactionId("bench-" + id);
+        request.setUserId("user-" + ThreadLocalRandom.current().nextInt(users));
+        request.setAmount(10.0 + ThreadLocalRandom.current().nextInt(200_000));
+        request.setDeviceId("device-" + (id % 64));
+        request.setLocation("Bengaluru");
+        return transactionService.evaluateAndSave(request);
+    }
+}
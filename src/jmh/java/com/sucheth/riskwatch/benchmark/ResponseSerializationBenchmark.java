@@ -0,0 +1,100 @@
+package com.sucheth.riskwatch.benchmark;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.sucheth.riskwatch.dto.api.TransactionRequest;
+import com.sucheth.riskwatch.dto.api.TransactionResponse;
+import com.sucheth.riskwatch.dto.common.ApiResponseWrapper;
+import com.sucheth.riskwatch.model.enums.RiskLevel;
+
+/**
+ * Cost of writing a transaction response and reading a transaction request in each wire
+ * format the API negotiates, with and without the response envelope. Payload sizes are
+ * printed once per trial since JMH only reports time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"true", "false"})
+    private boolean envelope;
+
+    private ObjectMapper objectMapper;
+    private Object response;
+    private byte[] request;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = builder(format)
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        TransactionResponse payload = TransactionResponse.builder()
+                .transactionId("7f1c0d2e-4b8a-4c36-9a57-0d6c3e2f9b11")
+                .userId("user-42")
+                .riskScore(0.7)
+                .riskLevel(RiskLevel.HIGH)
+                .reasons(List.of("Transaction amount exceeds threshold.", "High transaction velocity detected."))
+                .evaluatedAt(Instant.now())
+                .build();
+        response = envelope ? ApiResponseWrapper.success(payload, "Transaction evaluated successfully.") : payload;
+
+        TransactionRequest body = new TransactionRequest();
+        body.setTransactionId("7f1c0d2e-4b8a-4c36-9a57-0d6c3e2f9b11");
+        body.setUserId("user-42");
+        body.setAmount(1250.75);
+        body.setTimestamp(Instant.now());
+        body.setDeviceId("device-9f3a");
+        body.setLocation("Bengaluru");
+        request = objectMapper.writeValueAsBytes(body);
+
+        System.out.printf("%n%s envelope=%s: response %d bytes, request %d bytes%n",
+                format, envelope, objectMapper.writeValueAsBytes(response).length, request.length);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public TransactionRequest deserializeRequest() throws IOException {
+        return objectMapper.readValue(request, TransactionRequest.class);
+    }
+
+    private static MapperBuilder<?, ?> builder(String format) {
+        return switch (format) {
+            case "cbor" -> CBORMapper.builder();
+            case "smile" -> SmileMapper.builder();
+            default -> JsonMapper.builder();
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package com.sucheth.riskwatch.benchmark;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.sucheth.riskwatch.dto.internal.RiskEvaluationResult;
+import com.sucheth.riskwatch.model.Transaction;
+import com.sucheth.riskwatch.service.RiskEvaluator;
+import com.sucheth.riskwatch.service.VelocityIndex;
+
+/**
+ * Evaluation for one user by stored history size. A tenth of each history, and at least
+ * {@value #MIN_RECENT} transactions, falls inside the velocity window, so the velocity
+ * rule fires and the cold case reseeds a window that grows with the history.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RiskEvaluatorBenchmark {
+
+    private static final String USER_ID = "bench-user";
+    private static final int MIN_RECENT = 5;
+
+    @Param({"10", "1000", "100000"})
+    private int historySize;
+
+    private ConfigurableApplicationContext context;
+    private RiskEvaluator riskEvaluator;
+    private VelocityIndex velocityIndex;
+    private Transaction transaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        riskEvaluator = context.getBean(RiskEvaluator.class);
+        velocityIndex = context.getBean(VelocityIndex.class);
+        TransactionFixtures.seedHistory(context, USER_ID, historySize, Math.max(MIN_RECENT, historySize / 10));
+
+        transaction = Transaction.builder()
+                .transactionId("bench-probe")
+                .userId(USER_ID)
+                .amount(250.0)
+                .timestamp(Instant.now())
+                .deviceId("device-0")
+                .location("Bengaluru")
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public RiskEvaluationResult evaluateWarm() {
+        return riskEvaluator.evaluate(transaction);
+    }
+
+    @Benchmark
+    public RiskEvaluationResult evaluateCold() {
+        velocityIndex.invalidate(USER_ID);
+        return riskEvaluator.evaluate(transaction);
+    }
+}
@@ -0,0 +1,53 @@
+package com.sucheth.riskwatch.benchmark;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sucheth.riskwatch.model.Transaction;
+import com.sucheth.riskwatch.model.enums.RiskLevel;
+import com.sucheth.riskwatch.repository.TransactionRepository;
+
+final class TransactionFixtures {
+
+    private static final int CHUNK = 5_000;
+    private static final Duration RECENT_SPAN = Duration.ofSeconds(30);
+
+    private TransactionFixtures() {
+    }
+
+    /**
+     * Stores {@code size} transactions for the user. The first {@code recent} are spread
+     * over the last 30 seconds, inside the velocity window for the length of a trial; the
+     * rest are older, ten minutes and more before now.
+     */
+    static void seedHistory(ConfigurableApplicationContext context, String userId, int size, int recent) {
+        TransactionRepository repository = context.getBean(TransactionRepository.class);
+        TransactionTemplate template = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        Instant now = Instant.now();
+
+        for (int start = 0; start < size; start += CHUNK) {
+            List<Transaction> chunk = new ArrayList<>(CHUNK);
+            for (int i = start; i < Math.min(size, start + CHUNK); i++) {
+                chunk.add(Transaction.builder()
+                        .transactionId(userId + "-history-" + i)
+                        .userId(userId)
+                        .amount(50.0 + (i % 500))
+                        .timestamp(i < recent
+                                ? now.minus(RECENT_SPAN.multipliedBy(i).dividedBy(recent))
+                                : now.minus(Duration.ofMinutes(10L + i)))
+                        .deviceId("device-" + (i % 3))
+                        .location("Bengaluru")
+                        .riskScore(0.0)
+                        .riskLevel(RiskLevel.LOW)
+                        .build());
+            }
+            template.executeWithoutResult(status -> repository.saveAll(chunk));
+        }
+    }
+}
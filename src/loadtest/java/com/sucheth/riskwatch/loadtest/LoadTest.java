@@ -0,0 +1,111 @@
+package com.sucheth.riskwatch.loadtest;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sucheth.riskwatch.RiskWatchApplication;
+import com.sucheth.riskwatch.service.sharding.LocalShardCluster;
+
+/**
+ * Drives {@code POST /api/v1/transactions} at a constant offered rate and prints a latency
+ * and outcome report. Starts the application in-process on a fresh H2 database unless
+ * {@code --target} points at a running instance. With {@code --shards} the same traffic is
+ * run once per cluster size, spread evenly over the instances of a {@link LocalShardCluster},
+ * and the throughput of each size is compared with the first.
+ *
+ * <pre>
+ * --rate=500 --duration=30 --warmup=5      offered req/s, measured and warmup seconds
+ * --users=10000 --skew=1.1                 Zipf-distributed user population
+ * --burst-probability=0.01 --burst-size=5  back-to-back bursts from one user
+ * --duplicate-rate=0.02                    retries of an earlier request
+ * --shared-device-rate=0.01 --large-amount-rate=0.001
+ * --replay=capture.ndjson                  replay a recorded capture instead
+ * --target=http://localhost:8080           load an external instance
+ * --shards=1,2,4                           repeat against in-process sharded clusters of each size
+ * --timeout=10 --max-in-flight=2000 --seed=42 --histogram=latency.hgrm
+ * </pre>
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (options.shards != null) {
+            runShardScaling(options, objectMapper);
+            return;
+        }
+
+        ConfigurableApplicationContext context = options.target == null ? startApplication() : null;
+        try (TrafficSource traffic = options.replay == null
+                ? new SyntheticTraffic(options)
+                : new ReplayTraffic(options.replay, objectMapper)) {
+            URI baseUri = URI.create(options.target != null
+                    ? options.target
+                    : "http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+
+            LoadTestReport report = new OpenLoopDriver(options, List.of(baseUri), objectMapper).run(traffic);
+            report.print(System.out, traffic.describe());
+            if (options.histogram != null) {
+                report.writeHistogram(options.histogram);
+                System.out.println("Response time distribution written to " + options.histogram);
+            }
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static void runShardScaling(LoadTestOptions options, ObjectMapper objectMapper) throws Exception {
+        List<LoadTestReport> reports = new ArrayList<>();
+        for (int shards : options.shards) {
+            System.out.println();
+            System.out.println("=== " + shards + (shards == 1 ? " shard" : " shards") + " ===");
+            try (LocalShardCluster cluster = LocalShardCluster.start(shards,
+                    "logging.level.com.sucheth.riskwatch.service.sharding=WARN",
+                    "logging.level.org.springframework.web=ERROR");
+                 TrafficSource traffic = options.replay == null
+                         ? new SyntheticTraffic(options)
+                         : new ReplayTraffic(options.replay, objectMapper)) {
+                LoadTestReport report = new OpenLoopDriver(options, cluster.urls(), objectMapper).run(traffic);
+                report.print(System.out, traffic.describe());
+                reports.add(report);
+            }
+        }
+
+        System.out.println();
+        System.out.printf("%-8s %14s %12s %10s %9s%n", "shards", "throughput/s", "p99 ms", "errors", "speedup");
+        for (int i = 0; i < reports.size(); i++) {
+            LoadTestReport report = reports.get(i);
+            System.out.printf("%-8d %14.1f %12.3f %10d %8.2fx%n", options.shards.get(i), report.throughput(),
+                    report.responseTimeMillis(99.0), report.errors(), report.throughput() / reports.get(0).throughput());
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(RiskWatchApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.main.banner-mode=off",
+                        "--spring.jpa.show-sql=false",
+                        "--risk.rate-limit.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.web=ERROR");
+    }
+}
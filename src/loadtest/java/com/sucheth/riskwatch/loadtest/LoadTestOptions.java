@@ -0,0 +1,86 @@
+package com.sucheth.riskwatch.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options in {@code --name=value} form. Unknown names are rejected so a typo
+ * does not silently run the default profile.
+ */
+final class LoadTestOptions {
+
+    final double rate;
+    final Duration duration;
+    final Duration warmup;
+    final Duration requestTimeout;
+    final int maxInFlight;
+    final String target;
+    final List<Integer> shards;
+    final Path replay;
+    final Path histogram;
+    final long seed;
+    final int users;
+    final double skew;
+    final double burstProbability;
+    final int burstSize;
+    final double duplicateRate;
+    final double sharedDeviceRate;
+    final double largeAmountRate;
+
+    private LoadTestOptions(Map<String, String> values) {
+        this.rate = Double.parseDouble(take(values, "rate", "500"));
+        this.duration = Duration.ofSeconds(Long.parseLong(take(values, "duration", "30")));
+        this.warmup = Duration.ofSeconds(Long.parseLong(take(values, "warmup", "5")));
+        this.requestTimeout = Duration.ofSeconds(Long.parseLong(take(values, "timeout", "10")));
+        this.maxInFlight = Integer.parseInt(take(values, "max-in-flight", "2000"));
+        this.target = take(values, "target", null);
+        String shardCounts = take(values, "shards", null);
+        this.shards = shardCounts == null ? null : Arrays.stream(shardCounts.split(","))
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .toList();
+        String replayPath = take(values, "replay", null);
+        this.replay = replayPath == null ? null : Path.of(replayPath);
+        String histogramPath = take(values, "histogram", null);
+        this.histogram = histogramPath == null || histogramPath.isBlank() ? null : Path.of(histogramPath);
+        this.seed = Long.parseLong(take(values, "seed", "42"));
+        this.users = Integer.parseInt(take(values, "users", "10000"));
+        this.skew = Double.parseDouble(take(values, "skew", "1.1"));
+        this.burstProbability = Double.parseDouble(take(values, "burst-probability", "0.01"));
+        this.burstSize = Integer.parseInt(take(values, "burst-size", "5"));
+        this.duplicateRate = Double.parseDouble(take(values, "duplicate-rate", "0.02"));
+        this.sharedDeviceRate = Double.parseDouble(take(values, "shared-device-rate", "0.01"));
+        this.largeAmountRate = Double.parseDouble(take(values, "large-amount-rate", "0.001"));
+
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (rate <= 0 || users <= 0 || burstSize <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("rate, users, burst-size and max-in-flight must be positive");
+        }
+        if (shards != null && (target != null || shards.isEmpty() || shards.stream().anyMatch(count -> count < 1))) {
+            throw new IllegalArgumentException("shards must be positive instance counts and cannot be combined with target");
+        }
+    }
+
+    static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int split = arg.indexOf('=');
+            values.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    private static String take(Map<String, String> values, String name, String defaultValue) {
+        String value = values.remove(name);
+        return value == null ? defaultValue : value;
+    }
+}
@@ -0,0 +1,94 @@
+package com.sucheth.riskwatch.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Outcome of one run: achieved throughput, response-time and service-time percentiles and
+ * the count of every outcome, successful or not. Latencies are held in nanoseconds and
+ * printed in milliseconds.
+ */
+final class LoadTestReport {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    private final double offeredRate;
+    private final long scheduled;
+    private final long completed;
+    private final long measuredNanos;
+    private final long maxDispatchLagNanos;
+    private final Histogram responseTimes;
+    private final Histogram serviceTimes;
+    private final Map<String, Long> outcomes;
+
+    LoadTestReport(double offeredRate, long scheduled, long completed, long measuredNanos, long maxDispatchLagNanos,
+                   Histogram responseTimes, Histogram serviceTimes, Map<String, Long> outcomes) {
+        this.offeredRate = offeredRate;
+        this.scheduled = scheduled;
+        this.completed = completed;
+        this.measuredNanos = measuredNanos;
+        this.maxDispatchLagNanos = maxDispatchLagNanos;
+        this.responseTimes = responseTimes;
+        this.serviceTimes = serviceTimes;
+        this.outcomes = outcomes;
+    }
+
+    double throughput() {
+        return completed / (measuredNanos / 1_000_000_000.0);
+    }
+
+    double responseTimeMillis(double percentile) {
+        return responseTimes.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    long errors() {
+        return outcomes.entrySet().stream()
+                .filter(entry -> !entry.getKey().startsWith("HTTP 2"))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    void print(PrintStream out, String trafficDescription) {
+        double seconds = measuredNanos / 1_000_000_000.0;
+        out.println();
+        out.println("Traffic:            " + trafficDescription);
+        out.printf("Offered rate:       %.1f req/s (%d scheduled in the measured window)%n", offeredRate, scheduled);
+        out.printf("Throughput:         %.1f req/s (%d completed in %.1f s)%n", throughput(), completed, seconds);
+        out.printf("Max dispatch lag:   %.3f ms%n", maxDispatchLagNanos / NANOS_PER_MILLI);
+        out.println();
+        printLatency(out, "Response time (from intended send)", responseTimes);
+        printLatency(out, "Service time (from actual send)", serviceTimes);
+        out.println();
+        out.printf("Outcomes (%d errors, %.2f%%):%n", errors(), scheduled == 0 ? 0.0 : 100.0 * errors() / scheduled);
+        outcomes.forEach((outcome, count) -> out.printf("  %-24s %d%n", outcome, count));
+    }
+
+    void writeHistogram(Path path) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(path))) {
+            responseTimes.outputPercentileDistribution(out, NANOS_PER_MILLI);
+        }
+    }
+
+    private static void printLatency(PrintStream out, String label, Histogram histogram) {
+        StringBuilder line = new StringBuilder(String.format("%-36s", label + ":"));
+        for (double percentile : PERCENTILES) {
+            line.append(String.format(" p%s=%.3f", format(percentile),
+                    histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI));
+        }
+        line.append(String.format(" max=%.3f ms", histogram.getMaxValue() / NANOS_PER_MILLI));
+        out.println(line);
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile)
+                ? Long.toString((long) percentile)
+                : Double.toString(percentile).replace(".", "");
+    }
+}
@@ -0,0 +1,154 @@
+package com.sucheth.riskwatch.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Recorder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sucheth.riskwatch.dto.api.TransactionRequest;
+
+/**
+ * Sends requests on a fixed schedule regardless of how fast responses come back. Request
+ * {@code i} is due at {@code start + i / rate}; a slow response never delays the next send,
+ * and latency is measured from the due time rather than the actual send time, so stalls
+ * in the server show up in the percentiles instead of silently lowering the offered load
+ * (coordinated omission). Service time from the actual send is recorded separately.
+ * Given several instances, requests are spread over them round robin.
+ */
+final class OpenLoopDriver {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final String CLIENT_SATURATED = "client-saturated";
+    private static final String UNFINISHED = "unfinished";
+
+    private final LoadTestOptions options;
+    private final List<URI> endpoints;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client;
+    private final Semaphore inFlight;
+    private final Recorder responseTimes = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+    private final Recorder serviceTimes = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final LongAdder completed = new LongAdder();
+    private final AtomicLong lastCompletion = new AtomicLong(Long.MIN_VALUE);
+
+    OpenLoopDriver(LoadTestOptions options, List<URI> baseUris, ObjectMapper objectMapper) {
+        this.options = options;
+        this.endpoints = baseUris.stream().map(baseUri -> baseUri.resolve("/api/v1/transactions")).toList();
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.requestTimeout)
+                .build();
+        this.inFlight = new Semaphore(options.maxInFlight);
+    }
+
+    LoadTestReport run(TrafficSource traffic) throws InterruptedException {
+        long periodNanos = Math.round(1_000_000_000.0 / options.rate);
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup.toNanos();
+        long stopAt = measureFrom + options.duration.toNanos();
+        long maxLag = 0;
+        long scheduled = 0;
+
+        for (long i = 0; ; i++) {
+            long due = start + i * periodNanos;
+            if (due >= stopAt) {
+                break;
+            }
+            TransactionRequest request = traffic.next();
+            if (request == null) {
+                break;
+            }
+            long now;
+            while ((now = System.nanoTime()) < due) {
+                LockSupport.parkNanos(due - now);
+            }
+            boolean measured = due >= measureFrom;
+            if (measured) {
+                maxLag = Math.max(maxLag, now - due);
+                scheduled++;
+            }
+            send(endpoints.get((int) (i % endpoints.size())), request, due, measured);
+        }
+
+        if (!inFlight.tryAcquire(options.maxInFlight, options.requestTimeout.toMillis() * 2, TimeUnit.MILLISECONDS)) {
+            outcomes.computeIfAbsent(UNFINISHED, key -> new LongAdder())
+                    .add(options.maxInFlight - inFlight.availablePermits());
+        }
+
+        long end = lastCompletion.get() != Long.MIN_VALUE ? lastCompletion.get() : Math.min(System.nanoTime(), stopAt);
+        long measuredNanos = Math.max(1, end - measureFrom);
+        return new LoadTestReport(options.rate, scheduled, completed.sum(), measuredNanos, maxLag,
+                responseTimes.getIntervalHistogram(), serviceTimes.getIntervalHistogram(), snapshot(outcomes));
+    }
+
+    private void send(URI endpoint, TransactionRequest request, long due, boolean measured) {
+        if (!inFlight.tryAcquire()) {
+            if (measured) {
+                count(CLIENT_SATURATED);
+            }
+            return;
+        }
+
+        HttpRequest httpRequest;
+        try {
+            httpRequest = HttpRequest.newBuilder(endpoint)
+                    .timeout(options.requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(request)))
+                    .build();
+        } catch (JsonProcessingException ex) {
+            inFlight.release();
+            throw new IllegalStateException("Cannot serialise request " + request.getTransactionId(), ex);
+        }
+
+        long sentAt = System.nanoTime();
+        client.sendAsync(httpRequest, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    long finishedAt = System.nanoTime();
+                    try {
+                        if (measured) {
+                            responseTimes.recordValue(Math.min(finishedAt - due, HIGHEST_TRACKABLE_NANOS));
+                            serviceTimes.recordValue(Math.min(finishedAt - sentAt, HIGHEST_TRACKABLE_NANOS));
+                            completed.increment();
+                            lastCompletion.accumulateAndGet(finishedAt, Math::max);
+                            count(failure == null ? "HTTP " + response.statusCode() : failureName(failure));
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+    }
+
+    private void count(String outcome) {
+        outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+    }
+
+    private static Map<String, Long> snapshot(Map<String, LongAdder> counters) {
+        Map<String, Long> counts = new TreeMap<>();
+        counters.forEach((outcome, counter) -> counts.put(outcome, counter.sum()));
+        return counts;
+    }
+
+    private static String failureName(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        return cause.getClass().getSimpleName();
+    }
+}
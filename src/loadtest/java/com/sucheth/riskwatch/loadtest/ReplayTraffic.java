@@ -0,0 +1,57 @@
+package com.sucheth.riskwatch.loadtest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sucheth.riskwatch.dto.api.TransactionRequest;
+
+/**
+ * Replays a recorded NDJSON capture in file order, one request per line. Unknown fields
+ * are ignored, so the output of {@code GET /api/v1/transactions/user/{userId}/stream}
+ * can be replayed as-is. Recorded timestamps are kept so velocity windows behave as they
+ * did when the capture was taken.
+ */
+final class ReplayTraffic implements TrafficSource {
+
+    private final Path capture;
+    private final MappingIterator<TransactionRequest> requests;
+    private long replayed;
+
+    ReplayTraffic(Path capture, ObjectMapper objectMapper) {
+        this.capture = capture;
+        try {
+            this.requests = objectMapper.readerFor(TransactionRequest.class)
+                    .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .readValues(capture.toFile());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open capture " + capture, ex);
+        }
+    }
+
+    @Override
+    public TransactionRequest next() {
+        if (!requests.hasNext()) {
+            return null;
+        }
+        replayed++;
+        return requests.next();
+    }
+
+    @Override
+    public String describe() {
+        return "replay of " + capture + " (" + replayed + " requests read)";
+    }
+
+    @Override
+    public void close() {
+        try {
+            requests.close();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.sucheth.riskwatch.loadtest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import com.sucheth.riskwatch.dto.api.TransactionRequest;
+
+/**
+ * Generates production-shaped traffic: users drawn from a Zipf distribution so a few
+ * accounts dominate, occasional bursts of back-to-back transactions from one user (enough
+ * to trip the velocity rule), client retries that resend an earlier request unchanged,
+ * a small pool of devices shared across accounts and rare amounts over the threshold.
+ * Deterministic for a given seed.
+ */
+final class SyntheticTraffic implements TrafficSource {
+
+    private static final int RETRY_MEMORY = 1024;
+    private static final int SHARED_DEVICES = 50;
+    private static final double MEDIAN_AMOUNT = 80.0;
+    private static final double AMOUNT_SIGMA = 1.0;
+    private static final double LARGE_AMOUNT = 150_000.0;
+    private static final String[] LOCATIONS = {"Bengaluru", "Mumbai", "Delhi", "Chennai", "Pune"};
+
+    private final LoadTestOptions options;
+    private final SplittableRandom random;
+    private final double[] userCdf;
+    private final TransactionRequest[] sent = new TransactionRequest[RETRY_MEMORY];
+    private long sequence;
+    private String burstUser;
+    private int burstRemaining;
+
+    SyntheticTraffic(LoadTestOptions options) {
+        this.options = options;
+        this.random = new SplittableRandom(options.seed);
+        this.userCdf = zipfCdf(options.users, options.skew);
+    }
+
+    @Override
+    public TransactionRequest next() {
+        if (sequence > 0 && random.nextDouble() < options.duplicateRate) {
+            TransactionRequest retry = sent[(int) (random.nextLong(Math.min(sequence, RETRY_MEMORY)))];
+            if (retry != null) {
+                return retry;
+            }
+        }
+
+        String userId;
+        if (burstRemaining > 0) {
+            userId = burstUser;
+            burstRemaining--;
+        } else {
+            userId = nextUser();
+            if (random.nextDouble() < options.burstProbability) {
+                burstUser = userId;
+                burstRemaining = options.burstSize - 1;
+            }
+        }
+
+        TransactionRequest request = new TransactionRequest();
+        request.setTransactionId("lt-" + options.seed + "-" + sequence);
+        request.setUserId(userId);
+        request.setAmount(nextAmount());
+        request.setDeviceId(random.nextDouble() < options.sharedDeviceRate
+                ? "shared-device-" + random.nextInt(SHARED_DEVICES)
+                : "device-" + userId);
+        request.setLocation(LOCATIONS[Math.floorMod(userId.hashCode(), LOCATIONS.length)]);
+        sent[(int) (sequence % RETRY_MEMORY)] = request;
+        sequence++;
+        return request;
+    }
+
+    @Override
+    public String describe() {
+        return String.format("synthetic (users=%d, skew=%.2f, bursts=%.3f x %d, duplicates=%.3f, shared devices=%.3f)",
+                options.users, options.skew, options.burstProbability, options.burstSize,
+                options.duplicateRate, options.sharedDeviceRate);
+    }
+
+    private String nextUser() {
+        int index = Arrays.binarySearch(userCdf, random.nextDouble());
+        return "user-" + (index >= 0 ? index : Math.min(-index - 1, userCdf.length - 1));
+    }
+
+    private double nextAmount() {
+        if (random.nextDouble() < options.largeAmountRate) {
+            return LARGE_AMOUNT;
+        }
+        double amount = MEDIAN_AMOUNT * Math.exp(AMOUNT_SIGMA * gaussian());
+        return Math.max(0.01, Math.round(amount * 100.0) / 100.0);
+    }
+
+    private double gaussian() {
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+
+    private static double[] zipfCdf(int users, double skew) {
+        double[] cdf = new double[users];
+        double total = 0.0;
+        for (int rank = 1; rank <= users; rank++) {
+            total += 1.0 / Math.pow(rank, skew);
+            cdf[rank - 1] = total;
+        }
+        for (int i = 0; i < users; i++) {
+            cdf[i] /= total;
+        }
+        return cdf;
+    }
+}
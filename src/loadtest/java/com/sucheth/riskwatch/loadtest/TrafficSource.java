@@ -0,0 +1,21 @@
+package com.sucheth.riskwatch.loadtest;
+
+import com.sucheth.riskwatch.dto.api.TransactionRequest;
+
+/**
+ * Supplies the requests to send, one per scheduled slot. Called from the single
+ * dispatcher thread only.
+ */
+interface TrafficSource extends AutoCloseable {
+
+    /**
+     * @return the next request, or {@code null} once the source is exhausted
+     */
+    TransactionRequest next();
+
+    String describe();
+
+    @Override
+    default void close() {
+    }
+}
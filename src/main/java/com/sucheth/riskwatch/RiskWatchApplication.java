@@ -2,8 +2,10 @@ package com.sucheth.riskwatch;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class RiskWatchApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,69 @@
+package com.sucheth.riskwatch.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sucheth.riskwatch.dto.api.RescoreStatusResponse;
+import com.sucheth.riskwatch.dto.api.ShardStatusResponse;
+import com.sucheth.riskwatch.dto.common.ApiResponseWrapper;
+import com.sucheth.riskwatch.service.rescore.RescoreService;
+import com.sucheth.riskwatch.service.sharding.ShardMembership;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+@RequiredArgsConstructor
+@Tag(name = "Administration", description = "Maintenance jobs over stored transactions and profiles")
+public class AdminController {
+
+    private final RescoreService rescoreService;
+    private final ShardMembership shardMembership;
+
+    @PostMapping("/rescore")
+    @Operation(
+        summary = "Re-score all stored transactions",
+        description = "Starts a background job that re-evaluates every stored transaction under the current rules "
+            + "and thresholds, writes back changed scores and rebuilds the user risk profiles. "
+            + "An unfinished previous job is resumed from its checkpoints unless restart is set."
+    )
+    @ApiResponse(responseCode = "202", description = "Rescore started")
+    @ApiResponse(responseCode = "409", description = "A rescore is already running")
+    public ResponseEntity<ApiResponseWrapper<RescoreStatusResponse>> startRescore(
+        @Parameter(description = "Discard the checkpoints of an unfinished job and start over")
+        @RequestParam(defaultValue = "false") boolean restart) {
+
+        RescoreStatusResponse status = rescoreService.start(restart);
+        return ResponseEntity.accepted().body(ApiResponseWrapper.success(status, "Rescore started."));
+    }
+
+    @GetMapping("/rescore")
+    @Operation(summary = "Get rescore progress", description = "Returns the state and progress of the current or most recent rescore job.")
+    public ResponseEntity<ApiResponseWrapper<RescoreStatusResponse>> getRescoreStatus() {
+        return ResponseEntity.ok(ApiResponseWrapper.success(rescoreService.status(), "Rescore status retrieved."));
+    }
+
+    @GetMapping("/shards")
+    @Operation(summary = "Get shard membership", description = "Returns this instance's address and the members of the "
+        + "consistent-hash ring it routes users with, and the previous owners it still waits on to hand off users it "
+        + "gained in the last ring change. Members are listed only when sharding is enabled.")
+    public ResponseEntity<ApiResponseWrapper<ShardStatusResponse>> getShards() {
+        ShardStatusResponse status = ShardStatusResponse.builder()
+                .enabled(shardMembership.isEnabled())
+                .self(shardMembership.self())
+                .members(shardMembership.members())
+                .handoffPending(List.copyOf(shardMembership.handoffPending()))
+                .build();
+        return ResponseEntity.ok(ApiResponseWrapper.success(status, "Shard membership retrieved."));
+    }
+}
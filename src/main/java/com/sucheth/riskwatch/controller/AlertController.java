@@ -0,0 +1,44 @@
+package com.sucheth.riskwatch.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.sucheth.riskwatch.service.alerts.RiskAlertStream;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/v1/alerts")
+@RequiredArgsConstructor
+@Tag(name = "Alerts", description = "Push notifications of high-risk activity")
+public class AlertController {
+
+    private final RiskAlertStream riskAlertStream;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Stream risk alerts",
+        description = "Server-sent events: " + RiskAlertStream.HIGH_RISK_TRANSACTION + " for every transaction evaluated "
+            + "as HIGH risk and " + RiskAlertStream.USER_FLAGGED + " when a user becomes flagged. Reconnect with "
+            + "Last-Event-ID to resume; if those events are no longer buffered a " + RiskAlertStream.GAP
+            + " event precedes the oldest ones that are. Subscribers that fall too far behind are disconnected. In "
+            + "sharded mode an instance streams the alerts of the users it owns only; subscribe to every member listed "
+            + "by /api/v1/admin/shards for all of them."
+    )
+    @ApiResponse(responseCode = "200", description = "Event stream opened")
+    @ApiResponse(responseCode = "429", description = "Too many subscribers")
+    public SseEmitter streamAlerts(
+        @Parameter(description = "Id of the last event received, sent automatically by EventSource clients on reconnect")
+        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        return riskAlertStream.subscribe(lastEventId);
+    }
+}
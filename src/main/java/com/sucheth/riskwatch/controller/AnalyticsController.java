@@ -0,0 +1,55 @@
+package com.sucheth.riskwatch.controller;
+
+import java.time.Duration;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sucheth.riskwatch.dto.api.RiskAnalyticsResponse;
+import com.sucheth.riskwatch.dto.common.ApiResponseWrapper;
+import com.sucheth.riskwatch.service.sharding.ShardForwarder;
+import com.sucheth.riskwatch.service.sharding.ShardViews;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/v1/analytics")
+@RequiredArgsConstructor
+@Tag(name = "Analytics", description = "Pre-aggregated risk statistics over rolling windows")
+public class AnalyticsController {
+
+    private final ShardViews shardViews;
+
+    @GetMapping("/risk")
+    @Operation(
+        summary = "Get risk statistics for a rolling window",
+        description = "Returns risk-level counts, a score histogram and reason frequencies for the evaluations in the "
+            + "window ending now, plus a per-step series of risk-level counts. Served from in-memory counters, so "
+            + "the transaction table is never scanned. Steps under an hour reach back one day; whole-hour steps "
+            + "reach back the analytics retention period. In sharded mode the counts of every instance are combined."
+    )
+    @ApiResponse(responseCode = "200", description = "Statistics retrieved")
+    @ApiResponse(responseCode = "400", description = "Invalid window or step")
+    public ResponseEntity<ApiResponseWrapper<RiskAnalyticsResponse>> getRiskAnalytics(
+        @Parameter(description = "Window length ending now, e.g. 15m, 1h, 7d or PT24H")
+        @RequestParam(defaultValue = "1h") String window,
+        @Parameter(description = "Series step, e.g. 1m, 5m or 1h; defaults to 1m for windows up to 3h and 1h beyond")
+        @RequestParam(required = false) String step,
+        @Parameter(hidden = true)
+        @RequestHeader(value = ShardForwarder.FORWARDED_HEADER, required = false) String forwardedBy) {
+
+        Duration stepDuration = step != null ? DurationStyle.detectAndParse(step) : null;
+        RiskAnalyticsResponse analytics =
+                shardViews.riskAnalytics(DurationStyle.detectAndParse(window), stepDuration, forwardedBy != null);
+        return ResponseEntity.ok(ApiResponseWrapper.success(analytics, "Risk analytics retrieved."));
+    }
+}
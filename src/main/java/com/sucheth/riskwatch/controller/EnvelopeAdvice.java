@@ -0,0 +1,43 @@
+package com.sucheth.riskwatch.controller;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.sucheth.riskwatch.dto.common.ApiResponseWrapper;
+
+/**
+ * Machine clients can send {@code X-Envelope: none} to receive successful responses as the
+ * bare payload instead of inside {@link ApiResponseWrapper}. The status code is unchanged
+ * and errors keep the envelope so the message still reaches the caller.
+ */
+@RestControllerAdvice
+public class EnvelopeAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String ENVELOPE_HEADER = "X-Envelope";
+    public static final String NO_ENVELOPE = "none";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(body instanceof ApiResponseWrapper<?> wrapper)) {
+            return body;
+        }
+        response.getHeaders().add(HttpHeaders.VARY, ENVELOPE_HEADER);
+        if (wrapper.isSuccess() && NO_ENVELOPE.equalsIgnoreCase(request.getHeaders().getFirst(ENVELOPE_HEADER))) {
+            return wrapper.getData();
+        }
+        return body;
+    }
+}
@@ -0,0 +1,282 @@
+package com.sucheth.riskwatch.controller;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sucheth.riskwatch.dto.common.ApiResponseWrapper;
+import com.sucheth.riskwatch.service.sharding.ShardForwarder;
+import com.sucheth.riskwatch.service.sharding.ShardMembership;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In sharded mode, sends requests for a single user to the instance that owns the user:
+ * transaction submissions, keyed by the {@code userId} in the JSON, CBOR or Smile body,
+ * risk-profile reads, keyed by the path, and async status reads, keyed by the
+ * {@code userId} query parameter the status URL carries. The owner's response is relayed
+ * unchanged with {@link ShardForwarder#SHARD_HEADER} naming the owner, and the owner
+ * builds status URLs against {@link ShardForwarder#ORIGIN_HEADER} so they point back at
+ * the receiving instance. Requests for local users and every other endpoint pass straight
+ * through; a submission in any other content type is refused with 415. A request that was
+ * already forwarded once is never forwarded again: if this instance does not serve its
+ * user, because the rings of the two instances disagree during a membership change, it is
+ * refused with 503 and a retry, which lands once the handoff completes.
+ */
+@Slf4j
+@Component
+public class ShardRoutingFilter extends OncePerRequestFilter {
+
+    private static final List<String> BODY_ROUTED = List.of("/api/v1/transactions", "/api/v1/transactions/async");
+    private static final Pattern PROFILE_PATH = Pattern.compile("^/api/v1/users/([^/]+)/risk-profile$");
+    private static final Pattern STATUS_PATH = Pattern.compile("^/api/v1/transactions/[^/]+$");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final List<String> RELAYED_RESPONSE_HEADERS =
+            List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.LOCATION, HttpHeaders.RETRY_AFTER, HttpHeaders.VARY);
+
+    private final ShardMembership membership;
+    private final ShardForwarder forwarder;
+    private final ObjectMapper objectMapper;
+    private final JsonFactory cborFactory;
+    private final JsonFactory smileFactory;
+    private final Counter forwarded;
+    private final Counter forwardFailures;
+    private final Counter misrouted;
+
+    public ShardRoutingFilter(ShardMembership membership, ShardForwarder forwarder, ObjectMapper objectMapper,
+                              MappingJackson2CborHttpMessageConverter cborConverter,
+                              MappingJackson2SmileHttpMessageConverter smileConverter,
+                              MeterRegistry meterRegistry) {
+        this.membership = membership;
+        this.forwarder = forwarder;
+        this.objectMapper = objectMapper;
+        this.cborFactory = cborConverter.getObjectMapper().getFactory();
+        this.smileFactory = smileConverter.getObjectMapper().getFactory();
+        this.forwarded = meterRegistry.counter("riskwatch.sharding.forwarded", "outcome", "relayed");
+        this.forwardFailures = meterRegistry.counter("riskwatch.sharding.forwarded", "outcome", "failed");
+        this.misrouted = meterRegistry.counter("riskwatch.sharding.forwarded", "outcome", "misrouted");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!membership.isEnabled()) {
+            return true;
+        }
+        String path = path(request);
+        if ("POST".equals(request.getMethod())) {
+            return !BODY_ROUTED.contains(path);
+        }
+        return !"GET".equals(request.getMethod()) || !(PROFILE_PATH.matcher(path).matches()
+                || (STATUS_PATH.matcher(path).matches() && request.getParameter("userId") != null));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        byte[] body = null;
+        String userId;
+        Matcher profile = PROFILE_PATH.matcher(path(request));
+        if (profile.matches()) {
+            userId = UriUtils.decode(profile.group(1), StandardCharsets.UTF_8);
+        } else if ("GET".equals(request.getMethod())) {
+            userId = request.getParameter("userId");
+        } else {
+            JsonFactory factory = factoryFor(request.getContentType());
+            if (factory == null) {
+                reject(response, HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                        "Unsupported content type " + request.getContentType() + "; send JSON, CBOR or Smile.");
+                return;
+            }
+            body = request.getInputStream().readAllBytes();
+            userId = userIdOf(factory, body);
+        }
+
+        if (userId == null || membership.isLocal(userId)) {
+            chain.doFilter(body == null ? request : new CachedBodyRequest(request, body), response);
+            return;
+        }
+
+        String owner = membership.ownerOf(userId);
+        if (request.getHeader(ShardForwarder.FORWARDED_HEADER) != null) {
+            misrouted.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "User " + userId + " is moving to " + owner + "; retry later.");
+            return;
+        }
+        ResponseEntity<byte[]> relayed;
+        try {
+            String pathAndQuery = path(request) + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+            HttpHeaders headers = headersOf(request);
+            headers.set(ShardForwarder.ORIGIN_HEADER, ServletUriComponentsBuilder.fromContextPath(request).toUriString());
+            relayed = forwarder.forward(owner, HttpMethod.valueOf(request.getMethod()), pathAndQuery, headers, body);
+        } catch (RestClientException ex) {
+            forwardFailures.increment();
+            log.warn("Could not forward {} {} to shard owner {}: {}", request.getMethod(), path(request), owner,
+                    ex.getMessage());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "Owning instance " + owner + " is unavailable; retry later.");
+            return;
+        }
+        forwarded.increment();
+        response.setStatus(relayed.getStatusCode().value());
+        RELAYED_RESPONSE_HEADERS.forEach(name -> {
+            String value = relayed.getHeaders().getFirst(name);
+            if (value != null) {
+                response.setHeader(name, value);
+            }
+        });
+        response.setHeader(ShardForwarder.SHARD_HEADER, owner);
+        if (relayed.getBody() != null) {
+            response.getOutputStream().write(relayed.getBody());
+        }
+    }
+
+    /**
+     * @return the factory for the body's format, or {@code null} for a format no controller reads
+     */
+    private JsonFactory factoryFor(String contentType) {
+        if (contentType == null) {
+            return objectMapper.getFactory();
+        }
+        MediaType mediaType;
+        try {
+            mediaType = MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException ex) {
+            return null;
+        }
+        if (MediaType.APPLICATION_CBOR.includes(mediaType)) {
+            return cborFactory;
+        }
+        if (SMILE.includes(mediaType)) {
+            return smileFactory;
+        }
+        if (MediaType.APPLICATION_JSON.includes(mediaType) || "json".equals(mediaType.getSubtypeSuffix())) {
+            return objectMapper.getFactory();
+        }
+        return null;
+    }
+
+    private String userIdOf(JsonFactory factory, byte[] body) {
+        try (JsonParser parser = factory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("userId".equals(field)) {
+                    return value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                }
+                parser.skipChildren();
+            }
+            return null;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponseWrapper.error(message));
+    }
+
+    private static HttpHeaders headersOf(HttpServletRequest request) {
+        HttpHeaders headers = new HttpHeaders();
+        request.getHeaderNames().asIterator().forEachRemaining(name ->
+                request.getHeaders(name).asIterator().forEachRemaining(value -> headers.add(name, value)));
+        return headers;
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
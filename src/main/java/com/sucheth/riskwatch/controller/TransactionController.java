@@ -1,27 +1,48 @@
 package com.sucheth.riskwatch.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import com.sucheth.riskwatch.service.AsyncEvaluationService;
 import com.sucheth.riskwatch.service.TransactionService;
+import com.sucheth.riskwatch.service.admission.AdmissionControl;
+import com.sucheth.riskwatch.service.sharding.ShardBatchDispatcher;
+import com.sucheth.riskwatch.service.sharding.ShardForwarder;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 
+import com.sucheth.riskwatch.dto.api.BatchTransactionResponse;
+import com.sucheth.riskwatch.dto.api.TransactionPageResponse;
 import com.sucheth.riskwatch.dto.api.TransactionRequest;
 import com.sucheth.riskwatch.dto.api.TransactionResponse;
+import com.sucheth.riskwatch.dto.api.TransactionStatusResponse;
 import com.sucheth.riskwatch.dto.common.ApiResponseWrapper;
+import com.sucheth.riskwatch.model.enums.EvaluationStatus;
 
 @RestController
 @RequestMapping("/api/v1/transactions")
@@ -29,38 +50,167 @@ import com.sucheth.riskwatch.dto.common.ApiResponseWrapper;
 @Tag(name = "Transactions", description = "Endpoints for submitting and evaluating user transactions")
 public class TransactionController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final TransactionService transactionService;
+    private final AsyncEvaluationService asyncEvaluationService;
+    private final AdmissionControl admissionControl;
+    private final ShardBatchDispatcher shardBatchDispatcher;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @Operation(
         summary = "Submit a transaction for evaluation",
-        description = "Evaluates a transaction for potential risk and updates the user's risk profile accordingly."
+        description = "Evaluates a transaction for potential risk and updates the user's risk profile accordingly. "
+            + "Submissions are rate limited per user and per instance. Under load the database-backed rules may be "
+            + "skipped, in which case the result is marked as degraded."
     )
     @ApiResponse(responseCode = "201", description = "Transaction evaluated and stored successfully")
     @ApiResponse(responseCode = "400", description = "Invalid request payload")
+    @ApiResponse(responseCode = "200", description = "Retry of an already evaluated transaction; original result returned")
+    @ApiResponse(responseCode = "409", description = "Transaction id already used with a different payload")
+    @ApiResponse(responseCode = "429", description = "Rate limit exceeded for the user or the instance")
     public ResponseEntity<ApiResponseWrapper<TransactionResponse>> createTransaction(@Valid @RequestBody TransactionRequest request) {
-        
+
+        admissionControl.admit(request.getUserId());
         TransactionResponse response = transactionService.evaluateAndSave(request);
         ApiResponseWrapper<TransactionResponse> wrapped = ApiResponseWrapper.success(response, "Transaction evaluated successfully.");
         return ResponseEntity.status(HttpStatus.CREATED).body(wrapped);
     }
 
+    @PostMapping("/async")
+    @Operation(
+        summary = "Submit a transaction for asynchronous evaluation",
+        description = "Queues a transaction for evaluation and returns immediately with a status URL. "
+            + "Poll the status URL for the result; it names the user so any instance can route the poll to the owner."
+    )
+    @ApiResponse(responseCode = "202", description = "Transaction accepted for evaluation")
+    @ApiResponse(responseCode = "200", description = "Transaction was already evaluated")
+    @ApiResponse(responseCode = "400", description = "Invalid request payload")
+    @ApiResponse(responseCode = "409", description = "Transaction id already used with a different payload")
+    @ApiResponse(responseCode = "429", description = "Evaluation queue is full")
+    public ResponseEntity<ApiResponseWrapper<TransactionStatusResponse>> submitTransaction(
+        @Valid @RequestBody TransactionRequest request,
+        @Parameter(hidden = true)
+        @RequestHeader(value = ShardForwarder.ORIGIN_HEADER, required = false) String origin) {
+
+        TransactionStatusResponse status = withStatusUrl(asyncEvaluationService.submit(request), request.getUserId(), origin);
+        if (status.getStatus() == EvaluationStatus.COMPLETED) {
+            return ResponseEntity.ok(ApiResponseWrapper.success(status, "Transaction already evaluated."));
+        }
+        return ResponseEntity.accepted()
+            .location(URI.create(status.getStatusUrl()))
+            .body(ApiResponseWrapper.success(status, "Transaction accepted for evaluation."));
+    }
+
+    @GetMapping("/{transactionId}")
+    @Operation(
+        summary = "Get the evaluation status of a transaction",
+        description = "Returns the status of an asynchronously submitted transaction, including the result once evaluated."
+    )
+    @ApiResponse(responseCode = "200", description = "Status found")
+    @ApiResponse(responseCode = "404", description = "Unknown transaction")
+    public ResponseEntity<ApiResponseWrapper<TransactionStatusResponse>> getTransactionStatus(
+        @Parameter(description = "Client-supplied transaction identifier")
+        @PathVariable String transactionId,
+        @Parameter(description = "User the transaction belongs to; in sharded mode it routes the request to the owning instance")
+        @RequestParam(required = false) String userId,
+        @Parameter(hidden = true)
+        @RequestHeader(value = ShardForwarder.ORIGIN_HEADER, required = false) String origin) {
+
+        return asyncEvaluationService.getStatus(transactionId)
+            .map(status -> ResponseEntity.ok(ApiResponseWrapper.success(withStatusUrl(status, userId, origin),
+                "Transaction status retrieved.")))
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponseWrapper.error("No transaction found: " + transactionId)));
+    }
+
+    @PostMapping("/batch")
     @Operation(
-        summary = "Get all transactions for a specific user",
-        description = "Fetches the full transaction history for the given user ID, sorted by timestamp (newest first)."
+        summary = "Submit a batch of transactions for evaluation",
+        description = "Evaluates a list of transactions in a single request and persists the accepted ones together. "
+            + "Each item is validated independently; invalid or duplicate items are reported per item and do not fail the batch."
+    )
+    @ApiResponse(responseCode = "200", description = "Batch processed; see per-item results")
+    @ApiResponse(responseCode = "400", description = "Empty or oversized batch")
+    public ResponseEntity<ApiResponseWrapper<BatchTransactionResponse>> createTransactionBatch(
+        @RequestBody List<TransactionRequest> requests,
+        @Parameter(hidden = true)
+        @RequestHeader(value = ShardForwarder.FORWARDED_HEADER, required = false) String forwardedBy) {
+
+        BatchTransactionResponse response = shardBatchDispatcher.evaluateAndSaveBatch(requests, forwardedBy != null);
+        String message = "Batch processed: " + response.getAccepted() + " accepted, " + response.getRejected() + " rejected.";
+        return ResponseEntity.ok(ApiResponseWrapper.success(response, message));
+    }
+
+    @Operation(
+        summary = "Get transactions for a specific user",
+        description = "Fetches one page of the user's transaction history, sorted by timestamp (newest first). "
+            + "Pass the returned nextCursor to fetch the following page, with the same includeArchived value."
     )
     @GetMapping("/user/{userId}")
-    public ResponseEntity<ApiResponseWrapper<List<TransactionResponse>>> getUserTransactions(
+    public ResponseEntity<ApiResponseWrapper<TransactionPageResponse>> getUserTransactions(
         @Parameter(description = "Unique identifier of the user whose transactions are to be fetched")
-        @PathVariable String userId) {
+        @PathVariable String userId,
+        @Parameter(description = "Opaque cursor returned as nextCursor by the previous page")
+        @RequestParam(required = false) String cursor,
+        @Parameter(description = "Maximum number of transactions to return")
+        @RequestParam(required = false) Integer limit,
+        @Parameter(description = "Also include transactions moved to the archive by the retention job")
+        @RequestParam(defaultValue = "false") boolean includeArchived) {
 
-        List<TransactionResponse> response = transactionService.getUserTransactions(userId);
+        TransactionPageResponse response = transactionService.getUserTransactions(userId, cursor, limit, includeArchived);
 
-        if (response.isEmpty()) {
+        if (response.getTransactions().isEmpty() && cursor == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(ApiResponseWrapper.error("No transactions found for user: " + userId));
         }
 
         return ResponseEntity.ok(ApiResponseWrapper.success(response, "Transactions retrieved successfully for user: " + userId));
     }
+
+    @Operation(
+        summary = "Stream the full transaction history for a user",
+        description = "Streams every transaction for the given user as newline-delimited JSON, newest first, "
+            + "reading rows from a database cursor as they are written."
+    )
+    @GetMapping(value = "/user/{userId}/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamUserTransactions(
+        @Parameter(description = "Unique identifier of the user whose transactions are to be streamed")
+        @PathVariable String userId) {
+
+        StreamingResponseBody body = outputStream -> {
+            long written;
+            try (SequenceWriter writer = objectMapper.writer()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                written = transactionService.streamUserTransactions(userId, tx -> {
+                    try {
+                        writer.write(tx);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+            if (written > 0) {
+                outputStream.write('\n');
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    private static TransactionStatusResponse withStatusUrl(TransactionStatusResponse status, String userId, String origin) {
+        UriComponentsBuilder builder = origin != null
+            ? UriComponentsBuilder.fromUriString(origin)
+            : ServletUriComponentsBuilder.fromCurrentContextPath();
+        builder.path("/api/v1/transactions/{transactionId}");
+        if (userId != null) {
+            builder.queryParam("userId", "{userId}");
+        }
+        String url = builder.encode()
+            .buildAndExpand(status.getTransactionId(), userId)
+            .toUriString();
+        return status.toBuilder().statusUrl(url).build();
+    }
 }
\ No newline at end of file
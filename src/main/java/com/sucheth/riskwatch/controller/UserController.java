@@ -4,6 +4,8 @@ import com.sucheth.riskwatch.dto.api.UserRiskProfileResponse;
 import com.sucheth.riskwatch.dto.common.ApiResponseWrapper;
 import com.sucheth.riskwatch.model.UserRiskProfile;
 import com.sucheth.riskwatch.service.UserRiskProfileService;
+import com.sucheth.riskwatch.service.sharding.ShardForwarder;
+import com.sucheth.riskwatch.service.sharding.ShardViews;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,7 +16,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/users")
@@ -23,21 +24,21 @@ import java.util.stream.Collectors;
 public class UserController {
 
     private final UserRiskProfileService userRiskProfileService;
+    private final ShardViews shardViews;
 
-    @Operation(summary = "List all flagged users", description = "Retrieves all users currently marked as high-risk or flagged")
+    @Operation(summary = "List all flagged users", description = "Retrieves all users currently marked as high-risk or flagged; "
+        + "in sharded mode, gathered from every instance")
     @GetMapping("/flagged")
-    public ResponseEntity<ApiResponseWrapper<List<UserRiskProfileResponse>>> getFlaggedUsers() {
+    public ResponseEntity<ApiResponseWrapper<List<UserRiskProfileResponse>>> getFlaggedUsers(
+        @Parameter(hidden = true)
+        @RequestHeader(value = ShardForwarder.FORWARDED_HEADER, required = false) String forwardedBy) {
 
-        List<UserRiskProfile> flaggedUsers = userRiskProfileService.getFlaggedUsers();
+        List<UserRiskProfileResponse> response = shardViews.flaggedUsers(forwardedBy != null);
 
-        if(flaggedUsers.isEmpty()) {
+        if(response.isEmpty()) {
             return ResponseEntity.ok(ApiResponseWrapper.success(List.of(), "No flagged users found"));
         }
 
-        List<UserRiskProfileResponse> response = flaggedUsers.stream()
-                .map(UserRiskProfileResponse::from)
-                .collect(Collectors.toList());
-
         return ResponseEntity.ok(ApiResponseWrapper.success(response, "Flagged users retrieved successfully"));
     }
 
@@ -0,0 +1,37 @@
+package com.sucheth.riskwatch.dto.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+
+    private int index;
+    private String transactionId;
+    private boolean accepted;
+    private String error;
+    private TransactionResponse result;
+
+    public static BatchItemResult accepted(int index, TransactionResponse result) {
+        return BatchItemResult.builder()
+                .index(index)
+                .transactionId(result.getTransactionId())
+                .accepted(true)
+                .result(result)
+                .build();
+    }
+
+    public static BatchItemResult rejected(int index, String transactionId, String error) {
+        return BatchItemResult.builder()
+                .index(index)
+                .transactionId(transactionId)
+                .accepted(false)
+                .error(error)
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.sucheth.riskwatch.dto.api;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransactionResponse {
+
+    private int received;
+    private int accepted;
+    private int rejected;
+    private List<BatchItemResult> results;
+
+    public static BatchTransactionResponse from(List<BatchItemResult> results) {
+        int accepted = (int) results.stream().filter(BatchItemResult::isAccepted).count();
+        return BatchTransactionResponse.builder()
+                .received(results.size())
+                .accepted(accepted)
+                .rejected(results.size() - accepted)
+                .results(results)
+                .build();
+    }
+}
@@ -0,0 +1,24 @@
+package com.sucheth.riskwatch.dto.api;
+
+import java.time.Instant;
+
+import lombok.Builder;
+import lombok.Data;
+import com.sucheth.riskwatch.model.enums.RescoreState;
+
+@Data
+@Builder
+public class RescoreStatusResponse {
+
+    private RescoreState state;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private Integer partitions;
+    private Integer completedPartitions;
+    private Long transactions;
+    private Long rescored;
+    private Long changed;
+    private Double percentComplete;
+    private Long profilesRebuilt;
+    private String error;
+}
@@ -0,0 +1,21 @@
+package com.sucheth.riskwatch.dto.api;
+
+import java.time.Instant;
+import java.util.Map;
+
+import com.sucheth.riskwatch.model.enums.RiskLevel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiskAnalyticsPoint {
+    private Instant start;
+    private long transactions;
+    private Map<RiskLevel, Long> riskLevels;
+}
@@ -0,0 +1,28 @@
+package com.sucheth.riskwatch.dto.api;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import com.sucheth.riskwatch.model.enums.ReasonCode;
+import com.sucheth.riskwatch.model.enums.RiskLevel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiskAnalyticsResponse {
+    private Instant from;
+    private Instant to;
+    private long stepSeconds;
+    private long transactions;
+    private Map<RiskLevel, Long> riskLevels;
+    private Map<String, Long> scoreHistogram;
+    private Map<ReasonCode, Long> reasons;
+    private List<RiskAnalyticsPoint> series;
+}
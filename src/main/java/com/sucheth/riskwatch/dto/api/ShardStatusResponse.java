@@ -0,0 +1,16 @@
+package com.sucheth.riskwatch.dto.api;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ShardStatusResponse {
+
+    private boolean enabled;
+    private String self;
+    private List<String> members;
+    private List<String> handoffPending;
+}
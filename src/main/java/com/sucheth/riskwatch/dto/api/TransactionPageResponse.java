@@ -0,0 +1,16 @@
+package com.sucheth.riskwatch.dto.api;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class TransactionPageResponse {
+
+    private List<TransactionResponse> transactions;
+    private int limit;
+    private boolean hasMore;
+    private String nextCursor;
+}
@@ -3,6 +3,7 @@ package com.sucheth.riskwatch.dto.api;
 import lombok.Data;
 import java.time.Instant;
 
+import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -18,6 +19,7 @@ public class TransactionRequest {
     
     @NotNull
     @Positive
+    @DecimalMax("1000000000")
     private Double amount;
     
 
@@ -1,14 +1,19 @@
 package com.sucheth.riskwatch.dto.api;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.time.Instant;
 import java.util.List;
 import com.sucheth.riskwatch.model.Transaction;
+import com.sucheth.riskwatch.model.enums.ReasonCode;
 import com.sucheth.riskwatch.model.enums.RiskLevel;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class TransactionResponse {
     
     private String transactionId;
@@ -17,6 +22,7 @@ public class TransactionResponse {
     private RiskLevel riskLevel;
     private List<String> reasons;
     private Instant evaluatedAt;
+    private boolean degraded;
 
     public static TransactionResponse from(Transaction tx) {
         return TransactionResponse.builder()
@@ -24,8 +30,9 @@ public class TransactionResponse {
         .userId(tx.getUserId())
         .riskScore(tx.getRiskScore())
         .riskLevel(tx.getRiskLevel())
-        .reasons(tx.getReasons())
+        .reasons(ReasonCode.describe(tx.getReasonCodes()))
         .evaluatedAt(tx.getTimestamp())
+        .degraded(tx.isDegraded())
         .build();
     }
 }
\ No newline at end of file
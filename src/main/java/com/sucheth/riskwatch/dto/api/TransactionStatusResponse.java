@@ -0,0 +1,20 @@
+package com.sucheth.riskwatch.dto.api;
+
+import java.time.Instant;
+
+import lombok.Builder;
+import lombok.Data;
+import com.sucheth.riskwatch.model.enums.EvaluationStatus;
+
+@Data
+@Builder(toBuilder = true)
+public class TransactionStatusResponse {
+
+    private String transactionId;
+    private EvaluationStatus status;
+    private String statusUrl;
+    private Instant submittedAt;
+    private Instant completedAt;
+    private TransactionResponse result;
+    private String error;
+}
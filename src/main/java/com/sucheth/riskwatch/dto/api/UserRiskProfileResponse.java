@@ -2,13 +2,19 @@ package com.sucheth.riskwatch.dto.api;
 
 import com.sucheth.riskwatch.model.UserRiskProfile;
 import com.sucheth.riskwatch.model.enums.UserRiskLevel;
+import com.sucheth.riskwatch.util.ActivityWindow;
+import com.sucheth.riskwatch.util.AmountSketch;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.Instant;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class UserRiskProfileResponse {
     private String userId;
     private Integer totalTransactions;
@@ -17,8 +23,21 @@ public class UserRiskProfileResponse {
     private Instant lastTransactionTime;
     private UserRiskLevel userRiskLevel;
     private Boolean isFlagged;
+    private Double recentRiskScore;
+    private Integer transactionsLast24Hours;
+    private Integer highRiskTransactionsLast24Hours;
+    private Double averageRiskScoreLast24Hours;
+    private Integer transactionsLast30Days;
+    private Double averageRiskScoreLast30Days;
+    private Double medianAmount;
+    private Double p99Amount;
 
     public static UserRiskProfileResponse from(UserRiskProfile profile) {
+        ActivityWindow activity = ActivityWindow.unpack(profile.getActivityWindow());
+        Instant now = Instant.now();
+        ActivityWindow.Stats lastDay = activity.lastHours(24, now);
+        ActivityWindow.Stats lastMonth = activity.lastDays(30, now);
+        AmountSketch amounts = AmountSketch.unpack(profile.getAmountSketch());
         return UserRiskProfileResponse.builder()
                 .userId(profile.getUserId())
                 .totalTransactions(profile.getTotalTransactions())
@@ -27,6 +46,14 @@ public class UserRiskProfileResponse {
                 .lastTransactionTime(profile.getLastTransactionTime())
                 .userRiskLevel(profile.getUserRiskLevel())
                 .isFlagged(profile.getIsFlagged())
+                .recentRiskScore(profile.getRecentRiskScore())
+                .transactionsLast24Hours(lastDay.transactions())
+                .highRiskTransactionsLast24Hours(lastDay.highRiskTransactions())
+                .averageRiskScoreLast24Hours(lastDay.averageRiskScore())
+                .transactionsLast30Days(lastMonth.transactions())
+                .averageRiskScoreLast30Days(lastMonth.averageRiskScore())
+                .medianAmount(amounts.count() == 0 ? null : amounts.quantile(0.5))
+                .p99Amount(amounts.count() == 0 ? null : amounts.quantile(0.99))
                 .build();
     }
 }
\ No newline at end of file
@@ -35,6 +35,15 @@ public class ApiResponseWrapper<T> {
                 .build();
     }
 
+    public static <T> ApiResponseWrapper<T> error(T data, String message) {
+        return ApiResponseWrapper.<T>builder()
+            .success(false)
+            .message(message)
+            .data(data)
+            .timestamp(Instant.now())
+            .build();
+    }
+
     public static <T> ApiResponseWrapper<T> error(String message) {
         return ApiResponseWrapper.<T>builder()
             .success(false)
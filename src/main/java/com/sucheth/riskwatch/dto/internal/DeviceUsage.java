@@ -0,0 +1,14 @@
+package com.sucheth.riskwatch.dto.internal;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class DeviceUsage {
+    private String deviceId;
+    private String userId;
+    private Instant timestamp;
+}
@@ -0,0 +1,42 @@
+package com.sucheth.riskwatch.dto.internal;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+import lombok.Builder;
+import lombok.Data;
+import com.sucheth.riskwatch.dto.api.TransactionRequest;
+import com.sucheth.riskwatch.dto.api.TransactionResponse;
+import com.sucheth.riskwatch.model.Transaction;
+
+@Data
+@Builder
+public class ProcessedTransaction {
+
+    private TransactionResponse response;
+    private Double amount;
+    private String deviceId;
+    private String location;
+
+    public static ProcessedTransaction from(Transaction tx) {
+        return ProcessedTransaction.builder()
+            .response(TransactionResponse.from(tx))
+            .amount(tx.getAmount())
+            .deviceId(tx.getDeviceId())
+            .location(tx.getLocation())
+            .build();
+    }
+
+    public boolean matches(TransactionRequest request) {
+        return Objects.equals(response.getUserId(), request.getUserId())
+            && Objects.equals(amount, request.getAmount())
+            && Objects.equals(deviceId, request.getDeviceId())
+            && Objects.equals(location, request.getLocation())
+            && (request.getTimestamp() == null || sameInstant(response.getEvaluatedAt(), request.getTimestamp()));
+    }
+
+    private static boolean sameInstant(Instant stored, Instant requested) {
+        return stored.truncatedTo(ChronoUnit.MICROS).equals(requested.truncatedTo(ChronoUnit.MICROS));
+    }
+}
@@ -0,0 +1,18 @@
+package com.sucheth.riskwatch.dto.internal;
+
+import java.time.Instant;
+
+import com.sucheth.riskwatch.model.enums.RiskLevel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ProfileEvent {
+    private String userId;
+    private Double amount;
+    private Instant timestamp;
+    private double riskScore;
+    private RiskLevel riskLevel;
+}
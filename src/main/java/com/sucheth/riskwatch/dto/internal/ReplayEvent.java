@@ -0,0 +1,15 @@
+package com.sucheth.riskwatch.dto.internal;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ReplayEvent {
+    private String transactionId;
+    private String userId;
+    private String deviceId;
+    private Instant timestamp;
+}
@@ -1,7 +1,5 @@
 package com.sucheth.riskwatch.dto.internal;
 
-import java.util.List;
-
 import com.sucheth.riskwatch.model.enums.RiskLevel;
 
 import lombok.AllArgsConstructor;
@@ -13,5 +11,6 @@ import lombok.Data;
 public class RiskEvaluationResult {
     private double score;
     private RiskLevel level;
-    private List<String> reasons;
+    private long reasonCodes;
+    private boolean degraded;
 }
\ No newline at end of file
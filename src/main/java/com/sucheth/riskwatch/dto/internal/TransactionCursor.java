@@ -0,0 +1,44 @@
+package com.sucheth.riskwatch.dto.internal;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import com.sucheth.riskwatch.model.Transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TransactionCursor {
+    private Instant timestamp;
+    private long id;
+
+    public static TransactionCursor after(Transaction tx) {
+        return new TransactionCursor(tx.getTimestamp(), tx.getId());
+    }
+
+    public static TransactionCursor decode(String cursor) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII).split(":");
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Malformed cursor: " + cursor, ex);
+        }
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed cursor: " + cursor);
+        }
+        try {
+            Instant timestamp = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new TransactionCursor(timestamp, Long.parseLong(parts[2]));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Malformed cursor: " + cursor, ex);
+        }
+    }
+
+    public String encode() {
+        String raw = timestamp.getEpochSecond() + ":" + timestamp.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+}
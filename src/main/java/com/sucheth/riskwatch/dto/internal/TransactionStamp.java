@@ -0,0 +1,13 @@
+package com.sucheth.riskwatch.dto.internal;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TransactionStamp {
+    private String transactionId;
+    private Instant timestamp;
+}
@@ -0,0 +1,31 @@
+package com.sucheth.riskwatch.dto.internal;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UserRiskProfileDelta {
+    private String userId;
+    private int transactions;
+    private double scoreSum;
+    private int highRiskTransactions;
+    private Instant lastTransactionTime;
+    private Double decayedScoreSum;
+    private Double decayedWeight;
+    private Instant decayedAt;
+    private byte[] activityWindow;
+    private byte[] amountSketch;
+    private boolean recentlyFlagged;
+
+    public UserRiskProfileDelta(String userId, int transactions, double scoreSum, int highRiskTransactions,
+                                Instant lastTransactionTime) {
+        this(userId, transactions, scoreSum, highRiskTransactions, lastTransactionTime, null, null, null, null, null, false);
+    }
+
+    public boolean hasDecayedScore() {
+        return decayedWeight != null && decayedWeight > 0;
+    }
+}
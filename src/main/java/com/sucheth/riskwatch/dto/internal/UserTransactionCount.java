@@ -0,0 +1,11 @@
+package com.sucheth.riskwatch.dto.internal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UserTransactionCount {
+    private String userId;
+    private long transactions;
+}
@@ -0,0 +1,24 @@
+package com.sucheth.riskwatch.exception;
+
+import lombok.Getter;
+import com.sucheth.riskwatch.dto.api.TransactionRequest;
+import com.sucheth.riskwatch.dto.api.TransactionResponse;
+import com.sucheth.riskwatch.dto.internal.ProcessedTransaction;
+
+@Getter
+public class DuplicateTransactionException extends RuntimeException {
+
+    private final TransactionResponse original;
+    private final boolean replay;
+
+    public DuplicateTransactionException(TransactionResponse original, boolean replay) {
+        super((replay ? "Transaction already evaluated: " : "Transaction id already used with a different payload: ")
+                + original.getTransactionId());
+        this.original = original;
+        this.replay = replay;
+    }
+
+    public static DuplicateTransactionException of(ProcessedTransaction original, TransactionRequest request) {
+        return new DuplicateTransactionException(original.getResponse(), original.matches(request));
+    }
+}
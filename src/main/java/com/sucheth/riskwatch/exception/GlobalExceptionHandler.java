@@ -1,5 +1,7 @@
 package com.sucheth.riskwatch.exception;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -7,6 +9,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import com.sucheth.riskwatch.dto.api.TransactionResponse;
 import com.sucheth.riskwatch.dto.common.ApiResponseWrapper;
 
 import jakarta.validation.ConstraintViolationException;
@@ -43,6 +46,44 @@ public class GlobalExceptionHandler {
                 .body(ApiResponseWrapper.error("Invalid argument: " + ex.getMessage()));
     }
 
+    @ExceptionHandler(DuplicateTransactionException.class)
+    public ResponseEntity<ApiResponseWrapper<TransactionResponse>> handleDuplicateTransactionException(
+            DuplicateTransactionException ex) {
+        if (ex.isReplay()) {
+            return ResponseEntity.ok(ApiResponseWrapper.success(ex.getOriginal(),
+                    "Transaction already evaluated; returning the original result."));
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponseWrapper.error(ex.getOriginal(), ex.getMessage()));
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiResponseWrapper<String>> handleDataIntegrityViolationException(
+            DataIntegrityViolationException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponseWrapper.error("Request conflicts with an existing record."));
+    }
+
+    @ExceptionHandler(QueueFullException.class)
+    public ResponseEntity<ApiResponseWrapper<String>> handleQueueFullException(QueueFullException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiResponseWrapper.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(RateLimitedException.class)
+    public ResponseEntity<ApiResponseWrapper<String>> handleRateLimitedException(RateLimitedException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(ApiResponseWrapper.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(RescoreInProgressException.class)
+    public ResponseEntity<ApiResponseWrapper<String>> handleRescoreInProgressException(RescoreInProgressException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponseWrapper.error(ex.getMessage()));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponseWrapper<String>> handleGenericException(Exception ex) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,8 @@
+package com.sucheth.riskwatch.exception;
+
+public class QueueFullException extends RuntimeException {
+
+    public QueueFullException(String message) {
+        super(message);
+    }
+}
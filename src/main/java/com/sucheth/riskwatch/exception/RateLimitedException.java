@@ -0,0 +1,14 @@
+package com.sucheth.riskwatch.exception;
+
+import lombok.Getter;
+
+@Getter
+public class RateLimitedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,8 @@
+package com.sucheth.riskwatch.exception;
+
+public class RescoreInProgressException extends RuntimeException {
+
+    public RescoreInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,67 @@
+package com.sucheth.riskwatch.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.sucheth.riskwatch.dto.internal.RiskEvaluationResult;
+import com.sucheth.riskwatch.model.enums.ReasonCode;
+import com.sucheth.riskwatch.model.enums.RiskLevel;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+
+/**
+ * Meters for the transaction hot path. Percentile histograms for the {@code riskwatch.*}
+ * timers are switched on through {@code management.metrics.distribution} in application.yaml.
+ */
+@Component
+public class RiskMetrics {
+
+    @Getter
+    private final Timer evaluateAndSave;
+    @Getter
+    private final Timer evaluateAndSaveBatch;
+    @Getter
+    private final Timer evaluation;
+    @Getter
+    private final Timer persist;
+    @Getter
+    private final Timer persistBatch;
+    @Getter
+    private final Timer profileUpdate;
+
+    private final Map<RiskLevel, Counter> levelCounters = new EnumMap<>(RiskLevel.class);
+    private final Map<ReasonCode, Counter> reasonCounters = new EnumMap<>(ReasonCode.class);
+
+    public RiskMetrics(MeterRegistry meterRegistry) {
+        this.evaluateAndSave = Timer.builder("riskwatch.transaction.evaluate-and-save")
+                .tag("mode", "single").register(meterRegistry);
+        this.evaluateAndSaveBatch = Timer.builder("riskwatch.transaction.evaluate-and-save")
+                .tag("mode", "batch").register(meterRegistry);
+        this.evaluation = Timer.builder("riskwatch.evaluation").register(meterRegistry);
+        this.persist = Timer.builder("riskwatch.transaction.persist")
+                .tag("mode", "single").register(meterRegistry);
+        this.persistBatch = Timer.builder("riskwatch.transaction.persist")
+                .tag("mode", "batch").register(meterRegistry);
+        this.profileUpdate = Timer.builder("riskwatch.profile.update").register(meterRegistry);
+        for (RiskLevel level : RiskLevel.values()) {
+            levelCounters.put(level, Counter.builder("riskwatch.transactions")
+                    .tag("level", level.name()).register(meterRegistry));
+        }
+        for (ReasonCode reason : ReasonCode.values()) {
+            reasonCounters.put(reason, Counter.builder("riskwatch.transaction.reasons")
+                    .tag("reason", reason.name()).register(meterRegistry));
+        }
+    }
+
+    public void recordOutcome(RiskEvaluationResult result) {
+        levelCounters.get(result.getLevel()).increment();
+        for (ReasonCode reason : ReasonCode.fromMask(result.getReasonCodes())) {
+            reasonCounters.get(reason).increment();
+        }
+    }
+}
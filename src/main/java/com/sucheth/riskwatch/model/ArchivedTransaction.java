@@ -0,0 +1,57 @@
+package com.sucheth.riskwatch.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.*;
+import com.sucheth.riskwatch.model.enums.RiskLevel;
+
+/**
+ * A transaction moved out of the hot table by the retention job. Rows keep their original
+ * id, so history pages that span both tables keep a single (timestamp, id) order.
+ */
+@Entity
+@Table(name = "transaction_archive",
+        indexes = @Index(name = "idx_transaction_archive_user_timestamp", columnList = "userId, timestamp"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedTransaction {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String transactionId;
+
+    @Column(nullable = false)
+    private String userId;
+
+    @Column(nullable = false)
+    private Double amount;
+
+    @Column(nullable = false)
+    private Instant timestamp;
+
+    private String deviceId;
+    private String location;
+
+    @Column(nullable = false)
+    private double riskScore;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RiskLevel riskLevel;
+
+    @Column(nullable = false)
+    private long reasonCodes;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+
+    public Transaction toTransaction() {
+        return new Transaction(id, transactionId, userId, amount, timestamp, deviceId, location,
+                riskScore, riskLevel, reasonCodes);
+    }
+}
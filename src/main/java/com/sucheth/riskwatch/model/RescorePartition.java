@@ -0,0 +1,36 @@
+package com.sucheth.riskwatch.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Checkpoint for one range of users in a rescoring job: users after {@code afterUserId}
+ * up to and including {@code lastUserId}. {@code afterUserId} advances as users are
+ * rescored, so a resumed job picks up where the range stopped.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RescorePartition {
+
+    @Id
+    private Integer partitionNo;
+
+    @Column(nullable = false)
+    private String afterUserId;
+
+    @Column(nullable = false)
+    private String lastUserId;
+
+    private long transactions;
+    private long rescored;
+    private long changed;
+    private boolean completed;
+}
@@ -0,0 +1,41 @@
+package com.sucheth.riskwatch.model;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Persisted hourly analytics counter: how many evaluations in the hour starting at
+ * {@code bucketStart} counted towards {@code metric}, e.g. {@code level:HIGH}.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(RiskAnalyticsCount.Key.class)
+public class RiskAnalyticsCount {
+
+    @Id
+    private Instant bucketStart;
+
+    @Id
+    @Column(length = 64)
+    private String metric;
+
+    private long tally;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Instant bucketStart;
+        private String metric;
+    }
+}
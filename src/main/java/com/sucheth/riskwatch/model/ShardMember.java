@@ -0,0 +1,35 @@
+package com.sucheth.riskwatch.model;
+
+import java.time.Instant;
+
+import org.hibernate.annotations.ColumnDefault;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A running instance in sharded mode, identified by the base URL other instances forward
+ * to. Members whose heartbeat is older than the membership timeout are left off the ring.
+ * {@code ringVersion} identifies the ring the member had installed at its last heartbeat,
+ * which is how a new owner learns that the previous owner has let go of its users.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardMember {
+
+    @Id
+    private String url;
+
+    @Column(nullable = false)
+    private Instant heartbeatAt;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int ringVersion;
+}
@@ -1,8 +1,8 @@
 package com.sucheth.riskwatch.model;
 
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
+
+import org.hibernate.annotations.ColumnDefault;
 
 import jakarta.persistence.*;
 import lombok.*;
@@ -10,14 +10,24 @@ import com.sucheth.riskwatch.model.enums.RiskLevel;
 
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_transaction_user_timestamp", columnList = "userId, timestamp"),
+        @Index(name = "idx_transaction_risk_level_timestamp", columnList = "riskLevel, timestamp"),
+        @Index(name = "idx_transaction_device_timestamp", columnList = "deviceId, timestamp"),
+        @Index(name = "idx_transaction_timestamp", columnList = "timestamp"),
+        @Index(name = "idx_transaction_recorded_at", columnList = "recordedAt")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Transaction {
-    
+
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -42,8 +52,22 @@ public class Transaction {
     @Column(nullable = false)
     private RiskLevel riskLevel;
 
-    @ElementCollection
-    @CollectionTable(name = "transaction_reasons", joinColumns = @JoinColumn(name = "transaction_id"))
-    @Column(name = "reason")
-    private List<String> reasons = new ArrayList<>();
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long reasonCodes;
+
+    // database time at the start of the inserting transaction, so never later than its commit
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(insertable = false, updatable = false)
+    private Instant recordedAt;
+
+    // scored without the database-backed rules while load shedding; reported, not stored
+    @Transient
+    private boolean degraded;
+
+    // stored columns only, for constructor-expression queries
+    public Transaction(Long id, String transactionId, String userId, Double amount, Instant timestamp, String deviceId,
+                       String location, double riskScore, RiskLevel riskLevel, long reasonCodes) {
+        this(id, transactionId, userId, amount, timestamp, deviceId, location, riskScore, riskLevel, reasonCodes, null, false);
+    }
 }
\ No newline at end of file
@@ -20,6 +20,9 @@ import com.sucheth.riskwatch.model.enums.UserRiskLevel;
 @Builder
 public class UserRiskProfile {
 
+    public static final int ACTIVITY_WINDOW_BYTES = 1024;
+    public static final int AMOUNT_SKETCH_BYTES = 2048;
+
     @Id
     private String userId;
 
@@ -42,6 +45,25 @@ public class UserRiskProfile {
     @Column(nullable = false)
     private Boolean isFlagged;
 
+    private Double decayedScoreSum;
+
+    private Double decayedWeight;
+
+    private Instant decayedAt;
+
+    @Column(length = ACTIVITY_WINDOW_BYTES)
+    private byte[] activityWindow;
+
+    @Column(length = AMOUNT_SKETCH_BYTES)
+    private byte[] amountSketch;
+
+    public double getRecentRiskScore() {
+        if (decayedWeight == null || decayedWeight <= 0) {
+            return averageRiskScore != null ? averageRiskScore : 0.0;
+        }
+        return decayedScoreSum / decayedWeight;
+    }
+
     public void incrementTransactionCount() {
         if (this.totalTransactions == null) {
             this.totalTransactions = 0;
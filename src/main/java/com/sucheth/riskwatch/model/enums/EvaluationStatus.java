@@ -0,0 +1,8 @@
+package com.sucheth.riskwatch.model.enums;
+
+public enum EvaluationStatus {
+    QUEUED,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
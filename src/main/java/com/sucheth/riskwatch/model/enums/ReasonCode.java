@@ -0,0 +1,64 @@
+package com.sucheth.riskwatch.model.enums;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reasons a transaction was scored as risky. Each code owns a fixed bit in
+ * {@code Transaction.reasonCodes}; bits are part of the stored format, so new codes take
+ * the next free bit and existing bits are never reassigned.
+ */
+public enum ReasonCode {
+    AMOUNT_OVER_THRESHOLD(0, "Transaction amount exceeds threshold."),
+    HIGH_VELOCITY(1, "High transaction velocity detected."),
+    SHARED_DEVICE(2, "Device is shared across multiple accounts."),
+    UNUSUAL_AMOUNT(3, "Transaction amount is unusual for this user.");
+
+    private static final ReasonCode[] VALUES = values();
+
+    private final int bit;
+    private final String description;
+
+    ReasonCode(int bit, String description) {
+        this.bit = bit;
+        this.description = description;
+    }
+
+    public long mask() {
+        return 1L << bit;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public static List<ReasonCode> fromMask(long mask) {
+        List<ReasonCode> codes = new ArrayList<>(Long.bitCount(mask));
+        for (ReasonCode code : VALUES) {
+            if ((mask & code.mask()) != 0) {
+                codes.add(code);
+            }
+        }
+        return codes;
+    }
+
+    public static List<String> describe(long mask) {
+        List<String> descriptions = new ArrayList<>(Long.bitCount(mask));
+        for (ReasonCode code : VALUES) {
+            if ((mask & code.mask()) != 0) {
+                descriptions.add(code.description);
+            }
+        }
+        return descriptions;
+    }
+
+    public static Optional<ReasonCode> fromDescription(String description) {
+        for (ReasonCode code : VALUES) {
+            if (code.description.equals(description)) {
+                return Optional.of(code);
+            }
+        }
+        return Optional.empty();
+    }
+}
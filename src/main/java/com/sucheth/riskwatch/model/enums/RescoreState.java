@@ -0,0 +1,9 @@
+package com.sucheth.riskwatch.model.enums;
+
+public enum RescoreState {
+    IDLE,
+    RUNNING,
+    REBUILDING_PROFILES,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,27 @@
+package com.sucheth.riskwatch.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.sucheth.riskwatch.model.ArchivedTransaction;
+
+@Repository
+public interface ArchivedTransactionRepository extends JpaRepository<ArchivedTransaction, Long> {
+
+    @Query("SELECT a FROM ArchivedTransaction a WHERE a.userId = :userId ORDER BY a.timestamp DESC, a.id DESC")
+    List<ArchivedTransaction> findRecentTransactions(@Param("userId") String userId, Pageable pageable);
+
+    @Query("SELECT a FROM ArchivedTransaction a WHERE a.userId = :userId"
+            + " AND (a.timestamp < :timestamp OR (a.timestamp = :timestamp AND a.id < :id))"
+            + " ORDER BY a.timestamp DESC, a.id DESC")
+    List<ArchivedTransaction> findRecentTransactionsBefore(@Param("userId") String userId,
+                                                           @Param("timestamp") Instant timestamp,
+                                                           @Param("id") long id,
+                                                           Pageable pageable);
+}
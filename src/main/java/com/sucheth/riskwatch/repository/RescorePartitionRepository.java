@@ -0,0 +1,14 @@
+package com.sucheth.riskwatch.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.sucheth.riskwatch.model.RescorePartition;
+
+@Repository
+public interface RescorePartitionRepository extends JpaRepository<RescorePartition, Integer> {
+
+    List<RescorePartition> findAllByOrderByPartitionNo();
+}
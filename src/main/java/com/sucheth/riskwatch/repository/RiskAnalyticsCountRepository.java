@@ -0,0 +1,23 @@
+package com.sucheth.riskwatch.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.sucheth.riskwatch.model.RiskAnalyticsCount;
+
+@Repository
+public interface RiskAnalyticsCountRepository
+        extends JpaRepository<RiskAnalyticsCount, RiskAnalyticsCount.Key>, RiskAnalyticsCountRepositoryCustom {
+
+    List<RiskAnalyticsCount> findByBucketStartGreaterThanEqual(Instant from);
+
+    @Modifying
+    @Query("DELETE FROM RiskAnalyticsCount c WHERE c.bucketStart < :cutoff")
+    int deleteBucketsBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,10 @@
+package com.sucheth.riskwatch.repository;
+
+import java.util.List;
+
+import com.sucheth.riskwatch.model.RiskAnalyticsCount;
+
+public interface RiskAnalyticsCountRepositoryCustom {
+
+    void addTallies(List<RiskAnalyticsCount> increments);
+}
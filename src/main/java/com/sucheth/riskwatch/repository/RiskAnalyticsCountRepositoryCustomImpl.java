@@ -0,0 +1,75 @@
+package com.sucheth.riskwatch.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import com.sucheth.riskwatch.model.RiskAnalyticsCount;
+
+/**
+ * Adds increments to the stored analytics tallies with one atomic upsert per counter, so
+ * several instances flushing the same hour add up instead of overwriting each other.
+ */
+public class RiskAnalyticsCountRepositoryCustomImpl implements RiskAnalyticsCountRepositoryCustom {
+
+    private static final String H2_UPSERT =
+            "MERGE INTO risk_analytics_count c USING (VALUES (CAST(? AS TIMESTAMP(6) WITH TIME ZONE), "
+            + "CAST(? AS VARCHAR(64)), CAST(? AS BIGINT))) AS d(bucket_start, metric, tally) "
+            + "ON c.bucket_start = d.bucket_start AND c.metric = d.metric "
+            + "WHEN MATCHED THEN UPDATE SET tally = c.tally + d.tally "
+            + "WHEN NOT MATCHED THEN INSERT (bucket_start, metric, tally) VALUES (d.bucket_start, d.metric, d.tally)";
+
+    private static final String POSTGRES_UPSERT =
+            "INSERT INTO risk_analytics_count AS c (bucket_start, metric, tally) VALUES (?, ?, ?) "
+            + "ON CONFLICT (bucket_start, metric) DO UPDATE SET tally = c.tally + EXCLUDED.tally";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String product;
+
+    public RiskAnalyticsCountRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void addTallies(List<RiskAnalyticsCount> increments) {
+        if (increments.isEmpty()) {
+            return;
+        }
+        String sql = "H2".equals(product()) ? H2_UPSERT : POSTGRES_UPSERT;
+        jdbcTemplate.batchUpdate(sql, increments, increments.size(), RiskAnalyticsCountRepositoryCustomImpl::bind);
+    }
+
+    private static void bind(PreparedStatement ps, RiskAnalyticsCount increment) throws SQLException {
+        ps.setTimestamp(1, Timestamp.from(increment.getBucketStart()));
+        ps.setString(2, increment.getMetric());
+        ps.setLong(3, increment.getTally());
+    }
+
+    private String product() {
+        String resolved = product;
+        if (resolved == null) {
+            resolved = resolveProduct();
+            product = resolved;
+        }
+        return resolved;
+    }
+
+    private String resolveProduct() {
+        String name;
+        try {
+            name = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    metaData -> metaData.getDatabaseProductName());
+        } catch (MetaDataAccessException ex) {
+            throw new IllegalStateException("Unable to determine database product for analytics upsert", ex);
+        }
+        if (!"H2".equals(name) && !"PostgreSQL".equals(name)) {
+            throw new IllegalStateException("Analytics upsert is not supported on " + name);
+        }
+        return name;
+    }
+}
@@ -0,0 +1,22 @@
+package com.sucheth.riskwatch.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.sucheth.riskwatch.model.ShardMember;
+
+@Repository
+public interface ShardMemberRepository extends JpaRepository<ShardMember, String> {
+
+    List<ShardMember> findByHeartbeatAtAfter(Instant cutoff);
+
+    @Modifying
+    @Query("DELETE FROM ShardMember m WHERE m.heartbeatAt < :cutoff")
+    int deleteExpired(@Param("cutoff") Instant cutoff);
+}
@@ -1,12 +1,24 @@
 package com.sucheth.riskwatch.repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.QueryHint;
+
+import com.sucheth.riskwatch.dto.internal.DeviceUsage;
+import com.sucheth.riskwatch.dto.internal.ProfileEvent;
+import com.sucheth.riskwatch.dto.internal.ReplayEvent;
+import com.sucheth.riskwatch.dto.internal.TransactionStamp;
+import com.sucheth.riskwatch.dto.internal.UserTransactionCount;
 import com.sucheth.riskwatch.model.Transaction;
 import com.sucheth.riskwatch.model.enums.RiskLevel;
 
@@ -15,16 +27,88 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 
     List<Transaction> findByUserId(String userId);
 
+    Optional<Transaction> findByTransactionId(String transactionId);
+
     List<Transaction> findByRiskLevel(RiskLevel riskLevel);
 
     List<Transaction> findByUserIdAndTimestampAfter(String userId, Instant cutoff);
 
+    @Query("SELECT new com.sucheth.riskwatch.dto.internal.TransactionStamp(t.transactionId, t.timestamp)"
+            + " FROM Transaction t WHERE t.userId = :userId AND t.timestamp > :cutoff")
+    List<TransactionStamp> findStampsByUserIdAndTimestampAfter(@Param("userId") String userId,
+                                                               @Param("cutoff") Instant cutoff);
+
+    @Query("SELECT t.transactionId FROM Transaction t WHERE t.transactionId IN :transactionIds")
+    List<String> findExistingTransactionIds(@Param("transactionIds") Collection<String> transactionIds);
+
     @Query("SELECT t FROM Transaction t WHERE t.riskScore > :minScore")
     List<Transaction> findTransactionsAboveRiskScore(@Param("minScore") double minScore);
 
-    @Query("SELECT t FROM Transaction t WHERE t.userId = :userId ORDER BY t.timestamp DESC")
+    @Query("SELECT t FROM Transaction t WHERE t.userId = :userId ORDER BY t.timestamp DESC, t.id DESC")
     List<Transaction> findRecentTransactions(
             @Param("userId") String userId,
             org.springframework.data.domain.Pageable pageable
     );
-}
\ No newline at end of file
+
+    @Query("SELECT t FROM Transaction t WHERE t.userId = :userId"
+            + " AND (t.timestamp < :timestamp OR (t.timestamp = :timestamp AND t.id < :id))"
+            + " ORDER BY t.timestamp DESC, t.id DESC")
+    List<Transaction> findRecentTransactionsBefore(
+            @Param("userId") String userId,
+            @Param("timestamp") Instant timestamp,
+            @Param("id") long id,
+            org.springframework.data.domain.Pageable pageable
+    );
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t FROM Transaction t WHERE t.userId = :userId ORDER BY t.timestamp DESC, t.id DESC")
+    Stream<Transaction> streamByUserId(@Param("userId") String userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT new com.sucheth.riskwatch.dto.internal.DeviceUsage(t.deviceId, t.userId, t.timestamp)"
+            + " FROM Transaction t WHERE t.deviceId IS NOT NULL AND t.timestamp > :cutoff")
+    Stream<DeviceUsage> streamDeviceUsageAfter(@Param("cutoff") Instant cutoff);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT t.transactionId FROM Transaction t")
+    Stream<String> streamAllTransactionIds();
+
+    @Query("SELECT COALESCE(MAX(t.id), 0) FROM Transaction t")
+    long findMaxId();
+
+    @Query("SELECT MAX(t.recordedAt) FROM Transaction t")
+    Instant findMaxRecordedAt();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT new com.sucheth.riskwatch.dto.internal.ReplayEvent(t.transactionId, t.userId, t.deviceId, t.timestamp)"
+            + " FROM Transaction t WHERE t.recordedAt > :since ORDER BY t.recordedAt, t.id")
+    Stream<ReplayEvent> streamReplayEventsRecordedAfter(@Param("since") Instant since);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT new com.sucheth.riskwatch.dto.internal.ProfileEvent(e.userId, e.amount, e.timestamp, e.riskScore, e.riskLevel)"
+            + " FROM (SELECT t.userId AS userId, t.amount AS amount, t.timestamp AS timestamp,"
+            + " t.riskScore AS riskScore, t.riskLevel AS riskLevel, t.id AS id FROM Transaction t"
+            + " UNION ALL SELECT a.userId, a.amount, a.timestamp, a.riskScore, a.riskLevel, a.id"
+            + " FROM ArchivedTransaction a) e"
+            + " ORDER BY e.userId, e.timestamp, e.id")
+    Stream<ProfileEvent> streamProfileEvents();
+
+    @Query("SELECT new com.sucheth.riskwatch.dto.internal.DeviceUsage(t.deviceId, t.userId, t.timestamp)"
+            + " FROM Transaction t WHERE t.deviceId = :deviceId AND t.timestamp > :from AND t.timestamp <= :to")
+    List<DeviceUsage> findDeviceUsageBetween(@Param("deviceId") String deviceId,
+                                             @Param("from") Instant from,
+                                             @Param("to") Instant to);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT new com.sucheth.riskwatch.dto.internal.UserTransactionCount(t.userId, COUNT(t))"
+            + " FROM Transaction t GROUP BY t.userId ORDER BY t.userId")
+    Stream<UserTransactionCount> streamTransactionCountsByUser();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT new com.sucheth.riskwatch.model.Transaction(t.id, t.transactionId, t.userId, t.amount, t.timestamp,"
+            + " t.deviceId, t.location, t.riskScore, t.riskLevel, t.reasonCodes)"
+            + " FROM Transaction t WHERE t.userId > :afterUserId AND t.userId <= :lastUserId"
+            + " ORDER BY t.userId, t.timestamp, t.id")
+    Stream<Transaction> streamUserRange(@Param("afterUserId") String afterUserId,
+                                        @Param("lastUserId") String lastUserId);
+}
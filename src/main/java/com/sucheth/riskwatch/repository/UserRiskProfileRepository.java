@@ -7,6 +7,6 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface UserRiskProfileRepository extends JpaRepository<UserRiskProfile, String> {
+public interface UserRiskProfileRepository extends JpaRepository<UserRiskProfile, String>, UserRiskProfileRepositoryCustom {
     List<UserRiskProfile> findByIsFlaggedTrue();
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.sucheth.riskwatch.repository;
+
+import java.util.List;
+
+import com.sucheth.riskwatch.dto.internal.UserRiskProfileDelta;
+import com.sucheth.riskwatch.model.UserRiskProfile;
+
+public interface UserRiskProfileRepositoryCustom {
+
+    void upsertDeltas(List<UserRiskProfileDelta> deltas);
+
+    void replaceProfiles(List<UserRiskProfile> profiles);
+}
@@ -0,0 +1,200 @@
+package com.sucheth.riskwatch.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import com.sucheth.riskwatch.dto.internal.UserRiskProfileDelta;
+import com.sucheth.riskwatch.model.UserRiskProfile;
+import com.sucheth.riskwatch.model.enums.UserRiskLevel;
+import com.sucheth.riskwatch.util.RiskScoringUtils;
+
+/**
+ * Applies profile deltas with a single atomic statement per user: {@code MERGE} on H2 and
+ * {@code INSERT ... ON CONFLICT DO UPDATE} on PostgreSQL. The running average and counters
+ * are derived from the stored row inside the statement, so concurrent writers never
+ * overwrite each other's increments. The decayed score, activity window and amount
+ * sketch are snapshots owned by the writer that produced them and replace the stored
+ * values when present; the risk level follows the decayed score when one is supplied and
+ * the lifetime average otherwise. Profiles rebuilt from the full history replace the
+ * stored row outright.
+ */
+public class UserRiskProfileRepositoryCustomImpl implements UserRiskProfileRepositoryCustom {
+
+    private static final String COLUMNS =
+            "user_id, total_transactions, average_risk_score, high_risk_transaction_count, "
+            + "last_transaction_time, user_risk_level, is_flagged, decayed_score_sum, decayed_weight, "
+            + "decayed_at, activity_window, amount_sketch";
+
+    private static final String UPDATE_TEMPLATE =
+            "total_transactions = p.total_transactions + %1$s.total_transactions, "
+            + "average_risk_score = %2$s, "
+            + "high_risk_transaction_count = p.high_risk_transaction_count + %1$s.high_risk_transaction_count, "
+            + "last_transaction_time = GREATEST(p.last_transaction_time, %1$s.last_transaction_time), "
+            + "user_risk_level = CASE WHEN %3$s < ? THEN 'LOW' WHEN %3$s < ? THEN 'MEDIUM' ELSE 'HIGH' END, "
+            + "is_flagged = (%3$s >= ? OR p.high_risk_transaction_count + %1$s.high_risk_transaction_count >= ? OR ?), "
+            + "decayed_score_sum = COALESCE(%1$s.decayed_score_sum, p.decayed_score_sum), "
+            + "decayed_weight = COALESCE(%1$s.decayed_weight, p.decayed_weight), "
+            + "decayed_at = COALESCE(%1$s.decayed_at, p.decayed_at), "
+            + "activity_window = COALESCE(%1$s.activity_window, p.activity_window), "
+            + "amount_sketch = COALESCE(%1$s.amount_sketch, p.amount_sketch)";
+
+    private static final String AVERAGE_TEMPLATE =
+            "COALESCE((p.average_risk_score * p.total_transactions + %1$s.average_risk_score * %1$s.total_transactions)"
+            + " / NULLIF(p.total_transactions + %1$s.total_transactions, 0), 0)";
+
+    private static final String LEVEL_SCORE_TEMPLATE =
+            "CASE WHEN %1$s.decayed_weight > 0 THEN %1$s.decayed_score_sum / %1$s.decayed_weight ELSE %2$s END";
+
+    private static final String H2_UPSERT =
+            "MERGE INTO user_risk_profile p USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS INTEGER), "
+            + "CAST(? AS DOUBLE PRECISION), CAST(? AS INTEGER), CAST(? AS TIMESTAMP(6) WITH TIME ZONE), "
+            + "CAST(? AS VARCHAR(255)), CAST(? AS BOOLEAN), CAST(? AS DOUBLE PRECISION), CAST(? AS DOUBLE PRECISION), "
+            + "CAST(? AS TIMESTAMP(6) WITH TIME ZONE), CAST(? AS VARBINARY(" + UserRiskProfile.ACTIVITY_WINDOW_BYTES + ")), "
+            + "CAST(? AS VARBINARY(" + UserRiskProfile.AMOUNT_SKETCH_BYTES + ")))) AS d(" + COLUMNS + ") "
+            + "ON p.user_id = d.user_id "
+            + "WHEN MATCHED THEN UPDATE SET " + update("d") + " "
+            + "WHEN NOT MATCHED THEN INSERT (" + COLUMNS + ") VALUES (d.user_id, d.total_transactions, "
+            + "d.average_risk_score, d.high_risk_transaction_count, d.last_transaction_time, d.user_risk_level, d.is_flagged, "
+            + "d.decayed_score_sum, d.decayed_weight, d.decayed_at, d.activity_window, d.amount_sketch)";
+
+    private static final String POSTGRES_UPSERT =
+            "INSERT INTO user_risk_profile AS p (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (user_id) DO UPDATE SET " + update("EXCLUDED");
+
+    private static final String H2_REPLACE =
+            "MERGE INTO user_risk_profile (" + COLUMNS + ") KEY (user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String POSTGRES_REPLACE =
+            "INSERT INTO user_risk_profile (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (user_id) DO UPDATE SET " + replace();
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String product;
+
+    public UserRiskProfileRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void upsertDeltas(List<UserRiskProfileDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(upsertSql(), deltas, deltas.size(), UserRiskProfileRepositoryCustomImpl::bind);
+    }
+
+    @Override
+    public void replaceProfiles(List<UserRiskProfile> profiles) {
+        if (profiles.isEmpty()) {
+            return;
+        }
+        String sql = "H2".equals(product()) ? H2_REPLACE : POSTGRES_REPLACE;
+        jdbcTemplate.batchUpdate(sql, profiles, profiles.size(), UserRiskProfileRepositoryCustomImpl::bindProfile);
+    }
+
+    private static void bindProfile(PreparedStatement ps, UserRiskProfile profile) throws SQLException {
+        ps.setString(1, profile.getUserId());
+        ps.setInt(2, profile.getTotalTransactions());
+        ps.setDouble(3, profile.getAverageRiskScore());
+        ps.setInt(4, profile.getHighRiskTransactionCount());
+        ps.setTimestamp(5, Timestamp.from(profile.getLastTransactionTime()));
+        ps.setString(6, profile.getUserRiskLevel().name());
+        ps.setBoolean(7, profile.getIsFlagged());
+        ps.setObject(8, profile.getDecayedScoreSum(), Types.DOUBLE);
+        ps.setObject(9, profile.getDecayedWeight(), Types.DOUBLE);
+        ps.setTimestamp(10, profile.getDecayedAt() != null ? Timestamp.from(profile.getDecayedAt()) : null);
+        ps.setBytes(11, checkedBlob(profile.getUserId(), "activity_window", profile.getActivityWindow(),
+                UserRiskProfile.ACTIVITY_WINDOW_BYTES));
+        ps.setBytes(12, checkedBlob(profile.getUserId(), "amount_sketch", profile.getAmountSketch(),
+                UserRiskProfile.AMOUNT_SKETCH_BYTES));
+    }
+
+    private static void bind(PreparedStatement ps, UserRiskProfileDelta delta) throws SQLException {
+        double average = delta.getTransactions() == 0 ? 0.0 : delta.getScoreSum() / delta.getTransactions();
+        double levelScore = delta.hasDecayedScore() ? delta.getDecayedScoreSum() / delta.getDecayedWeight() : average;
+        UserRiskLevel level = RiskScoringUtils.computeUserRiskLevel(levelScore);
+        boolean flagged = RiskScoringUtils.isFlagged(level, delta.getHighRiskTransactions()) || delta.isRecentlyFlagged();
+
+        ps.setString(1, delta.getUserId());
+        ps.setInt(2, delta.getTransactions());
+        ps.setDouble(3, average);
+        ps.setInt(4, delta.getHighRiskTransactions());
+        ps.setTimestamp(5, Timestamp.from(delta.getLastTransactionTime()));
+        ps.setString(6, level.name());
+        ps.setBoolean(7, flagged);
+        ps.setObject(8, delta.getDecayedScoreSum(), Types.DOUBLE);
+        ps.setObject(9, delta.getDecayedWeight(), Types.DOUBLE);
+        ps.setTimestamp(10, delta.getDecayedAt() != null ? Timestamp.from(delta.getDecayedAt()) : null);
+        ps.setBytes(11, checkedBlob(delta.getUserId(), "activity_window", delta.getActivityWindow(),
+                UserRiskProfile.ACTIVITY_WINDOW_BYTES));
+        ps.setBytes(12, checkedBlob(delta.getUserId(), "amount_sketch", delta.getAmountSketch(),
+                UserRiskProfile.AMOUNT_SKETCH_BYTES));
+        ps.setDouble(13, RiskScoringUtils.USER_MEDIUM_RISK_THRESHOLD);
+        ps.setDouble(14, RiskScoringUtils.USER_HIGH_RISK_THRESHOLD);
+        ps.setDouble(15, RiskScoringUtils.USER_HIGH_RISK_THRESHOLD);
+        ps.setInt(16, RiskScoringUtils.FLAG_HIGH_RISK_TRANSACTION_COUNT);
+        ps.setBoolean(17, delta.isRecentlyFlagged());
+    }
+
+    /**
+     * H2's {@code CAST(? AS VARBINARY(n))} silently cuts a longer value, which would leave
+     * an unreadable blob behind, so oversize values are refused before they are bound.
+     */
+    private static byte[] checkedBlob(String userId, String column, byte[] value, int maxBytes) {
+        if (value != null && value.length > maxBytes) {
+            throw new IllegalStateException(column + " for user " + userId + " is " + value.length
+                    + " bytes, over the column's " + maxBytes);
+        }
+        return value;
+    }
+
+    private String upsertSql() {
+        return "H2".equals(product()) ? H2_UPSERT : POSTGRES_UPSERT;
+    }
+
+    private String product() {
+        String resolved = product;
+        if (resolved == null) {
+            resolved = resolveProduct();
+            product = resolved;
+        }
+        return resolved;
+    }
+
+    private String resolveProduct() {
+        String name;
+        try {
+            name = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    metaData -> metaData.getDatabaseProductName());
+        } catch (MetaDataAccessException ex) {
+            throw new IllegalStateException("Unable to determine database product for profile upsert", ex);
+        }
+        if (!"H2".equals(name) && !"PostgreSQL".equals(name)) {
+            throw new IllegalStateException("Profile upsert is not supported on " + name);
+        }
+        return name;
+    }
+
+    private static String replace() {
+        StringBuilder assignments = new StringBuilder();
+        for (String column : COLUMNS.split(", ")) {
+            if (!column.equals("user_id")) {
+                assignments.append(assignments.length() == 0 ? "" : ", ")
+                        .append(column).append(" = EXCLUDED.").append(column);
+            }
+        }
+        return assignments.toString();
+    }
+
+    private static String update(String source) {
+        String average = String.format(AVERAGE_TEMPLATE, source);
+        return String.format(UPDATE_TEMPLATE, source, average, String.format(LEVEL_SCORE_TEMPLATE, source, average));
+    }
+}
@@ -0,0 +1,178 @@
+package com.sucheth.riskwatch.service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.sucheth.riskwatch.dto.api.TransactionRequest;
+import com.sucheth.riskwatch.dto.api.TransactionStatusResponse;
+import com.sucheth.riskwatch.dto.internal.ProcessedTransaction;
+import com.sucheth.riskwatch.exception.DuplicateTransactionException;
+import com.sucheth.riskwatch.exception.QueueFullException;
+import com.sucheth.riskwatch.model.enums.EvaluationStatus;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Accepts transactions onto a bounded queue and evaluates them on a fixed set of workers,
+ * so request threads return immediately and overload surfaces as a rejection instead of
+ * servlet thread exhaustion. Workers are virtual threads when the runtime supports them.
+ * Only queued, in-flight and failed submissions are tracked here; completed ones are read
+ * back from the database.
+ */
+@Slf4j
+@Service
+public class AsyncEvaluationService {
+
+    private static final String THREAD_PREFIX = "risk-async-";
+
+    private final TransactionService transactionService;
+    private final TransactionIdIndex transactionIdIndex;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, TransactionStatusResponse> statuses = new ConcurrentHashMap<>();
+    private final Counter rejected;
+
+    @Value("${risk.async.failed-retention-ms:600000}")
+    private long failedRetentionMillis;
+
+    public AsyncEvaluationService(TransactionService transactionService,
+                                  TransactionIdIndex transactionIdIndex,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${risk.async.workers:8}") int workers,
+                                  @Value("${risk.async.queue-capacity:1000}") int queueCapacity,
+                                  @Value("${risk.async.virtual-threads:true}") boolean virtualThreads) {
+        this.transactionService = transactionService;
+        this.transactionIdIndex = transactionIdIndex;
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), workerThreadFactory(virtualThreads),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.rejected = meterRegistry.counter("riskwatch.async.rejected");
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "riskwatch.async");
+    }
+
+    public TransactionStatusResponse submit(TransactionRequest request) {
+        String transactionId = request.getTransactionId();
+        TransactionStatusResponse queued = TransactionStatusResponse.builder()
+                .transactionId(transactionId)
+                .status(EvaluationStatus.QUEUED)
+                .submittedAt(Instant.now())
+                .build();
+
+        TransactionStatusResponse existing = statuses.putIfAbsent(transactionId, queued);
+        if (existing != null) {
+            if (existing.getStatus() != EvaluationStatus.FAILED || !statuses.replace(transactionId, existing, queued)) {
+                return statuses.getOrDefault(transactionId, existing);
+            }
+        }
+
+        Optional<ProcessedTransaction> original = transactionIdIndex.find(transactionId);
+        if (original.isPresent()) {
+            statuses.remove(transactionId, queued);
+            if (!original.get().matches(request)) {
+                throw DuplicateTransactionException.of(original.get(), request);
+            }
+            return completed(original.get());
+        }
+
+        if (request.getTimestamp() == null) {
+            request.setTimestamp(Instant.now());
+        }
+
+        try {
+            executor.execute(() -> process(request, queued));
+        } catch (RejectedExecutionException ex) {
+            statuses.remove(transactionId, queued);
+            rejected.increment();
+            throw new QueueFullException("Evaluation queue is full; retry later");
+        }
+        return queued;
+    }
+
+    public Optional<TransactionStatusResponse> getStatus(String transactionId) {
+        TransactionStatusResponse status = statuses.get(transactionId);
+        if (status != null) {
+            return Optional.of(status);
+        }
+        return transactionIdIndex.find(transactionId).map(AsyncEvaluationService::completed);
+    }
+
+    @Scheduled(fixedDelayString = "${risk.async.sweep-interval-ms:60000}")
+    public void evictFailed() {
+        Instant horizon = Instant.now().minusMillis(failedRetentionMillis);
+        statuses.values().removeIf(status -> status.getStatus() == EvaluationStatus.FAILED
+                && status.getCompletedAt().isBefore(horizon));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Async evaluation did not drain in time; {} submissions abandoned",
+                    executor.shutdownNow().size());
+        }
+    }
+
+    private void process(TransactionRequest request, TransactionStatusResponse queued) {
+        String transactionId = request.getTransactionId();
+        statuses.put(transactionId, queued.toBuilder().status(EvaluationStatus.PROCESSING).build());
+        try {
+            transactionService.evaluateAndSave(request);
+            statuses.remove(transactionId);
+        } catch (DuplicateTransactionException ex) {
+            if (ex.isReplay()) {
+                statuses.remove(transactionId);
+            } else {
+                statuses.put(transactionId, queued.toBuilder()
+                        .status(EvaluationStatus.FAILED)
+                        .completedAt(Instant.now())
+                        .error(ex.getMessage())
+                        .build());
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Async evaluation failed for transaction {}", transactionId, ex);
+            statuses.put(transactionId, queued.toBuilder()
+                    .status(EvaluationStatus.FAILED)
+                    .completedAt(Instant.now())
+                    .error(ex.getMessage())
+                    .build());
+        }
+    }
+
+    private static TransactionStatusResponse completed(ProcessedTransaction processed) {
+        return TransactionStatusResponse.builder()
+                .transactionId(processed.getResponse().getTransactionId())
+                .status(EvaluationStatus.COMPLETED)
+                .result(processed.getResponse())
+                .build();
+    }
+
+    private static ThreadFactory workerThreadFactory(boolean virtualThreads) {
+        if (virtualThreads) {
+            try {
+                Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                builder = builderType.getMethod("name", String.class, long.class).invoke(builder, THREAD_PREFIX, 0L);
+                return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            } catch (ReflectiveOperationException ex) {
+                log.info("Virtual threads are not available on this runtime; using platform threads for async evaluation");
+            }
+        }
+        return new CustomizableThreadFactory(THREAD_PREFIX);
+    }
+}
@@ -0,0 +1,269 @@
+package com.sucheth.riskwatch.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sucheth.riskwatch.dto.internal.DeviceUsage;
+import com.sucheth.riskwatch.repository.TransactionRepository;
+import com.sucheth.riskwatch.service.snapshot.SnapshotInput;
+import com.sucheth.riskwatch.service.snapshot.SnapshotOutput;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory inverted index from deviceId to the users seen on it within the sharing
+ * window. Each device keeps a bounded set of interned userIds with their last-seen epoch
+ * second; when the set is full the least recently seen user is replaced. The index is
+ * rebuilt at startup from the transaction table or a state snapshot, and entries older
+ * than the window are swept periodically. Usage is recorded for every persisted
+ * transaction and is not rolled back: an attempted use of a device is itself part of the
+ * signal.
+ */
+@Slf4j
+@Component
+public class DeviceIndex {
+
+    private static final int INITIAL_USERS = 2;
+    private static final long ENTRY_OVERHEAD_BYTES = 96;
+    private static final long ARRAY_HEADER_BYTES = 16;
+    private static final long BYTES_PER_USER_SLOT = Integer.BYTES + Long.BYTES;
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate readOnlyTemplate;
+    private final Duration window;
+    private final int maxUsersPerDevice;
+    private final Object[] locks;
+    private final Map<String, DeviceEntry> devices = new ConcurrentHashMap<>();
+    private final AtomicLong estimatedBytes = new AtomicLong();
+
+    public DeviceIndex(TransactionRepository transactionRepository,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${risk.thresholds.device.window-hours:24}") int windowHours,
+                       @Value("${risk.device-index.max-users-per-device:32}") int maxUsersPerDevice,
+                       @Value("${risk.device-index.stripes:64}") int stripes) {
+        this.transactionRepository = transactionRepository;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.window = Duration.ofHours(windowHours);
+        this.maxUsersPerDevice = maxUsersPerDevice;
+        this.locks = new Object[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new Object();
+        }
+
+        meterRegistry.gauge("riskwatch.device.index.devices", devices, Map::size);
+        meterRegistry.gauge("riskwatch.device.index.memory", estimatedBytes, AtomicLong::get);
+        meterRegistry.gauge("riskwatch.device.index.memory.per.device", this, DeviceIndex::bytesPerDevice);
+    }
+
+    public void rebuild() {
+        long started = System.nanoTime();
+        AtomicLong loaded = new AtomicLong();
+        readOnlyTemplate.executeWithoutResult(status -> {
+            try (Stream<DeviceUsage> usages = transactionRepository.streamDeviceUsageAfter(Instant.now().minus(window))) {
+                usages.forEach(usage -> {
+                    record(usage.getDeviceId(), usage.getUserId(), usage.getTimestamp());
+                    loaded.incrementAndGet();
+                });
+            }
+        });
+        log.info("Rebuilt device index from {} transactions in {} ms ({} devices)",
+                loaded.get(), (System.nanoTime() - started) / 1_000_000, devices.size());
+    }
+
+    public void record(String deviceId, String userId, Instant timestamp) {
+        if (deviceId == null) {
+            return;
+        }
+        touch(deviceId, userId, timestamp.getEpochSecond());
+    }
+
+    public int distinctUsers(String deviceId, String userId, Instant asOf) {
+        long cutoff = asOf.minus(window).getEpochSecond();
+        synchronized (lockFor(deviceId)) {
+            DeviceEntry entry = devices.get(deviceId);
+            if (entry == null) {
+                return 1;
+            }
+            return entry.countAfter(cutoff, userId);
+        }
+    }
+
+    public int trackedDevices() {
+        return devices.size();
+    }
+
+    public void writeSnapshot(SnapshotOutput out) {
+        for (String deviceId : devices.keySet()) {
+            String[] users;
+            long[] lastSeen;
+            synchronized (lockFor(deviceId)) {
+                DeviceEntry entry = devices.get(deviceId);
+                if (entry == null) {
+                    continue;
+                }
+                users = Arrays.copyOf(entry.users, entry.size);
+                lastSeen = Arrays.copyOf(entry.lastSeen, entry.size);
+            }
+            out.putString(deviceId);
+            out.putInt(users.length);
+            for (int i = 0; i < users.length; i++) {
+                out.putString(users[i]);
+                out.putLong(lastSeen[i]);
+            }
+        }
+    }
+
+    public void restoreSnapshot(SnapshotInput in) {
+        long cutoff = Instant.now().minus(window).getEpochSecond();
+        while (in.hasRemaining()) {
+            String deviceId = in.getString();
+            int users = in.getInt();
+            for (int i = 0; i < users; i++) {
+                String userId = in.getString();
+                long seenAt = in.getLong();
+                if (seenAt > cutoff) {
+                    touch(deviceId, userId, seenAt);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        for (String deviceId : devices.keySet()) {
+            synchronized (lockFor(deviceId)) {
+                DeviceEntry entry = devices.remove(deviceId);
+                if (entry != null) {
+                    estimatedBytes.addAndGet(-(ENTRY_OVERHEAD_BYTES + 2L * deviceId.length() + entry.footprint()));
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${risk.device-index.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long cutoff = Instant.now().minus(window).getEpochSecond();
+        for (String deviceId : devices.keySet()) {
+            synchronized (lockFor(deviceId)) {
+                DeviceEntry entry = devices.get(deviceId);
+                if (entry == null) {
+                    continue;
+                }
+                long before = entry.footprint();
+                entry.evictUpTo(cutoff);
+                if (entry.size == 0) {
+                    devices.remove(deviceId);
+                    estimatedBytes.addAndGet(-(ENTRY_OVERHEAD_BYTES + 2L * deviceId.length() + before));
+                } else {
+                    estimatedBytes.addAndGet(entry.footprint() - before);
+                }
+            }
+        }
+    }
+
+    private void touch(String deviceId, String userId, long seenAt) {
+        synchronized (lockFor(deviceId)) {
+            DeviceEntry entry = devices.get(deviceId);
+            if (entry == null) {
+                entry = new DeviceEntry();
+                devices.put(deviceId, entry);
+                estimatedBytes.addAndGet(ENTRY_OVERHEAD_BYTES + 2L * deviceId.length() + entry.footprint());
+            }
+            long before = entry.footprint();
+            entry.touch(userId.intern(), seenAt, maxUsersPerDevice);
+            estimatedBytes.addAndGet(entry.footprint() - before);
+        }
+    }
+
+    private double bytesPerDevice() {
+        int size = devices.size();
+        return size == 0 ? 0.0 : (double) estimatedBytes.get() / size;
+    }
+
+    private Object lockFor(String deviceId) {
+        return locks[Math.floorMod(deviceId.hashCode(), locks.length)];
+    }
+
+    private static final class DeviceEntry {
+
+        private String[] users = new String[INITIAL_USERS];
+        private long[] lastSeen = new long[INITIAL_USERS];
+        private int size;
+
+        private void touch(String userId, long seenAt, int maxUsers) {
+            for (int i = 0; i < size; i++) {
+                if (users[i] == userId) {
+                    lastSeen[i] = Math.max(lastSeen[i], seenAt);
+                    return;
+                }
+            }
+            if (size < users.length) {
+                append(userId, seenAt);
+            } else if (size < maxUsers) {
+                int capacity = Math.min(maxUsers, users.length * 2);
+                users = Arrays.copyOf(users, capacity);
+                lastSeen = Arrays.copyOf(lastSeen, capacity);
+                append(userId, seenAt);
+            } else {
+                int oldest = 0;
+                for (int i = 1; i < size; i++) {
+                    if (lastSeen[i] < lastSeen[oldest]) {
+                        oldest = i;
+                    }
+                }
+                if (seenAt > lastSeen[oldest]) {
+                    users[oldest] = userId;
+                    lastSeen[oldest] = seenAt;
+                }
+            }
+        }
+
+        private void append(String userId, long seenAt) {
+            users[size] = userId;
+            lastSeen[size] = seenAt;
+            size++;
+        }
+
+        private int countAfter(long cutoff, String userId) {
+            int count = 0;
+            boolean includesUser = false;
+            for (int i = 0; i < size; i++) {
+                if (lastSeen[i] > cutoff) {
+                    count++;
+                    includesUser |= users[i].equals(userId);
+                }
+            }
+            return includesUser ? count : count + 1;
+        }
+
+        private void evictUpTo(long cutoff) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (lastSeen[i] > cutoff) {
+                    users[kept] = users[i];
+                    lastSeen[kept] = lastSeen[i];
+                    kept++;
+                }
+            }
+            Arrays.fill(users, kept, size, null);
+            size = kept;
+        }
+
+        private long footprint() {
+            return 2 * ARRAY_HEADER_BYTES + users.length * BYTES_PER_USER_SLOT;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.sucheth.riskwatch.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sucheth.riskwatch.dto.internal.ProfileEvent;
+import com.sucheth.riskwatch.model.UserRiskProfile;
+import com.sucheth.riskwatch.repository.TransactionRepository;
+import com.sucheth.riskwatch.repository.UserRiskProfileRepository;
+import com.sucheth.riskwatch.service.snapshot.StateSnapshotService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Recomputes every user risk profile from the transaction and archive tables in a single
+ * ordered scan. Each user's history is folded into a fresh profile as it streams past and
+ * the results replace the stored rows in batches, so the cost is one pass over the data
+ * however many transactions each user has. Pending write-behind deltas are flushed first;
+ * afterwards clean cached profiles are dropped and the state snapshot is rewritten, so a
+ * restart cannot restore profiles from before the rebuild. Intended for bulk loads and
+ * rescoring rather than for running alongside live traffic.
+ */
+@Slf4j
+@Component
+public class ProfileRebuilder {
+
+    private final TransactionRepository transactionRepository;
+    private final UserRiskProfileRepository userRiskProfileRepository;
+    private final UserRiskProfileAggregator aggregator;
+    private final StateSnapshotService stateSnapshotService;
+    private final TransactionTemplate readOnlyTemplate;
+    private final TransactionTemplate writeTemplate;
+
+    @Value("${risk.profile.rebuild.batch-size:1000}")
+    private int batchSize;
+
+    public ProfileRebuilder(TransactionRepository transactionRepository,
+                            UserRiskProfileRepository userRiskProfileRepository,
+                            UserRiskProfileAggregator aggregator,
+                            StateSnapshotService stateSnapshotService,
+                            PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.userRiskProfileRepository = userRiskProfileRepository;
+        this.aggregator = aggregator;
+        this.stateSnapshotService = stateSnapshotService;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public long rebuildAll() {
+        long started = System.nanoTime();
+        aggregator.flush();
+
+        AtomicLong events = new AtomicLong();
+        ProfileBatch batch = new ProfileBatch();
+        readOnlyTemplate.executeWithoutResult(status -> {
+            try (Stream<ProfileEvent> stream = transactionRepository.streamProfileEvents()) {
+                stream.forEach(event -> {
+                    batch.accept(event);
+                    events.incrementAndGet();
+                });
+            }
+        });
+        batch.finish();
+        aggregator.invalidateClean();
+        stateSnapshotService.snapshot();
+
+        log.info("Rebuilt {} user risk profiles from {} transactions in {} ms",
+                batch.profiles, events.get(), (System.nanoTime() - started) / 1_000_000);
+        return batch.profiles;
+    }
+
+    private final class ProfileBatch {
+
+        private final List<UserRiskProfile> pending = new ArrayList<>();
+        private String currentUser;
+        private UserRiskProfileAggregator.Replay current;
+        private long profiles;
+
+        private void accept(ProfileEvent event) {
+            if (!event.getUserId().equals(currentUser)) {
+                emit();
+                currentUser = event.getUserId();
+                current = aggregator.replay(currentUser);
+            }
+            current.add(event.getTimestamp(), event.getAmount(), event.getRiskScore(), event.getRiskLevel());
+        }
+
+        private void finish() {
+            emit();
+            write();
+        }
+
+        private void emit() {
+            if (current == null) {
+                return;
+            }
+            pending.add(current.toProfile());
+            profiles++;
+            current = null;
+            if (pending.size() >= batchSize) {
+                write();
+            }
+        }
+
+        private void write() {
+            if (!pending.isEmpty()) {
+                List<UserRiskProfile> batch = List.copyOf(pending);
+                writeTemplate.executeWithoutResult(status -> userRiskProfileRepository.replaceProfiles(batch));
+                pending.clear();
+            }
+        }
+    }
+}
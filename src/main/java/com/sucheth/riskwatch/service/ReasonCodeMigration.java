@@ -0,0 +1,123 @@
+package com.sucheth.riskwatch.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sucheth.riskwatch.model.enums.ReasonCode;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One-off conversion of the legacy {@code transaction_reasons} join table into the
+ * {@code reason_codes} bitmask column. Rows are read in transaction id order, folded
+ * into one mask per transaction and written back in batches; the join table is dropped
+ * once every row has been converted. Runs after the schema is in place and before the
+ * application starts serving requests; does nothing when the table no longer exists.
+ */
+@Slf4j
+@Component
+public class ReasonCodeMigration implements SmartInitializingSingleton {
+
+    public static final String LEGACY_TABLE = "transaction_reasons";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${risk.migration.reason-codes.enabled:true}")
+    private boolean enabled;
+
+    @Value("${risk.migration.reason-codes.batch-size:1000}")
+    private int batchSize;
+
+    public ReasonCodeMigration(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        migrate();
+    }
+
+    public void migrate() {
+        if (!enabled || !legacyTableExists()) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        MaskWriter writer = new MaskWriter();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.query("SELECT transaction_id, reason FROM " + LEGACY_TABLE + " ORDER BY transaction_id", rs -> {
+                writer.accept(rs.getLong(1), rs.getString(2));
+            });
+            writer.finish();
+            jdbcTemplate.execute("DROP TABLE " + LEGACY_TABLE);
+        });
+
+        log.info("Migrated reasons for {} transactions to reason codes in {} ms ({} unrecognised reasons dropped)",
+                writer.transactions, (System.nanoTime() - started) / 1_000_000, writer.unknown);
+    }
+
+    public boolean legacyTableExists() {
+        try {
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + LEGACY_TABLE + " WHERE 1 = 0", Long.class);
+            return true;
+        } catch (DataAccessException ex) {
+            return false;
+        }
+    }
+
+    private final class MaskWriter {
+
+        private final List<Object[]> pending = new ArrayList<>();
+        private Long currentId;
+        private long currentMask;
+        private long transactions;
+        private long unknown;
+
+        private void accept(long transactionId, String reason) {
+            if (currentId != null && currentId != transactionId) {
+                emit();
+            }
+            currentId = transactionId;
+            ReasonCode code = ReasonCode.fromDescription(reason).orElse(null);
+            if (code == null) {
+                unknown++;
+                return;
+            }
+            currentMask |= code.mask();
+        }
+
+        private void finish() {
+            if (currentId != null) {
+                emit();
+            }
+            write();
+        }
+
+        private void emit() {
+            pending.add(new Object[] {currentMask, currentId});
+            transactions++;
+            currentId = null;
+            currentMask = 0L;
+            if (pending.size() >= batchSize) {
+                write();
+            }
+        }
+
+        private void write() {
+            if (!pending.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE transaction SET reason_codes = ? WHERE id = ?", pending);
+                pending.clear();
+            }
+        }
+    }
+}
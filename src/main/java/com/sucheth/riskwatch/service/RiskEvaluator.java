@@ -1,62 +1,50 @@
 package com.sucheth.riskwatch.service;
 
 import org.springframework.stereotype.Component;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.beans.factory.annotation.Autowired;
-import java.util.List;
-import java.util.ArrayList;
-import java.time.Instant;
-import java.time.Duration;
-import com.sucheth.riskwatch.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
 import com.sucheth.riskwatch.model.Transaction;
 import com.sucheth.riskwatch.dto.internal.RiskEvaluationResult;
-import com.sucheth.riskwatch.model.enums.RiskLevel;
+import com.sucheth.riskwatch.metrics.RiskMetrics;
+import com.sucheth.riskwatch.service.admission.LoadShedder;
+import com.sucheth.riskwatch.service.rules.LiveRiskFeatures;
+import com.sucheth.riskwatch.service.rules.RiskContext;
+import com.sucheth.riskwatch.service.rules.RiskFeatures;
+import com.sucheth.riskwatch.service.rules.RiskRulePipeline;
+import com.sucheth.riskwatch.service.rules.RuleCost;
+import com.sucheth.riskwatch.util.RiskScoringUtils;
 
 @Component
+@RequiredArgsConstructor
 public class RiskEvaluator {
 
-    @Value("${risk.thresholds.amount}")
-    private Double amountThreshold;
-
-    @Value("${risk.thresholds.velocity.limit}")
-    private int velocityLimit;
-
-    @Value("${risk.thresholds.velocity.window-minutes}")
-    private int velocityWindowMinutes;
-
-    @Autowired
-    private TransactionRepository transactionRepository;
+    private final RiskRulePipeline riskRulePipeline;
+    private final LiveRiskFeatures liveRiskFeatures;
+    private final RiskMetrics riskMetrics;
+    private final LoadShedder loadShedder;
 
+    /**
+     * Scores a live transaction, skipping the database-backed rules while the
+     * {@link LoadShedder} has switched to degraded scoring.
+     */
     public RiskEvaluationResult evaluate(Transaction tx) {
-        List<String> reasons = new ArrayList<>();
-        double score = 0.0;
-
-        if (tx.getAmount() > amountThreshold) {
-            score += 0.3;
-            reasons.add("Transaction amount exceeds threshold.");
-        }
-
-        Instant cutoff = tx.getTimestamp().minus(Duration.ofMinutes(velocityWindowMinutes));
-        long recentCount = transactionRepository.findByUserId(tx.getUserId()).stream()
-            .filter(t -> t.getTimestamp().isAfter(cutoff) && !t.getTransactionId().equals(tx.getTransactionId()))
-            .count();
-        
-        if (recentCount > velocityLimit) {
-            score += 0.4;
-            reasons.add("High transaction velocity detected.");
+        if (!loadShedder.fullScoring()) {
+            return evaluate(tx, liveRiskFeatures, RuleCost.IN_MEMORY);
         }
+        long start = System.nanoTime();
+        RiskEvaluationResult result = evaluate(tx, liveRiskFeatures);
+        loadShedder.recordFullScoring(System.nanoTime() - start);
+        return result;
+    }
 
-        score = Math.min(1.0, score);
-
-        RiskLevel level;
-        if (score >= 0.7) {
-            level = RiskLevel.HIGH;
-        } else if (score >= 0.4) {
-            level = RiskLevel.MEDIUM;
-        } else {
-            level = RiskLevel.LOW;
-        }
+    public RiskEvaluationResult evaluate(Transaction tx, RiskFeatures features) {
+        return evaluate(tx, features, RuleCost.DATABASE);
+    }
 
-        return new RiskEvaluationResult(score, level, reasons);
+    private RiskEvaluationResult evaluate(Transaction tx, RiskFeatures features, RuleCost maxCost) {
+        RiskRulePipeline.PipelineResult result = riskMetrics.getEvaluation()
+                .record(() -> riskRulePipeline.evaluate(new RiskContext(tx, features), maxCost));
+        double score = result.score();
+        return new RiskEvaluationResult(score, RiskScoringUtils.computeRiskLevel(score), result.reasonCodes(),
+                maxCost != RuleCost.DATABASE);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,123 @@
+package com.sucheth.riskwatch.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves transactions older than {@code risk.retention.days} out of the hot table into
+ * {@code transaction_archive}, oldest first, {@code risk.retention.batch-size} rows per
+ * database transaction and at most {@code risk.retention.max-batches-per-run} batches per
+ * scheduled run, so the job never holds the scheduler or long row locks. Reasons left in
+ * the legacy join table are purged with their rows. Profiles are aggregates and are not
+ * touched; a profile rebuild reads both tables.
+ */
+@Slf4j
+@Component
+public class TransactionArchiver {
+
+    private static final String COLUMN_LIST = "id, transaction_id, user_id, amount, timestamp, device_id, location, "
+            + "risk_score, risk_level, reason_codes";
+
+    private static final String SELECT_EXPIRED = "SELECT id FROM transaction WHERE timestamp < ? ORDER BY timestamp LIMIT ?";
+    private static final String ARCHIVE = "INSERT INTO transaction_archive (" + COLUMN_LIST + ", archived_at) "
+            + "SELECT " + COLUMN_LIST + ", CAST(? AS TIMESTAMP WITH TIME ZONE) FROM transaction WHERE id IN (%s)";
+    private static final String PURGE_REASONS = "DELETE FROM " + ReasonCodeMigration.LEGACY_TABLE
+            + " WHERE transaction_id IN (%s)";
+    private static final String DELETE = "DELETE FROM transaction WHERE id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReasonCodeMigration reasonCodeMigration;
+    private final Counter archived;
+
+    @Value("${risk.retention.enabled:false}")
+    private boolean enabled;
+
+    @Value("${risk.retention.days:365}")
+    private int retentionDays;
+
+    @Value("${risk.retention.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${risk.retention.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    public TransactionArchiver(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               ReasonCodeMigration reasonCodeMigration,
+                               MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reasonCodeMigration = reasonCodeMigration;
+        this.archived = meterRegistry.counter("riskwatch.retention.archived");
+    }
+
+    @Scheduled(fixedDelayString = "${risk.retention.interval-ms:3600000}",
+            initialDelayString = "${risk.retention.initial-delay-ms:60000}")
+    public void scheduledArchive() {
+        if (enabled) {
+            archiveExpired();
+        }
+    }
+
+    /**
+     * @return the number of transactions moved to the archive in this run
+     */
+    public long archiveExpired() {
+        if (retentionDays < 1) {
+            throw new IllegalStateException("risk.retention.days must be at least 1");
+        }
+        long started = System.nanoTime();
+        Instant now = Instant.now();
+        Instant cutoff = now.minus(Duration.ofDays(retentionDays));
+        boolean purgeReasons = reasonCodeMigration.legacyTableExists();
+
+        long moved = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer count = transactionTemplate.execute(status -> archiveBatch(cutoff, now, purgeReasons));
+            moved += count;
+            archived.increment(count);
+            if (count < batchSize) {
+                break;
+            }
+        }
+        if (moved > 0) {
+            log.info("Archived {} transactions older than {} in {} ms", moved, cutoff,
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+        return moved;
+    }
+
+    private int archiveBatch(Instant cutoff, Instant archivedAt, boolean purgeReasons) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_EXPIRED, Long.class, Timestamp.from(cutoff), batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = ids.stream().map(id -> "?").collect(Collectors.joining(", "));
+        Object[] idArgs = ids.toArray();
+        Object[] archiveArgs = new Object[ids.size() + 1];
+        archiveArgs[0] = Timestamp.from(archivedAt);
+        System.arraycopy(idArgs, 0, archiveArgs, 1, idArgs.length);
+
+        jdbcTemplate.update(String.format(ARCHIVE, placeholders), archiveArgs);
+        if (purgeReasons) {
+            jdbcTemplate.update(String.format(PURGE_REASONS, placeholders), idArgs);
+        }
+        jdbcTemplate.update(String.format(DELETE, placeholders), idArgs);
+        return ids.size();
+    }
+}
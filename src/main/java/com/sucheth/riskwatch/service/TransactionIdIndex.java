@@ -0,0 +1,147 @@
+package com.sucheth.riskwatch.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sucheth.riskwatch.dto.internal.ProcessedTransaction;
+import com.sucheth.riskwatch.model.Transaction;
+import com.sucheth.riskwatch.repository.TransactionRepository;
+import com.sucheth.riskwatch.service.snapshot.SnapshotInput;
+import com.sucheth.riskwatch.service.snapshot.SnapshotOutput;
+import com.sucheth.riskwatch.util.BloomFilter;
+import com.sucheth.riskwatch.util.TransactionCallbacks;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Answers "has this transactionId been seen?" before any scoring work. A Bloom filter
+ * warmed at startup, from the table or from a state snapshot, rules out new ids without
+ * touching the database, a bounded cache of recently committed transactions answers most
+ * retries exactly, and only ids the filter cannot rule out fall through to a lookup by
+ * unique key.
+ */
+@Slf4j
+@Component
+public class TransactionIdIndex {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate readOnlyTemplate;
+    private final BloomFilter filter;
+    private final Map<String, ProcessedTransaction> recent;
+    private final Counter filterNegatives;
+    private final Counter recentHits;
+    private final Counter databaseHits;
+    private final Counter falsePositives;
+
+    public TransactionIdIndex(TransactionRepository transactionRepository,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${risk.dedup.expected-ids:1000000}") long expectedIds,
+                              @Value("${risk.dedup.false-positive-rate:0.001}") double falsePositiveRate,
+                              @Value("${risk.dedup.recent-size:100000}") int recentSize) {
+        this.transactionRepository = transactionRepository;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.filter = new BloomFilter(expectedIds, falsePositiveRate);
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ProcessedTransaction> eldest) {
+                return size() > recentSize;
+            }
+        });
+
+        this.filterNegatives = meterRegistry.counter("riskwatch.dedup.lookups", "outcome", "filter-negative");
+        this.recentHits = meterRegistry.counter("riskwatch.dedup.lookups", "outcome", "recent-hit");
+        this.databaseHits = meterRegistry.counter("riskwatch.dedup.lookups", "outcome", "database-hit");
+        this.falsePositives = meterRegistry.counter("riskwatch.dedup.lookups", "outcome", "false-positive");
+    }
+
+    public void warm() {
+        long started = System.nanoTime();
+        AtomicLong loaded = new AtomicLong();
+        readOnlyTemplate.executeWithoutResult(status -> {
+            try (Stream<String> ids = transactionRepository.streamAllTransactionIds()) {
+                ids.forEach(id -> {
+                    filter.put(id);
+                    loaded.incrementAndGet();
+                });
+            }
+        });
+        log.info("Warmed transaction id filter with {} ids in {} ms ({} bits, {} hashes)",
+                loaded.get(), (System.nanoTime() - started) / 1_000_000, filter.bitSize(), filter.hashCount());
+    }
+
+    public Optional<ProcessedTransaction> find(String transactionId) {
+        ProcessedTransaction cached = recent.get(transactionId);
+        if (cached != null) {
+            recentHits.increment();
+            return Optional.of(cached);
+        }
+        if (!filter.mightContain(transactionId)) {
+            filterNegatives.increment();
+            return Optional.empty();
+        }
+
+        Optional<ProcessedTransaction> stored = readOnlyTemplate.execute(status ->
+                transactionRepository.findByTransactionId(transactionId).map(ProcessedTransaction::from));
+        if (stored.isPresent()) {
+            databaseHits.increment();
+            recent.put(transactionId, stored.get());
+        } else {
+            falsePositives.increment();
+        }
+        return stored;
+    }
+
+    public boolean mightContain(String transactionId) {
+        return recent.containsKey(transactionId) || filter.mightContain(transactionId);
+    }
+
+    public void clearRecent() {
+        recent.clear();
+    }
+
+    public void writeSnapshot(SnapshotOutput out) {
+        long[] words = filter.toWords();
+        out.putLong(filter.bitSize());
+        out.putInt(filter.hashCount());
+        for (long word : words) {
+            out.putLong(word);
+        }
+    }
+
+    public void restoreSnapshot(SnapshotInput in) {
+        long bitSize = in.getLong();
+        int hashCount = in.getInt();
+        if (bitSize != filter.bitSize() || hashCount != filter.hashCount()) {
+            throw new IllegalStateException("Snapshot filter has " + bitSize + " bits and " + hashCount
+                    + " hashes, configured filter has " + filter.bitSize() + " and " + filter.hashCount());
+        }
+        long[] words = new long[(int) (bitSize >>> 6)];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = in.getLong();
+        }
+        filter.merge(words);
+    }
+
+    public void registerId(String transactionId) {
+        filter.put(transactionId);
+    }
+
+    public void register(Transaction tx) {
+        filter.put(tx.getTransactionId());
+        ProcessedTransaction processed = ProcessedTransaction.from(tx);
+        TransactionCallbacks.afterCommit(() -> recent.put(tx.getTransactionId(), processed));
+    }
+}
@@ -1,27 +1,208 @@
 package com.sucheth.riskwatch.service;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
+import com.sucheth.riskwatch.model.ArchivedTransaction;
 import com.sucheth.riskwatch.model.Transaction;
+import com.sucheth.riskwatch.dto.api.BatchItemResult;
+import com.sucheth.riskwatch.dto.api.BatchTransactionResponse;
+import com.sucheth.riskwatch.dto.api.TransactionPageResponse;
 import com.sucheth.riskwatch.dto.api.TransactionRequest;
 import com.sucheth.riskwatch.dto.api.TransactionResponse;
+import com.sucheth.riskwatch.repository.ArchivedTransactionRepository;
 import com.sucheth.riskwatch.repository.TransactionRepository;
+import com.sucheth.riskwatch.dto.internal.ProcessedTransaction;
 import com.sucheth.riskwatch.dto.internal.RiskEvaluationResult;
+import com.sucheth.riskwatch.dto.internal.TransactionCursor;
+import com.sucheth.riskwatch.exception.DuplicateTransactionException;
+import com.sucheth.riskwatch.metrics.RiskMetrics;
+import com.sucheth.riskwatch.model.enums.RiskLevel;
+import com.sucheth.riskwatch.service.alerts.RiskAlertStream;
+import com.sucheth.riskwatch.service.analytics.RiskAnalytics;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
 
+    private static final Comparator<Transaction> NEWEST_FIRST =
+            Comparator.comparing(Transaction::getTimestamp).thenComparing(Transaction::getId).reversed();
+
     private final TransactionRepository transactionRepository;
+    private final ArchivedTransactionRepository archivedTransactionRepository;
     private final RiskEvaluator riskEvaluator;
     private final UserRiskProfileService userRiskProfileService;
+    private final VelocityIndex velocityIndex;
+    private final DeviceIndex deviceIndex;
+    private final TransactionIdIndex transactionIdIndex;
+    private final RiskAlertStream riskAlertStream;
+    private final RiskAnalytics riskAnalytics;
+    private final Validator validator;
+    private final RiskMetrics riskMetrics;
+    private final EntityManager entityManager;
+
+    @Value("${risk.batch.max-size:5000}")
+    private int maxBatchSize;
+
+    @Value("${risk.history.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${risk.history.max-page-size:500}")
+    private int maxPageSize;
 
     @Transactional
     public TransactionResponse evaluateAndSave(TransactionRequest request) {
+        return riskMetrics.getEvaluateAndSave().record(() -> {
+            Optional<ProcessedTransaction> original = transactionIdIndex.find(request.getTransactionId());
+            if (original.isPresent()) {
+                throw DuplicateTransactionException.of(original.get(), request);
+            }
+
+            Transaction tx = evaluate(request);
+
+            riskMetrics.getPersist().record(() -> transactionRepository.saveAndFlush(tx));
+            velocityIndex.record(tx.getUserId(), tx.getTransactionId(), tx.getTimestamp());
+            deviceIndex.record(tx.getDeviceId(), tx.getUserId(), tx.getTimestamp());
+            transactionIdIndex.register(tx);
+
+            riskMetrics.getProfileUpdate().record(() -> userRiskProfileService.updateUserRiskProfile(tx));
+
+            return TransactionResponse.from(tx);
+        });
+    }
+
+    @Transactional
+    public BatchTransactionResponse evaluateAndSaveBatch(List<TransactionRequest> requests) {
+        return riskMetrics.getEvaluateAndSaveBatch().record(() -> processBatch(requests));
+    }
+
+    @Transactional(readOnly = true)
+    public TransactionPageResponse getUserTransactions(String userId, String cursor, Integer limit, boolean includeArchived) {
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+        }
+
+        PageRequest page = PageRequest.ofSize(pageSize + 1);
+        TransactionCursor after = cursor == null || cursor.isBlank() ? null : TransactionCursor.decode(cursor);
+        List<Transaction> transactions;
+        if (after == null) {
+            transactions = transactionRepository.findRecentTransactions(userId, page);
+        } else {
+            transactions = transactionRepository.findRecentTransactionsBefore(userId, after.getTimestamp(), after.getId(), page);
+        }
+        if (includeArchived) {
+            transactions = Stream.concat(transactions.stream(), archivedPage(userId, after, page).stream())
+                .sorted(NEWEST_FIRST)
+                .limit(pageSize + 1)
+                .toList();
+        }
+
+        boolean hasMore = transactions.size() > pageSize;
+        if (hasMore) {
+            transactions = transactions.subList(0, pageSize);
+        }
+
+        return TransactionPageResponse.builder()
+            .transactions(transactions.stream().map(TransactionResponse::from).toList())
+            .limit(pageSize)
+            .hasMore(hasMore)
+            .nextCursor(hasMore ? TransactionCursor.after(transactions.get(pageSize - 1)).encode() : null)
+            .build();
+    }
+
+    private List<Transaction> archivedPage(String userId, TransactionCursor after, PageRequest page) {
+        List<ArchivedTransaction> archived;
+        if (after == null) {
+            archived = archivedTransactionRepository.findRecentTransactions(userId, page);
+        } else {
+            archived = archivedTransactionRepository.findRecentTransactionsBefore(userId, after.getTimestamp(), after.getId(), page);
+        }
+        return archived.stream().map(ArchivedTransaction::toTransaction).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public long streamUserTransactions(String userId, Consumer<TransactionResponse> sink) {
+        long count = 0;
+        try (Stream<Transaction> transactions = transactionRepository.streamByUserId(userId)) {
+            Iterator<Transaction> iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                Transaction tx = iterator.next();
+                sink.accept(TransactionResponse.from(tx));
+                entityManager.detach(tx);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private BatchTransactionResponse processBatch(List<TransactionRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one transaction");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch size " + requests.size() + " exceeds the limit of " + maxBatchSize);
+        }
+
+        Set<String> candidateIds = requests.stream()
+                .filter(Objects::nonNull)
+                .map(TransactionRequest::getTransactionId)
+                .filter(Objects::nonNull)
+                .filter(transactionIdIndex::mightContain)
+                .collect(Collectors.toSet());
+        Set<String> existingIds = candidateIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(transactionRepository.findExistingTransactionIds(candidateIds));
+        Set<String> seenIds = new HashSet<>();
+
+        List<BatchItemResult> results = new ArrayList<>(requests.size());
+        List<Transaction> accepted = new ArrayList<>(requests.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            TransactionRequest request = requests.get(i);
+            String error = validate(request, existingIds, seenIds);
+            if (error != null) {
+                results.add(BatchItemResult.rejected(i, request != null ? request.getTransactionId() : null, error));
+                continue;
+            }
+
+            Transaction tx = evaluate(request);
+            velocityIndex.record(tx.getUserId(), tx.getTransactionId(), tx.getTimestamp());
+            deviceIndex.record(tx.getDeviceId(), tx.getUserId(), tx.getTimestamp());
+            transactionIdIndex.register(tx);
+            accepted.add(tx);
+            results.add(BatchItemResult.accepted(i, TransactionResponse.from(tx)));
+        }
+
+        riskMetrics.getPersistBatch().record(() -> {
+            transactionRepository.saveAll(accepted);
+            transactionRepository.flush();
+        });
+        riskMetrics.getProfileUpdate().record(() -> userRiskProfileService.updateUserRiskProfiles(accepted));
+
+        return BatchTransactionResponse.from(results);
+    }
+
+    private Transaction evaluate(TransactionRequest request) {
         Transaction tx = Transaction.builder().transactionId(request.getTransactionId())
         .userId(request.getUserId())
         .amount(request.getAmount())
@@ -31,25 +212,37 @@ public class TransactionService {
         .build();
 
         RiskEvaluationResult result = riskEvaluator.evaluate(tx);
+        riskMetrics.recordOutcome(result);
+        riskAnalytics.record(result);
         tx.setRiskScore(result.getScore());
         tx.setRiskLevel(result.getLevel());
-        tx.setReasons(result.getReasons());
-
-        transactionRepository.save(tx);
+        tx.setReasonCodes(result.getReasonCodes());
+        tx.setDegraded(result.isDegraded());
+        if (result.getLevel() == RiskLevel.HIGH) {
+            riskAlertStream.publishHighRisk(tx);
+        }
+        return tx;
+    }
 
-        userRiskProfileService.updateUserRiskProfile(tx);
+    private String validate(TransactionRequest request, Set<String> existingIds, Set<String> seenIds) {
+        if (request == null) {
+            return "Transaction must not be null";
+        }
 
-        return TransactionResponse.from(tx);
-    }
+        Set<ConstraintViolation<TransactionRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return "Validation failed: " + violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
 
-    public List<TransactionResponse> getUserTransactions(String userId) {
-        List<Transaction> transactions = transactionRepository.findByUserId(userId)
-            .stream()
-            .sorted((a, b) -> b.getTimestamp().compareTo(a.getTimestamp()))
-            .toList();
-        
-        return transactions.stream()
-            .map(TransactionResponse::from)
-            .toList();
+        if (existingIds.contains(request.getTransactionId())) {
+            return "Duplicate transactionId: " + request.getTransactionId();
+        }
+        if (!seenIds.add(request.getTransactionId())) {
+            return "Duplicate transactionId within batch: " + request.getTransactionId();
+        }
+        return null;
     }
-}
\ No newline at end of file
+}
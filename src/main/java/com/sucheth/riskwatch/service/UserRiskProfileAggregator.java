@@ -0,0 +1,744 @@
+package com.sucheth.riskwatch.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sucheth.riskwatch.dto.internal.UserRiskProfileDelta;
+import com.sucheth.riskwatch.model.Transaction;
+import com.sucheth.riskwatch.model.UserRiskProfile;
+import com.sucheth.riskwatch.model.enums.RiskLevel;
+import com.sucheth.riskwatch.model.enums.UserRiskLevel;
+import com.sucheth.riskwatch.repository.UserRiskProfileRepository;
+import com.sucheth.riskwatch.service.alerts.RiskAlertStream;
+import com.sucheth.riskwatch.service.snapshot.SnapshotInput;
+import com.sucheth.riskwatch.service.snapshot.SnapshotOutput;
+import com.sucheth.riskwatch.util.ActivityWindow;
+import com.sucheth.riskwatch.util.AmountSketch;
+import com.sucheth.riskwatch.util.RiskScoringUtils;
+import com.sucheth.riskwatch.util.TransactionCallbacks;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind store and read-through cache for user risk profiles. Each transaction is
+ * applied to the in-memory running totals under a per-user stripe lock; the pending
+ * changes for each user are coalesced into a single delta and upserted atomically in
+ * batches by a periodic flush. Alongside the lifetime totals each profile keeps an
+ * exponentially decayed score and hourly/daily activity rings, which drive the risk level
+ * and the recent-activity flag, and a sketch of the user's transaction amounts; all are
+ * updated in constant time per transaction. Clean profiles stay resident, bounded by size
+ * and TTL, and misses are read from the database without holding the stripe lock. The
+ * set of flagged users is maintained incrementally alongside the profiles. Only clean
+ * profiles go into a state snapshot, since they match the stored rows.
+ */
+@Slf4j
+@Component
+public class UserRiskProfileAggregator {
+
+    private final UserRiskProfileRepository userRiskProfileRepository;
+    private final RiskAlertStream riskAlertStream;
+    private final TransactionTemplate transactionTemplate;
+    private final Object[] locks;
+    private final long[] evictions;
+    private final Map<String, ProfileState> states = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final Set<String> flaggedUsers = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+
+    @Value("${risk.profile.flush.batch-size:500}")
+    private int flushBatchSize;
+
+    @Value("${risk.profile.flush.max-dirty:10000}")
+    private int maxDirty;
+
+    @Value("${risk.profile.cache.max-size:100000}")
+    private int maxResident;
+
+    @Value("${risk.profile.cache.ttl-ms:300000}")
+    private long ttlMillis;
+
+    private final double decayRate;
+
+    public UserRiskProfileAggregator(UserRiskProfileRepository userRiskProfileRepository,
+                                     RiskAlertStream riskAlertStream,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${risk.profile.stripes:64}") int stripes,
+                                     @Value("${risk.profile.decay.half-life-hours:24}") double halfLifeHours) {
+        this.userRiskProfileRepository = userRiskProfileRepository;
+        this.riskAlertStream = riskAlertStream;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.decayRate = Math.log(2) / (halfLifeHours * 3_600);
+        this.locks = new Object[stripes];
+        this.evictions = new long[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new Object();
+        }
+
+        Tags cache = Tags.of("cache", "userRiskProfiles");
+        this.hits = meterRegistry.counter("cache.gets", cache.and("result", "hit"));
+        this.misses = meterRegistry.counter("cache.gets", cache.and("result", "miss"));
+        this.sizeEvictions = meterRegistry.counter("cache.evictions", cache.and("cause", "size"));
+        this.expiredEvictions = meterRegistry.counter("cache.evictions", cache.and("cause", "expired"));
+        meterRegistry.gauge("cache.size", cache, states, Map::size);
+        meterRegistry.gauge("cache.hit.ratio", cache, this, UserRiskProfileAggregator::hitRatio);
+        meterRegistry.gauge("riskwatch.profile.dirty", dirty, Set::size);
+        meterRegistry.gauge("riskwatch.profile.flagged", flaggedUsers, Set::size);
+    }
+
+    @PostConstruct
+    public void loadFlaggedUsers() {
+        userRiskProfileRepository.findByIsFlaggedTrue()
+                .forEach(profile -> flaggedUsers.add(profile.getUserId()));
+    }
+
+    public void apply(Transaction tx) {
+        String userId = tx.getUserId();
+        withState(userId, true, state -> {
+            boolean wasFlagged = state.flagged;
+            state.apply(eventTime(tx), tx.getAmount(), tx.getRiskScore(), isHighRisk(tx), decayRate);
+            trackFlag(state);
+            if (state.flagged && !wasFlagged) {
+                riskAlertStream.publishFlagged(state.toProfile());
+            }
+            dirty.add(userId);
+            return null;
+        });
+
+        TransactionCallbacks.afterRollback(() -> revert(tx));
+
+        if (dirty.size() >= maxDirty) {
+            flush();
+        }
+        if (states.size() > maxResident) {
+            evictOverflow();
+        }
+    }
+
+    public UserRiskProfile get(String userId) {
+        synchronized (lockFor(userId)) {
+            ProfileState state = resident(userId);
+            if (state != null) {
+                hits.increment();
+                return state.toProfile();
+            }
+        }
+        misses.increment();
+        return withState(userId, false, state -> state != null ? state.toProfile() : null);
+    }
+
+    public double amountPercentile(String userId, double amount, int minHistory) {
+        return withState(userId, false, state -> state == null || state.amounts.count() < minHistory
+                ? Double.NaN
+                : state.amounts.percentile(amount));
+    }
+
+    public Replay replay(String userId) {
+        return new Replay(new ProfileState(userId), decayRate);
+    }
+
+    public void invalidateClean() {
+        flushLock.lock();
+        try {
+            for (String userId : states.keySet()) {
+                synchronized (lockFor(userId)) {
+                    ProfileState state = states.get(userId);
+                    if (state != null && isEvictable(state)) {
+                        evict(userId);
+                    }
+                }
+            }
+            flaggedUsers.clear();
+            loadFlaggedUsers();
+            states.values().forEach(this::trackFlag);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes pending deltas and drops the resident profiles of the matching users, so
+     * the next access reloads them from the database.
+     */
+    public int evictUsers(Predicate<String> users) {
+        flush();
+        flushLock.lock();
+        try {
+            int evicted = 0;
+            for (String userId : states.keySet()) {
+                if (!users.test(userId)) {
+                    continue;
+                }
+                synchronized (lockFor(userId)) {
+                    ProfileState state = states.get(userId);
+                    if (state != null && isEvictable(state)) {
+                        evict(userId);
+                        evicted++;
+                    }
+                }
+            }
+            return evicted;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Flagged users that are not resident are read with one query and admitted unless the
+     * user was loaded, or its stripe evicted a profile, in the meantime; those few fall
+     * back to {@link #get}.
+     */
+    public List<UserRiskProfile> getFlagged() {
+        List<UserRiskProfile> profiles = new ArrayList<>(flaggedUsers.size());
+        Map<String, Long> missing = new HashMap<>();
+        for (String userId : flaggedUsers) {
+            synchronized (lockFor(userId)) {
+                ProfileState state = resident(userId);
+                if (state == null) {
+                    missing.put(userId, evictions[stripeOf(userId)]);
+                } else if (state.flagged) {
+                    profiles.add(state.toProfile());
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return profiles;
+        }
+
+        misses.increment(missing.size());
+        for (UserRiskProfile stored : userRiskProfileRepository.findAllById(missing.keySet())) {
+            String userId = stored.getUserId();
+            UserRiskProfile profile;
+            synchronized (lockFor(userId)) {
+                ProfileState state = resident(userId);
+                if (state == null && evictions[stripeOf(userId)] == missing.get(userId)) {
+                    state = ProfileState.from(stored);
+                    admit(state);
+                }
+                profile = state != null ? state.toProfile() : null;
+            }
+            if (profile == null) {
+                profile = get(userId);
+            }
+            if (profile != null && Boolean.TRUE.equals(profile.getIsFlagged())) {
+                profiles.add(profile);
+            }
+        }
+        return profiles;
+    }
+
+    public void writeSnapshot(SnapshotOutput out) {
+        for (String userId : states.keySet()) {
+            UserRiskProfile profile;
+            synchronized (lockFor(userId)) {
+                ProfileState state = states.get(userId);
+                if (state == null || !isEvictable(state)) {
+                    continue;
+                }
+                profile = state.toProfile();
+            }
+            out.putString(profile.getUserId());
+            out.putInt(profile.getTotalTransactions());
+            out.putDouble(profile.getAverageRiskScore());
+            out.putInt(profile.getHighRiskTransactionCount());
+            out.putInstant(profile.getLastTransactionTime());
+            out.putString(profile.getUserRiskLevel().name());
+            out.putBoolean(profile.getIsFlagged());
+            out.putDouble(profile.getDecayedScoreSum());
+            out.putDouble(profile.getDecayedWeight());
+            out.putInstant(profile.getDecayedAt());
+            out.putBytes(profile.getActivityWindow());
+            out.putBytes(profile.getAmountSketch());
+        }
+    }
+
+    /**
+     * Admits the snapshot's profiles to the cache, skipping any user in {@code stale}:
+     * their stored rows may have moved on since the snapshot was taken.
+     */
+    public int restoreSnapshot(SnapshotInput in, Set<String> stale) {
+        List<ProfileState> restored = new ArrayList<>();
+        while (in.hasRemaining()) {
+            UserRiskProfile profile = UserRiskProfile.builder()
+                    .userId(in.getString())
+                    .totalTransactions(in.getInt())
+                    .averageRiskScore(in.getDouble())
+                    .highRiskTransactionCount(in.getInt())
+                    .lastTransactionTime(in.getInstant())
+                    .userRiskLevel(UserRiskLevel.valueOf(in.getString()))
+                    .isFlagged(in.getBoolean())
+                    .decayedScoreSum(in.getDouble())
+                    .decayedWeight(in.getDouble())
+                    .decayedAt(in.getInstant())
+                    .activityWindow(in.getBytes())
+                    .amountSketch(in.getBytes())
+                    .build();
+            if (!stale.contains(profile.getUserId())) {
+                restored.add(ProfileState.from(profile));
+            }
+        }
+        for (ProfileState state : restored) {
+            synchronized (lockFor(state.userId)) {
+                states.putIfAbsent(state.userId, state);
+                trackFlag(states.get(state.userId));
+            }
+        }
+        if (states.size() > maxResident) {
+            evictOverflow();
+        }
+        return restored.size();
+    }
+
+    public int dirtyCount() {
+        return dirty.size();
+    }
+
+    @Scheduled(fixedDelayString = "${risk.profile.flush.interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            while (!dirty.isEmpty()) {
+                List<UserRiskProfileDelta> batch = drainBatch();
+                if (batch.isEmpty()) {
+                    return;
+                }
+                try {
+                    transactionTemplate.executeWithoutResult(status -> userRiskProfileRepository.upsertDeltas(batch));
+                } catch (RuntimeException ex) {
+                    log.error("Failed to flush {} user risk profiles, will retry", batch.size(), ex);
+                    batch.forEach(this::restore);
+                    return;
+                }
+                batch.forEach(this::completeFlush);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${risk.profile.cache.sweep-interval-ms:10000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        for (String userId : states.keySet()) {
+            synchronized (lockFor(userId)) {
+                ProfileState state = states.get(userId);
+                if (state != null && state.isExpired(now, ttlMillis) && isEvictable(state)) {
+                    evict(userId);
+                    expiredEvictions.increment();
+                }
+            }
+        }
+        if (states.size() > maxResident) {
+            evictOverflow();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+        if (!dirty.isEmpty()) {
+            log.warn("{} user risk profiles could not be flushed before shutdown", dirty.size());
+        }
+    }
+
+    private List<UserRiskProfileDelta> drainBatch() {
+        List<UserRiskProfileDelta> batch = new ArrayList<>(Math.min(flushBatchSize, dirty.size()));
+        for (String userId : dirty) {
+            if (batch.size() >= flushBatchSize) {
+                break;
+            }
+            synchronized (lockFor(userId)) {
+                if (dirty.remove(userId)) {
+                    ProfileState state = states.get(userId);
+                    UserRiskProfileDelta delta = state.drainPending();
+                    if (delta != null) {
+                        state.flushing = true;
+                        batch.add(delta);
+                    }
+                }
+            }
+        }
+        return batch;
+    }
+
+    private void restore(UserRiskProfileDelta delta) {
+        synchronized (lockFor(delta.getUserId())) {
+            ProfileState state = states.get(delta.getUserId());
+            state.restorePending(delta);
+            state.flushing = false;
+            dirty.add(delta.getUserId());
+        }
+    }
+
+    private void completeFlush(UserRiskProfileDelta delta) {
+        synchronized (lockFor(delta.getUserId())) {
+            states.get(delta.getUserId()).flushing = false;
+        }
+    }
+
+    private void revert(Transaction tx) {
+        String userId = tx.getUserId();
+        withState(userId, true, state -> {
+            state.revert(eventTime(tx), tx.getAmount(), tx.getRiskScore(), isHighRisk(tx), decayRate);
+            trackFlag(state);
+            dirty.add(userId);
+            return null;
+        });
+    }
+
+    /**
+     * Runs {@code action} under the user's stripe lock with the resident state, loading
+     * it on a miss. The database read happens outside the lock; the loaded row is
+     * admitted only if no other thread admitted the user meanwhile and nothing was
+     * evicted from the stripe, since an evicted profile may have been flushed after the
+     * read. Otherwise the read is retried. Without a stored row the action gets a new
+     * state when {@code create} is set and null otherwise.
+     */
+    private <T> T withState(String userId, boolean create, Function<ProfileState, T> action) {
+        Object lock = lockFor(userId);
+        int stripe = stripeOf(userId);
+        Optional<ProfileState> loaded = null;
+        long readAt = 0;
+        while (true) {
+            synchronized (lock) {
+                ProfileState state = resident(userId);
+                if (state != null) {
+                    return action.apply(state);
+                }
+                if (loaded != null && evictions[stripe] == readAt) {
+                    state = loaded.orElse(create ? new ProfileState(userId) : null);
+                    if (state != null) {
+                        admit(state);
+                    }
+                    return action.apply(state);
+                }
+                readAt = evictions[stripe];
+            }
+            loaded = load(userId);
+        }
+    }
+
+    private void evictOverflow() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int target = (int) (maxResident * 0.9);
+            int excess = states.size() - target;
+            if (excess <= 0) {
+                return;
+            }
+            List<EvictionCandidate> candidates = new ArrayList<>(states.size());
+            states.forEach((userId, state) -> candidates.add(new EvictionCandidate(userId, state.lastAccess)));
+            candidates.sort(Comparator.comparingLong(EvictionCandidate::lastAccess));
+            for (EvictionCandidate candidate : candidates) {
+                if (excess <= 0) {
+                    break;
+                }
+                synchronized (lockFor(candidate.userId())) {
+                    ProfileState state = states.get(candidate.userId());
+                    if (state != null && isEvictable(state)) {
+                        evict(candidate.userId());
+                        sizeEvictions.increment();
+                        excess--;
+                    }
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private boolean isEvictable(ProfileState state) {
+        return !state.flushing && !dirty.contains(state.userId);
+    }
+
+    private ProfileState resident(String userId) {
+        ProfileState state = states.get(userId);
+        if (state != null) {
+            state.lastAccess = System.currentTimeMillis();
+        }
+        return state;
+    }
+
+    private void evict(String userId) {
+        states.remove(userId);
+        evictions[stripeOf(userId)]++;
+    }
+
+    private void admit(ProfileState state) {
+        states.put(state.userId, state);
+        trackFlag(state);
+    }
+
+    private void trackFlag(ProfileState state) {
+        if (state.flagged) {
+            flaggedUsers.add(state.userId);
+        } else {
+            flaggedUsers.remove(state.userId);
+        }
+    }
+
+    private Optional<ProfileState> load(String userId) {
+        return userRiskProfileRepository.findById(userId).map(ProfileState::from);
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0.0 : hits.count() / total;
+    }
+
+    private Object lockFor(String userId) {
+        return locks[stripeOf(userId)];
+    }
+
+    private int stripeOf(String userId) {
+        return Math.floorMod(userId.hashCode(), locks.length);
+    }
+
+    private static Instant eventTime(Transaction tx) {
+        return tx.getTimestamp() != null ? tx.getTimestamp() : Instant.now();
+    }
+
+    private static boolean isHighRisk(Transaction tx) {
+        return RiskScoringUtils.isHighRiskTransaction(tx.getRiskLevel(), tx.getRiskScore());
+    }
+
+    private record EvictionCandidate(String userId, long lastAccess) {
+    }
+
+    /**
+     * Builds a profile from a user's complete history, oldest transaction first, without
+     * touching the cache or the pending deltas.
+     */
+    public static final class Replay {
+
+        private final ProfileState state;
+        private final double decayRate;
+
+        private Replay(ProfileState state, double decayRate) {
+            this.state = state;
+            this.decayRate = decayRate;
+        }
+
+        public void add(Instant eventTime, Double amount, double riskScore, RiskLevel riskLevel) {
+            state.replay(eventTime, amount, riskScore,
+                    RiskScoringUtils.isHighRiskTransaction(riskLevel, riskScore), decayRate);
+        }
+
+        public UserRiskProfile toProfile() {
+            state.recompute();
+            return state.toProfile();
+        }
+    }
+
+    private static final class ProfileState {
+
+        private final String userId;
+        private int totalTransactions;
+        private double scoreSum;
+        private int highRiskTransactionCount;
+        private Instant lastTransactionTime;
+        private UserRiskLevel userRiskLevel = UserRiskLevel.LOW;
+        private boolean flagged;
+        private int pendingTransactions;
+        private double pendingScoreSum;
+        private int pendingHighRiskTransactions;
+        private double decayedScoreSum;
+        private double decayedWeight;
+        private Instant decayedAt;
+        private ActivityWindow activity = new ActivityWindow();
+        private AmountSketch amounts = new AmountSketch();
+        private boolean recentlyFlagged;
+        private boolean snapshotChanged;
+        private final long loadedAt = System.currentTimeMillis();
+        private volatile long lastAccess = loadedAt;
+        private boolean flushing;
+
+        private ProfileState(String userId) {
+            this.userId = userId;
+        }
+
+        private static ProfileState from(UserRiskProfile profile) {
+            ProfileState state = new ProfileState(profile.getUserId());
+            state.totalTransactions = profile.getTotalTransactions();
+            state.scoreSum = profile.getAverageRiskScore() * profile.getTotalTransactions();
+            state.highRiskTransactionCount = profile.getHighRiskTransactionCount();
+            state.lastTransactionTime = profile.getLastTransactionTime();
+            state.userRiskLevel = profile.getUserRiskLevel();
+            state.flagged = Boolean.TRUE.equals(profile.getIsFlagged());
+            state.decayedScoreSum = profile.getDecayedScoreSum() != null ? profile.getDecayedScoreSum() : 0.0;
+            state.decayedWeight = profile.getDecayedWeight() != null ? profile.getDecayedWeight() : 0.0;
+            state.decayedAt = profile.getDecayedAt();
+            state.activity = ActivityWindow.unpack(profile.getActivityWindow());
+            state.amounts = AmountSketch.unpack(profile.getAmountSketch());
+            return state;
+        }
+
+        private void apply(Instant eventTime, Double amount, double riskScore, boolean highRisk, double decayRate) {
+            totalTransactions++;
+            scoreSum += riskScore;
+            if (highRisk) {
+                highRiskTransactionCount++;
+            }
+            lastTransactionTime = Instant.now();
+            pendingTransactions++;
+            pendingScoreSum += riskScore;
+            if (highRisk) {
+                pendingHighRiskTransactions++;
+            }
+            addDecayed(eventTime, riskScore, 1.0, decayRate);
+            activity.record(eventTime, riskScore, highRisk);
+            if (amount != null) {
+                amounts.record(amount);
+            }
+            snapshotChanged = true;
+            recompute();
+        }
+
+        private void replay(Instant eventTime, Double amount, double riskScore, boolean highRisk, double decayRate) {
+            totalTransactions++;
+            scoreSum += riskScore;
+            if (highRisk) {
+                highRiskTransactionCount++;
+            }
+            if (lastTransactionTime == null || eventTime.isAfter(lastTransactionTime)) {
+                lastTransactionTime = eventTime;
+            }
+            addDecayed(eventTime, riskScore, 1.0, decayRate);
+            activity.record(eventTime, riskScore, highRisk);
+            if (amount != null) {
+                amounts.record(amount);
+            }
+        }
+
+        private void revert(Instant eventTime, Double amount, double riskScore, boolean highRisk, double decayRate) {
+            totalTransactions = Math.max(0, totalTransactions - 1);
+            scoreSum = totalTransactions == 0 ? 0.0 : scoreSum - riskScore;
+            if (highRisk) {
+                highRiskTransactionCount = Math.max(0, highRiskTransactionCount - 1);
+                pendingHighRiskTransactions--;
+            }
+            pendingTransactions--;
+            pendingScoreSum -= riskScore;
+            addDecayed(eventTime, -riskScore, -1.0, decayRate);
+            activity.unrecord(eventTime, riskScore, highRisk);
+            if (amount != null) {
+                amounts.unrecord(amount);
+            }
+            snapshotChanged = true;
+            recompute();
+        }
+
+        private void addDecayed(Instant eventTime, double riskScore, double weight, double decayRate) {
+            double factor = 1.0;
+            if (decayedAt == null || eventTime.isAfter(decayedAt)) {
+                if (decayedAt != null) {
+                    double decay = Math.exp(-decayRate * secondsBetween(decayedAt, eventTime));
+                    decayedScoreSum *= decay;
+                    decayedWeight *= decay;
+                }
+                decayedAt = eventTime;
+            } else {
+                factor = Math.exp(-decayRate * secondsBetween(eventTime, decayedAt));
+            }
+            decayedScoreSum += riskScore * factor;
+            decayedWeight += weight * factor;
+            if (decayedWeight <= 1e-12) {
+                decayedWeight = 0.0;
+                decayedScoreSum = 0.0;
+            }
+        }
+
+        private UserRiskProfileDelta drainPending() {
+            if (pendingTransactions == 0 && pendingHighRiskTransactions == 0 && !snapshotChanged) {
+                return null;
+            }
+            UserRiskProfileDelta delta = new UserRiskProfileDelta(userId, pendingTransactions, pendingScoreSum,
+                    pendingHighRiskTransactions, lastTransactionTime != null ? lastTransactionTime : Instant.now(),
+                    decayedScoreSum, decayedWeight, decayedAt, activity.pack(), amounts.pack(), recentlyFlagged);
+            snapshotChanged = false;
+            pendingTransactions = 0;
+            pendingScoreSum = 0.0;
+            pendingHighRiskTransactions = 0;
+            return delta;
+        }
+
+        private void restorePending(UserRiskProfileDelta delta) {
+            pendingTransactions += delta.getTransactions();
+            pendingScoreSum += delta.getScoreSum();
+            pendingHighRiskTransactions += delta.getHighRiskTransactions();
+            snapshotChanged = true;
+        }
+
+        private boolean isExpired(long now, long ttlMillis) {
+            return now - loadedAt >= ttlMillis;
+        }
+
+        private void recompute() {
+            int recentHighRisk = activity.lastHours(RiskScoringUtils.RECENT_WINDOW_HOURS, Instant.now())
+                    .highRiskTransactions();
+            userRiskLevel = RiskScoringUtils.computeUserRiskLevel(recentRiskScore());
+            flagged = RiskScoringUtils.isFlagged(userRiskLevel, highRiskTransactionCount, recentHighRisk);
+            recentlyFlagged = recentHighRisk >= RiskScoringUtils.FLAG_RECENT_HIGH_RISK_TRANSACTION_COUNT;
+        }
+
+        private double recentRiskScore() {
+            return decayedWeight > 0 ? decayedScoreSum / decayedWeight : averageRiskScore();
+        }
+
+        private static double secondsBetween(Instant from, Instant to) {
+            return Duration.between(from, to).toMillis() / 1_000.0;
+        }
+
+        private double averageRiskScore() {
+            return totalTransactions == 0 ? 0.0 : scoreSum / totalTransactions;
+        }
+
+        private UserRiskProfile toProfile() {
+            return UserRiskProfile.builder()
+                    .userId(userId)
+                    .totalTransactions(totalTransactions)
+                    .averageRiskScore(averageRiskScore())
+                    .highRiskTransactionCount(highRiskTransactionCount)
+                    .lastTransactionTime(lastTransactionTime != null ? lastTransactionTime : Instant.now())
+                    .userRiskLevel(userRiskLevel)
+                    .isFlagged(flagged)
+                    .decayedScoreSum(decayedScoreSum)
+                    .decayedWeight(decayedWeight)
+                    .decayedAt(decayedAt)
+                    .activityWindow(activity.pack())
+                    .amountSketch(amounts.pack())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.sucheth.riskwatch.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.sucheth.riskwatch.dto.internal.TransactionStamp;
+import com.sucheth.riskwatch.repository.TransactionRepository;
+import com.sucheth.riskwatch.service.snapshot.SnapshotInput;
+import com.sucheth.riskwatch.service.snapshot.SnapshotOutput;
+import com.sucheth.riskwatch.util.TransactionCallbacks;
+
+/**
+ * Per-user sliding window of recent transaction timestamps used by the velocity check.
+ * Windows are seeded from the database on a miss and then maintained in memory, so a
+ * velocity lookup only touches the events that are still inside the window. Seeding
+ * queries run outside the stripe lock; events recorded meanwhile are held with the
+ * pending seed and merged in when it is installed. Events are keyed by transaction id,
+ * so merging never collapses distinct transactions that share a timestamp.
+ */
+@Component
+public class VelocityIndex {
+
+    private final TransactionRepository transactionRepository;
+    private final Duration window;
+    private final Object[] locks;
+    private final Map<String, UserWindow> windows = new ConcurrentHashMap<>();
+    private final Map<String, Seeding> seeds = new ConcurrentHashMap<>();
+
+    public VelocityIndex(TransactionRepository transactionRepository,
+                         @Value("${risk.thresholds.velocity.window-minutes}") int windowMinutes,
+                         @Value("${risk.velocity-index.stripes:64}") int stripes) {
+        this.transactionRepository = transactionRepository;
+        this.window = Duration.ofMinutes(windowMinutes);
+        this.locks = new Object[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public int countAfter(String userId, Instant cutoff) {
+        long cutoffMicros = toMicros(cutoff);
+        Seeding seeding;
+        synchronized (lockFor(userId)) {
+            UserWindow userWindow = windows.get(userId);
+            if (userWindow != null && cutoffMicros >= userWindow.coveredFrom) {
+                userWindow.evictUpTo(cutoffMicros);
+                return userWindow.size;
+            }
+            seeding = seeds.computeIfAbsent(userId, key -> new Seeding());
+            seeding.readers++;
+        }
+
+        List<TransactionStamp> stored;
+        try {
+            stored = transactionRepository.findStampsByUserIdAndTimestampAfter(userId, cutoff);
+        } catch (RuntimeException ex) {
+            synchronized (lockFor(userId)) {
+                release(userId, seeding);
+            }
+            throw ex;
+        }
+        synchronized (lockFor(userId)) {
+            release(userId, seeding);
+            UserWindow userWindow = windows.get(userId);
+            if (userWindow == null || cutoffMicros < userWindow.coveredFrom) {
+                userWindow = seeded(cutoffMicros, stored, seeding.recorded, userWindow);
+                windows.put(userId, userWindow);
+            }
+            userWindow.evictUpTo(cutoffMicros);
+            return userWindow.size;
+        }
+    }
+
+    public void record(String userId, String transactionId, Instant timestamp) {
+        long micros = toMicros(timestamp);
+        synchronized (lockFor(userId)) {
+            UserWindow userWindow = windows.get(userId);
+            if (userWindow == null) {
+                Seeding seeding = seeds.get(userId);
+                if (seeding == null) {
+                    return;
+                }
+                seeding.recorded.add(new Event(transactionId, micros));
+            } else if (micros <= userWindow.coveredFrom) {
+                return;
+            } else {
+                userWindow.add(transactionId, micros);
+            }
+        }
+
+        TransactionCallbacks.afterRollback(() -> remove(userId, transactionId));
+    }
+
+    public void replay(String userId, String transactionId, Instant timestamp) {
+        long micros = toMicros(timestamp);
+        synchronized (lockFor(userId)) {
+            UserWindow userWindow = windows.get(userId);
+            if (userWindow != null && micros > userWindow.coveredFrom && !userWindow.contains(transactionId)) {
+                userWindow.add(transactionId, micros);
+            }
+        }
+    }
+
+    public void invalidate(String userId) {
+        synchronized (lockFor(userId)) {
+            windows.remove(userId);
+        }
+    }
+
+    public void clear() {
+        windows.keySet().forEach(this::invalidate);
+    }
+
+    public int evictUsers(Predicate<String> users) {
+        int evicted = 0;
+        for (String userId : windows.keySet()) {
+            if (users.test(userId)) {
+                invalidate(userId);
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    public int trackedUsers() {
+        return windows.size();
+    }
+
+    public void writeSnapshot(SnapshotOutput out) {
+        for (String userId : windows.keySet()) {
+            long coveredFrom;
+            long[] stamps;
+            String[] ids;
+            synchronized (lockFor(userId)) {
+                UserWindow userWindow = windows.get(userId);
+                if (userWindow == null) {
+                    continue;
+                }
+                coveredFrom = userWindow.coveredFrom;
+                stamps = Arrays.copyOf(userWindow.stamps, userWindow.size);
+                ids = Arrays.copyOf(userWindow.ids, userWindow.size);
+            }
+            out.putString(userId);
+            out.putLong(coveredFrom);
+            out.putInt(stamps.length);
+            for (int i = 0; i < stamps.length; i++) {
+                out.putString(ids[i]);
+                out.putLong(stamps[i]);
+            }
+        }
+    }
+
+    public void restoreSnapshot(SnapshotInput in) {
+        long horizon = toMicros(Instant.now().minus(window));
+        while (in.hasRemaining()) {
+            String userId = in.getString();
+            long coveredFrom = in.getLong();
+            int size = in.getInt();
+            UserWindow userWindow = new UserWindow(coveredFrom, Math.max(8, size));
+            for (int i = 0; i < size; i++) {
+                String transactionId = in.getString();
+                userWindow.add(transactionId, in.getLong());
+            }
+            userWindow.evictUpTo(horizon);
+            if (userWindow.size > 0) {
+                synchronized (lockFor(userId)) {
+                    windows.put(userId, userWindow);
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${risk.velocity-index.sweep-interval-ms:60000}")
+    public void evictIdleWindows() {
+        long horizon = toMicros(Instant.now().minus(window));
+        for (String userId : windows.keySet()) {
+            synchronized (lockFor(userId)) {
+                UserWindow userWindow = windows.get(userId);
+                if (userWindow == null) {
+                    continue;
+                }
+                userWindow.evictUpTo(horizon);
+                if (userWindow.size == 0) {
+                    windows.remove(userId);
+                }
+            }
+        }
+    }
+
+    private void remove(String userId, String transactionId) {
+        synchronized (lockFor(userId)) {
+            UserWindow userWindow = windows.get(userId);
+            if (userWindow != null) {
+                userWindow.remove(transactionId);
+            }
+            Seeding seeding = seeds.get(userId);
+            if (seeding != null) {
+                seeding.recorded.removeIf(event -> event.transactionId().equals(transactionId));
+            }
+        }
+    }
+
+    private void release(String userId, Seeding seeding) {
+        if (--seeding.readers == 0) {
+            seeds.remove(userId, seeding);
+        }
+    }
+
+    /**
+     * Builds a window from the stored timestamps, adding events recorded while the query
+     * ran and events of the narrower window being replaced; either may not have been
+     * committed yet when the query read the table.
+     */
+    private static UserWindow seeded(long cutoffMicros, List<TransactionStamp> stored, List<Event> recorded,
+                                     UserWindow replaced) {
+        UserWindow userWindow = new UserWindow(cutoffMicros, Math.max(8, stored.size() + recorded.size()));
+        for (TransactionStamp stamp : stored) {
+            userWindow.add(stamp.getTransactionId(), toMicros(stamp.getTimestamp()));
+        }
+        for (Event event : recorded) {
+            if (event.micros() > cutoffMicros && !userWindow.contains(event.transactionId())) {
+                userWindow.add(event.transactionId(), event.micros());
+            }
+        }
+        if (replaced != null) {
+            for (int i = 0; i < replaced.size; i++) {
+                if (!userWindow.contains(replaced.ids[i])) {
+                    userWindow.add(replaced.ids[i], replaced.stamps[i]);
+                }
+            }
+        }
+        return userWindow;
+    }
+
+    private Object lockFor(String userId) {
+        return locks[Math.floorMod(userId.hashCode(), locks.length)];
+    }
+
+    private static long toMicros(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000L + instant.getNano() / 1_000;
+    }
+
+    private record Event(String transactionId, long micros) {
+    }
+
+    private static final class Seeding {
+
+        private final List<Event> recorded = new ArrayList<>();
+        private int readers;
+    }
+
+    private static final class UserWindow {
+
+        private long[] stamps;
+        private String[] ids;
+        private int size;
+        private long coveredFrom;
+
+        private UserWindow(long coveredFrom, int capacity) {
+            this.coveredFrom = coveredFrom;
+            this.stamps = new long[capacity];
+            this.ids = new String[capacity];
+        }
+
+        private void add(String transactionId, long micros) {
+            if (size == stamps.length) {
+                stamps = Arrays.copyOf(stamps, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size] = transactionId;
+            stamps[size++] = micros;
+        }
+
+        private boolean contains(String transactionId) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i].equals(transactionId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void remove(String transactionId) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i].equals(transactionId)) {
+                    size--;
+                    stamps[i] = stamps[size];
+                    ids[i] = ids[size];
+                    ids[size] = null;
+                    return;
+                }
+            }
+        }
+
+        private void evictUpTo(long cutoff) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (stamps[i] > cutoff) {
+                    stamps[kept] = stamps[i];
+                    ids[kept++] = ids[i];
+                }
+            }
+            Arrays.fill(ids, kept, size, null);
+            size = kept;
+            coveredFrom = Math.max(coveredFrom, cutoff);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.sucheth.riskwatch.service.admission;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.sucheth.riskwatch.exception.RateLimitedException;
+import com.sucheth.riskwatch.util.TokenBucket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Token-bucket rate limits applied before a transaction is evaluated: one bucket per
+ * user, guarded by striped locks, and one shared bucket for the whole instance. The user
+ * bucket is checked first so a single noisy user is turned away without touching the
+ * shared one. Buckets that have refilled completely carry no state and are swept.
+ */
+@Component
+public class AdmissionControl {
+
+    private final Object[] locks;
+    private final Map<String, TokenBucket> userBuckets = new ConcurrentHashMap<>();
+    private final TokenBucket globalBucket;
+    private final Counter userRejected;
+    private final Counter globalRejected;
+
+    @Value("${risk.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${risk.rate-limit.user.per-second:10}")
+    private double userRate;
+
+    @Value("${risk.rate-limit.user.burst:50}")
+    private double userBurst;
+
+    public AdmissionControl(MeterRegistry meterRegistry,
+                            @Value("${risk.rate-limit.global.per-second:10000}") double globalRate,
+                            @Value("${risk.rate-limit.global.burst:20000}") double globalBurst,
+                            @Value("${risk.rate-limit.stripes:64}") int stripes) {
+        this.locks = new Object[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new Object();
+        }
+        this.globalBucket = new TokenBucket(globalRate, globalBurst, System.nanoTime());
+        this.userRejected = meterRegistry.counter("riskwatch.admission.rejected", "scope", "user");
+        this.globalRejected = meterRegistry.counter("riskwatch.admission.rejected", "scope", "global");
+        meterRegistry.gauge("riskwatch.admission.tracked-users", userBuckets, Map::size);
+    }
+
+    /**
+     * @throws RateLimitedException if the user or the instance is over its limit
+     */
+    public void admit(String userId) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        long wait;
+        synchronized (lockFor(userId)) {
+            wait = userBuckets.computeIfAbsent(userId, id -> new TokenBucket(userRate, userBurst, now))
+                    .tryAcquire(now);
+        }
+        if (wait > 0) {
+            userRejected.increment();
+            throw new RateLimitedException("Too many transactions for user " + userId + "; retry later.", retryAfter(wait));
+        }
+        synchronized (globalBucket) {
+            wait = globalBucket.tryAcquire(now);
+        }
+        if (wait > 0) {
+            globalRejected.increment();
+            throw new RateLimitedException("Transaction rate limit exceeded; retry later.", retryAfter(wait));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${risk.rate-limit.sweep-interval-ms:60000}")
+    public void evictFullBuckets() {
+        long now = System.nanoTime();
+        for (String userId : userBuckets.keySet()) {
+            synchronized (lockFor(userId)) {
+                TokenBucket bucket = userBuckets.get(userId);
+                if (bucket != null && bucket.isFull(now)) {
+                    userBuckets.remove(userId);
+                }
+            }
+        }
+    }
+
+    private static long retryAfter(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private Object lockFor(String userId) {
+        return locks[Math.floorMod(userId.hashCode(), locks.length)];
+    }
+}
@@ -0,0 +1,93 @@
+package com.sucheth.riskwatch.service.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decides whether live evaluations run every rule or only the in-memory ones. It keeps an
+ * exponentially weighted average of full-scoring latency and switches to degraded scoring
+ * when the average exceeds the latency budget. While degraded, one evaluation per probe
+ * interval still runs every rule so the average keeps tracking the database-backed path;
+ * full scoring resumes once it has fallen below the recovery fraction of the budget and
+ * the degraded period has lasted at least the minimum hold, so a brief dip does not flap.
+ */
+@Slf4j
+@Component
+public class LoadShedder {
+
+    private static final int SMOOTHING_SHIFT = 3;
+
+    private final AtomicBoolean degraded = new AtomicBoolean();
+    private final AtomicLong averageNanos = new AtomicLong();
+    private final AtomicLong nextProbeAt = new AtomicLong();
+    private final Counter degradedEvaluations;
+    private final long budgetNanos;
+    private final long recoveryNanos;
+    private final long probeIntervalNanos;
+    private final long minDegradedNanos;
+    private volatile long degradedSince;
+
+    @Value("${risk.load-shedding.enabled:true}")
+    private boolean enabled;
+
+    public LoadShedder(MeterRegistry meterRegistry,
+                       @Value("${risk.load-shedding.latency-budget-ms:50}") long budgetMillis,
+                       @Value("${risk.load-shedding.recovery-ratio:0.5}") double recoveryRatio,
+                       @Value("${risk.load-shedding.probe-interval-ms:100}") long probeIntervalMillis,
+                       @Value("${risk.load-shedding.min-degraded-ms:5000}") long minDegradedMillis) {
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        this.recoveryNanos = (long) (budgetNanos * recoveryRatio);
+        this.probeIntervalNanos = TimeUnit.MILLISECONDS.toNanos(probeIntervalMillis);
+        this.minDegradedNanos = TimeUnit.MILLISECONDS.toNanos(minDegradedMillis);
+        this.degradedEvaluations = meterRegistry.counter("riskwatch.scoring.degraded.evaluations");
+        meterRegistry.gauge("riskwatch.scoring.degraded", degraded, flag -> flag.get() ? 1 : 0);
+        meterRegistry.gauge("riskwatch.scoring.full.latency", averageNanos, average -> average.get() / 1_000_000.0);
+    }
+
+    /**
+     * @return whether the next evaluation should run every rule
+     */
+    public boolean fullScoring() {
+        if (!enabled || !degraded.get()) {
+            return true;
+        }
+        long now = System.nanoTime();
+        long probeAt = nextProbeAt.get();
+        if (now - probeAt >= 0 && nextProbeAt.compareAndSet(probeAt, now + probeIntervalNanos)) {
+            return true;
+        }
+        degradedEvaluations.increment();
+        return false;
+    }
+
+    public void recordFullScoring(long elapsedNanos) {
+        if (!enabled) {
+            return;
+        }
+        long average;
+        long current;
+        do {
+            current = averageNanos.get();
+            average = current + ((elapsedNanos - current) >> SMOOTHING_SHIFT);
+        } while (!averageNanos.compareAndSet(current, average));
+
+        long now = System.nanoTime();
+        if (average > budgetNanos && degraded.compareAndSet(false, true)) {
+            degradedSince = now;
+            nextProbeAt.set(now + probeIntervalNanos);
+            log.warn("Full scoring averages {} ms, over the {} ms budget; skipping database-backed rules",
+                    average / 1_000_000.0, budgetNanos / 1_000_000);
+        } else if (average < recoveryNanos && now - degradedSince >= minDegradedNanos
+                && degraded.compareAndSet(true, false)) {
+            log.info("Full scoring averages {} ms again; resuming database-backed rules", average / 1_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.sucheth.riskwatch.service.alerts;
+
+record RiskAlert(String name, Object data) {
+}
@@ -0,0 +1,235 @@
+package com.sucheth.riskwatch.service.alerts;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.sucheth.riskwatch.dto.api.TransactionResponse;
+import com.sucheth.riskwatch.dto.api.UserRiskProfileResponse;
+import com.sucheth.riskwatch.exception.QueueFullException;
+import com.sucheth.riskwatch.model.Transaction;
+import com.sucheth.riskwatch.model.UserRiskProfile;
+import com.sucheth.riskwatch.util.EventRing;
+import com.sucheth.riskwatch.util.TransactionCallbacks;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pushes HIGH-risk transactions and newly flagged users to server-sent event subscribers.
+ * Events are published after commit into a fixed-size {@link EventRing}, so the evaluating
+ * thread only claims a slot and wakes the senders. Each subscriber has its own sender
+ * thread that follows the ring at its own pace, writing whatever has accumulated in one
+ * flush; one that falls a full ring behind has lost events and is disconnected. The ring
+ * should hold more than the largest batch, whose events are all published at commit.
+ * Event ids carry an instance epoch and the ring sequence, so a client reconnecting with
+ * {@code Last-Event-ID} resumes where it left off while the events are still buffered,
+ * and otherwise receives a {@code gap} event followed by everything still in the ring.
+ */
+@Slf4j
+@Component
+public class RiskAlertStream {
+
+    public static final String HIGH_RISK_TRANSACTION = "high-risk-transaction";
+    public static final String USER_FLAGGED = "user-flagged";
+    public static final String GAP = "gap";
+
+    private static final int MAX_EVENTS_PER_WRITE = 256;
+
+    private final EventRing<RiskAlert> ring;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor senders;
+    private final Counter highRiskPublished;
+    private final Counter flaggedPublished;
+    private final Counter droppedSubscribers;
+
+    @Value("${risk.alerts.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${risk.alerts.heartbeat-ms:15000}")
+    private long heartbeatMillis;
+
+    public RiskAlertStream(MeterRegistry meterRegistry,
+                           @Value("${risk.alerts.capacity:16384}") int capacity,
+                           @Value("${risk.alerts.max-subscribers:32}") int maxSubscribers) {
+        this.ring = new EventRing<>(capacity);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("risk-alerts-");
+        threadFactory.setDaemon(true);
+        this.senders = new ThreadPoolExecutor(0, maxSubscribers, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+
+        this.highRiskPublished = meterRegistry.counter("riskwatch.alerts.published", "type", HIGH_RISK_TRANSACTION);
+        this.flaggedPublished = meterRegistry.counter("riskwatch.alerts.published", "type", USER_FLAGGED);
+        this.droppedSubscribers = meterRegistry.counter("riskwatch.alerts.subscribers.dropped");
+        meterRegistry.gauge("riskwatch.alerts.subscribers", subscribers, Set::size);
+    }
+
+    public void publishHighRisk(Transaction tx) {
+        TransactionResponse response = TransactionResponse.from(tx);
+        TransactionCallbacks.afterCommit(() -> {
+            publish(new RiskAlert(HIGH_RISK_TRANSACTION, response));
+            highRiskPublished.increment();
+        });
+    }
+
+    public void publishFlagged(UserRiskProfile profile) {
+        UserRiskProfileResponse response = UserRiskProfileResponse.from(profile);
+        TransactionCallbacks.afterCommit(() -> {
+            publish(new RiskAlert(USER_FLAGGED, response));
+            flaggedPublished.increment();
+        });
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, lastEventId);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.add(subscriber);
+        try {
+            senders.execute(subscriber);
+        } catch (RejectedExecutionException ex) {
+            subscribers.remove(subscriber);
+            throw new QueueFullException("Too many alert stream subscribers; retry later.");
+        }
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private void publish(RiskAlert alert) {
+        ring.publish(alert);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.wake();
+        }
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    private long resumeSequence(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1)) + 1;
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+        private final String lastEventId;
+        private volatile boolean open = true;
+        private volatile Thread thread;
+        private long next;
+        private boolean gap;
+
+        private Subscriber(SseEmitter emitter, String lastEventId) {
+            this.emitter = emitter;
+            this.lastEventId = lastEventId;
+            this.next = ring.nextSequence();
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                long resume = resumeSequence(lastEventId);
+                if (resume >= ring.oldestSequence() && resume <= next) {
+                    next = resume;
+                } else {
+                    next = ring.oldestSequence();
+                    gap = true;
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            thread = Thread.currentThread();
+            long heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(heartbeatMillis);
+            try {
+                if (gap) {
+                    emitter.send(SseEmitter.event().name(GAP)
+                            .data(Map.of("lastEventId", lastEventId, "resumedFrom", eventId(next)), MediaType.APPLICATION_JSON));
+                }
+                long idleSince = System.nanoTime();
+                while (open) {
+                    Set<ResponseBodyEmitter.DataWithMediaType> pending = drainAvailable();
+                    if (!pending.isEmpty()) {
+                        emitter.send(pending);
+                        idleSince = System.nanoTime();
+                    } else if (ring.isOverwritten(next)) {
+                        droppedSubscribers.increment();
+                        log.info("Dropping alert stream subscriber {} events behind", ring.nextSequence() - next);
+                        emitter.complete();
+                        return;
+                    } else if (System.nanoTime() - idleSince >= heartbeatNanos) {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                        idleSince = System.nanoTime();
+                    } else {
+                        LockSupport.parkNanos(this, heartbeatNanos - (System.nanoTime() - idleSince));
+                    }
+                }
+            } catch (IOException | IllegalStateException ex) {
+                log.debug("Alert stream subscriber disconnected: {}", ex.getMessage());
+            } finally {
+                open = false;
+                subscribers.remove(this);
+            }
+        }
+
+        private Set<ResponseBodyEmitter.DataWithMediaType> drainAvailable() {
+            Set<ResponseBodyEmitter.DataWithMediaType> pending = new LinkedHashSet<>();
+            for (int i = 0; i < MAX_EVENTS_PER_WRITE; i++) {
+                RiskAlert alert = ring.get(next);
+                if (alert == null) {
+                    break;
+                }
+                pending.addAll(SseEmitter.event().id(eventId(next)).name(alert.name())
+                        .data(alert.data(), MediaType.APPLICATION_JSON).build());
+                next++;
+            }
+            return pending;
+        }
+
+        private void wake() {
+            Thread current = thread;
+            if (current != null) {
+                LockSupport.unpark(current);
+            }
+        }
+
+        private void close() {
+            open = false;
+            subscribers.remove(this);
+            wake();
+        }
+    }
+}
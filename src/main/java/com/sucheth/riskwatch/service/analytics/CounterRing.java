@@ -0,0 +1,116 @@
+package com.sucheth.riskwatch.service.analytics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed number of consecutive time buckets, each a row of {@link LongAdder} counters.
+ * A slot is claimed for a newer bucket with a compare-and-set that swaps in a fresh row,
+ * so writers never lock and never clear counters another writer may still be adding to;
+ * an event for a bucket that has already rotated out is dropped.
+ */
+final class CounterRing {
+
+    private final AtomicReferenceArray<Bucket> slots;
+    private final long bucketSeconds;
+    private final int width;
+
+    CounterRing(int buckets, long bucketSeconds, int width) {
+        this.slots = new AtomicReferenceArray<>(buckets);
+        this.bucketSeconds = bucketSeconds;
+        this.width = width;
+    }
+
+    long bucketSeconds() {
+        return bucketSeconds;
+    }
+
+    int size() {
+        return slots.length();
+    }
+
+    long bucketOf(long epochSecond) {
+        return Math.floorDiv(epochSecond, bucketSeconds);
+    }
+
+    /**
+     * @return the bucket, created if needed, or null if it is older than the ring holds
+     */
+    Bucket claim(long index) {
+        int slot = (int) Math.floorMod(index, (long) slots.length());
+        while (true) {
+            Bucket current = slots.get(slot);
+            if (current != null && current.index == index) {
+                return current;
+            }
+            if (current != null && current.index > index) {
+                return null;
+            }
+            Bucket fresh = new Bucket(index, width);
+            if (slots.compareAndSet(slot, current, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    /**
+     * @return the bucket if the ring currently holds it, without creating it
+     */
+    Bucket peek(long index) {
+        Bucket current = slots.get((int) Math.floorMod(index, (long) slots.length()));
+        return current != null && current.index == index ? current : null;
+    }
+
+    static final class Bucket {
+
+        private final long index;
+        private final LongAdder[] counters;
+        private final long[] persisted;
+
+        private Bucket(long index, int width) {
+            this.index = index;
+            this.counters = new LongAdder[width];
+            for (int i = 0; i < width; i++) {
+                counters[i] = new LongAdder();
+            }
+            this.persisted = new long[width];
+        }
+
+        long index() {
+            return index;
+        }
+
+        void increment(int counter) {
+            counters[counter].increment();
+        }
+
+        void addPersisted(int counter, long value) {
+            counters[counter].add(value);
+            persisted[counter] += value;
+        }
+
+        long[] sums() {
+            long[] sums = new long[counters.length];
+            for (int i = 0; i < sums.length; i++) {
+                sums[i] = counters[i].sum();
+            }
+            return sums;
+        }
+
+        /**
+         * @return counts added since the last {@link #markPersisted(long[])}; only the
+         * flushing thread calls this
+         */
+        long[] unpersisted(long[] sums) {
+            long[] deltas = new long[sums.length];
+            for (int i = 0; i < sums.length; i++) {
+                deltas[i] = sums[i] - persisted[i];
+            }
+            return deltas;
+        }
+
+        void markPersisted(long[] sums) {
+            System.arraycopy(sums, 0, persisted, 0, sums.length);
+        }
+    }
+}
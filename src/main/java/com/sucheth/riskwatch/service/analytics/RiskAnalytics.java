@@ -0,0 +1,319 @@
+package com.sucheth.riskwatch.service.analytics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sucheth.riskwatch.dto.api.RiskAnalyticsPoint;
+import com.sucheth.riskwatch.dto.api.RiskAnalyticsResponse;
+import com.sucheth.riskwatch.dto.internal.RiskEvaluationResult;
+import com.sucheth.riskwatch.model.RiskAnalyticsCount;
+import com.sucheth.riskwatch.model.enums.ReasonCode;
+import com.sucheth.riskwatch.model.enums.RiskLevel;
+import com.sucheth.riskwatch.repository.RiskAnalyticsCountRepository;
+import com.sucheth.riskwatch.util.TransactionCallbacks;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Risk-level counts, score histograms and reason frequencies over rolling windows, kept
+ * as pre-aggregated counters so queries never touch the transaction table. Every
+ * evaluation increments one row of counters in a per-minute ring covering the last day
+ * and in a per-hour ring covering the retention period. Minute buckets live in memory
+ * only; hour buckets are loaded at startup and their increments since the last flush are
+ * added to the stored tallies periodically. Evaluations are counted when their
+ * transaction commits.
+ */
+@Slf4j
+@Component
+public class RiskAnalytics {
+
+    private static final long MINUTE = 60;
+    private static final long HOUR = 3600;
+    private static final int MINUTE_BUCKETS = 24 * 60;
+    private static final Duration MINUTE_STEP_LIMIT = Duration.ofHours(3);
+
+    private static final RiskLevel[] LEVELS = RiskLevel.values();
+    private static final ReasonCode[] REASONS = ReasonCode.values();
+    private static final int SCORE_BINS = 10;
+
+    private static final int TOTAL = 0;
+    private static final int LEVEL_OFFSET = 1;
+    private static final int SCORE_OFFSET = LEVEL_OFFSET + LEVELS.length;
+    private static final int REASON_OFFSET = SCORE_OFFSET + SCORE_BINS;
+    private static final int WIDTH = REASON_OFFSET + REASONS.length;
+
+    private static final String[] METRICS = new String[WIDTH];
+    private static final String[] SCORE_LABELS = new String[SCORE_BINS];
+    private static final Map<String, Integer> METRIC_INDEX = new HashMap<>();
+
+    static {
+        METRICS[TOTAL] = "total";
+        for (RiskLevel level : LEVELS) {
+            METRICS[LEVEL_OFFSET + level.ordinal()] = "level:" + level.name();
+        }
+        for (int bin = 0; bin < SCORE_BINS; bin++) {
+            METRICS[SCORE_OFFSET + bin] = "score:" + bin;
+            SCORE_LABELS[bin] = bin / 10.0 + "-" + (bin + 1) / 10.0;
+        }
+        for (ReasonCode reason : REASONS) {
+            METRICS[REASON_OFFSET + reason.ordinal()] = "reason:" + reason.name();
+        }
+        for (int i = 0; i < WIDTH; i++) {
+            METRIC_INDEX.put(METRICS[i], i);
+        }
+    }
+
+    private final CounterRing minutes;
+    private final CounterRing hours;
+    private final RiskAnalyticsCountRepository repository;
+    private final TransactionTemplate transactionTemplate;
+
+    public RiskAnalytics(RiskAnalyticsCountRepository repository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${risk.analytics.retention-days:30}") int retentionDays) {
+        if (retentionDays < 1) {
+            throw new IllegalArgumentException("risk.analytics.retention-days must be at least 1");
+        }
+        this.minutes = new CounterRing(MINUTE_BUCKETS, MINUTE, WIDTH);
+        this.hours = new CounterRing(retentionDays * 24, HOUR, WIDTH);
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Counts the evaluation once the surrounding transaction commits, so evaluations whose
+     * transaction rolls back, such as a duplicate insert or a failed batch, are not counted.
+     */
+    public void record(RiskEvaluationResult result) {
+        TransactionCallbacks.afterCommit(() -> {
+            long now = System.currentTimeMillis() / 1000;
+            increment(minutes.claim(minutes.bucketOf(now)), result);
+            increment(hours.claim(hours.bucketOf(now)), result);
+        });
+    }
+
+    /**
+     * Counts over the {@code window} ending now, with a series of points {@code step}
+     * apart. Steps under an hour read the minute buckets and so reach back one day;
+     * whole-hour steps read the hour buckets. Without a step, windows up to three hours
+     * are broken down by minute and longer ones by hour.
+     */
+    public RiskAnalyticsResponse query(Duration window, Duration step) {
+        Range range = range(window, step);
+        return build(range, index -> {
+            CounterRing.Bucket bucket = range.ring().peek(index);
+            return bucket != null ? bucket.sums() : null;
+        });
+    }
+
+    /**
+     * Like {@link #query} but counting only what the shared tallies do not hold yet: this
+     * instance's hour increments since the last flush, or its minute buckets, which are
+     * never stored. In sharded mode the tallies of {@link #queryStored} plus every
+     * member's unflushed counts make up the whole cluster.
+     */
+    public synchronized RiskAnalyticsResponse queryUnflushed(Duration window, Duration step) {
+        Range range = range(window, step);
+        return build(range, index -> {
+            CounterRing.Bucket bucket = range.ring().peek(index);
+            if (bucket == null) {
+                return null;
+            }
+            long[] sums = bucket.sums();
+            return range.ring() == hours ? bucket.unpersisted(sums) : sums;
+        });
+    }
+
+    /**
+     * Like {@link #query} but reading the tallies every instance has flushed, so empty
+     * for steps under an hour.
+     */
+    public RiskAnalyticsResponse queryStored(Duration window, Duration step) {
+        Range range = range(window, step);
+        Map<Long, long[]> stored = new HashMap<>();
+        if (range.ring() == hours) {
+            List<RiskAnalyticsCount> counts = transactionTemplate.execute(status ->
+                    repository.findByBucketStartGreaterThanEqual(Instant.ofEpochSecond(range.first() * HOUR)));
+            for (RiskAnalyticsCount count : counts) {
+                Integer metric = METRIC_INDEX.get(count.getMetric());
+                if (metric != null) {
+                    long index = hours.bucketOf(count.getBucketStart().getEpochSecond());
+                    stored.computeIfAbsent(index, key -> new long[WIDTH])[metric] += count.getTally();
+                }
+            }
+        }
+        return build(range, stored::get);
+    }
+
+    private Range range(Duration window, Duration step) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("window must be positive");
+        }
+        if (step == null) {
+            step = window.compareTo(MINUTE_STEP_LIMIT) <= 0 ? Duration.ofMinutes(1) : Duration.ofHours(1);
+        }
+        long stepSeconds = step.getSeconds();
+        if (step.getNano() != 0 || stepSeconds < MINUTE || stepSeconds % MINUTE != 0) {
+            throw new IllegalArgumentException("step must be a positive whole number of minutes");
+        }
+        if (window.getNano() != 0 || window.getSeconds() % stepSeconds != 0) {
+            throw new IllegalArgumentException("window must be a whole number of steps");
+        }
+        CounterRing ring = stepSeconds % HOUR == 0 ? hours : minutes;
+        long buckets = window.getSeconds() / ring.bucketSeconds();
+        if (buckets > ring.size()) {
+            throw new IllegalArgumentException(ring == minutes
+                    ? "window cannot exceed " + Duration.ofSeconds(ring.size() * MINUTE).toHours()
+                            + " hours unless step is a whole number of hours"
+                    : "window cannot exceed " + ring.size() / 24 + " days");
+        }
+        Instant now = Instant.now();
+        long first = ring.bucketOf(now.getEpochSecond()) - buckets + 1;
+        return new Range(ring, first, buckets, (int) (stepSeconds / ring.bucketSeconds()), now);
+    }
+
+    /**
+     * @param sumsAt the counters of one bucket by index, or {@code null} for none
+     */
+    private static RiskAnalyticsResponse build(Range range, LongFunction<long[]> sumsAt) {
+        CounterRing ring = range.ring();
+        long first = range.first();
+        int bucketsPerStep = range.bucketsPerStep();
+        long[] totals = new long[WIDTH];
+        List<RiskAnalyticsPoint> series = new ArrayList<>((int) (range.buckets() / bucketsPerStep));
+        for (long start = first; start < first + range.buckets(); start += bucketsPerStep) {
+            long[] point = new long[WIDTH];
+            for (long index = start; index < start + bucketsPerStep; index++) {
+                long[] sums = sumsAt.apply(index);
+                if (sums != null) {
+                    for (int i = 0; i < WIDTH; i++) {
+                        point[i] += sums[i];
+                    }
+                }
+            }
+            for (int i = 0; i < WIDTH; i++) {
+                totals[i] += point[i];
+            }
+            series.add(RiskAnalyticsPoint.builder()
+                    .start(Instant.ofEpochSecond(start * ring.bucketSeconds()))
+                    .transactions(point[TOTAL])
+                    .riskLevels(levels(point))
+                    .build());
+        }
+
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int bin = 0; bin < SCORE_BINS; bin++) {
+            histogram.put(SCORE_LABELS[bin], totals[SCORE_OFFSET + bin]);
+        }
+        Map<ReasonCode, Long> reasons = new EnumMap<>(ReasonCode.class);
+        for (ReasonCode reason : REASONS) {
+            reasons.put(reason, totals[REASON_OFFSET + reason.ordinal()]);
+        }
+        return RiskAnalyticsResponse.builder()
+                .from(Instant.ofEpochSecond(first * ring.bucketSeconds()))
+                .to(range.now())
+                .stepSeconds(bucketsPerStep * ring.bucketSeconds())
+                .transactions(totals[TOTAL])
+                .riskLevels(levels(totals))
+                .scoreHistogram(histogram)
+                .reasons(reasons)
+                .series(series)
+                .build();
+    }
+
+    @PostConstruct
+    public void load() {
+        long first = hours.bucketOf(System.currentTimeMillis() / 1000) - hours.size() + 1;
+        List<RiskAnalyticsCount> stored = transactionTemplate.execute(status ->
+                repository.findByBucketStartGreaterThanEqual(Instant.ofEpochSecond(first * HOUR)));
+        for (RiskAnalyticsCount count : stored) {
+            Integer metric = METRIC_INDEX.get(count.getMetric());
+            CounterRing.Bucket bucket = hours.claim(hours.bucketOf(count.getBucketStart().getEpochSecond()));
+            if (metric != null && bucket != null) {
+                bucket.addPersisted(metric, count.getTally());
+            }
+        }
+        log.info("Loaded {} stored risk analytics counters", stored.size());
+    }
+
+    @Scheduled(fixedDelayString = "${risk.analytics.flush-interval-ms:60000}",
+            initialDelayString = "${risk.analytics.flush-interval-ms:60000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    @PreDestroy
+    public synchronized void flush() {
+        long current = hours.bucketOf(System.currentTimeMillis() / 1000);
+        long first = current - hours.size() + 1;
+        List<RiskAnalyticsCount> increments = new ArrayList<>();
+        Map<CounterRing.Bucket, long[]> flushed = new HashMap<>();
+        for (long index = first; index <= current; index++) {
+            CounterRing.Bucket bucket = hours.peek(index);
+            if (bucket == null) {
+                continue;
+            }
+            long[] sums = bucket.sums();
+            long[] deltas = bucket.unpersisted(sums);
+            Instant bucketStart = Instant.ofEpochSecond(index * HOUR);
+            for (int i = 0; i < WIDTH; i++) {
+                if (deltas[i] != 0) {
+                    increments.add(new RiskAnalyticsCount(bucketStart, METRICS[i], deltas[i]));
+                }
+            }
+            flushed.put(bucket, sums);
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                repository.addTallies(increments);
+                repository.deleteBucketsBefore(Instant.ofEpochSecond(first * HOUR));
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Failed to flush {} risk analytics counters, retrying next run: {}", increments.size(), ex.getMessage());
+            return;
+        }
+        flushed.forEach(CounterRing.Bucket::markPersisted);
+    }
+
+    private static void increment(CounterRing.Bucket bucket, RiskEvaluationResult result) {
+        if (bucket == null) {
+            return;
+        }
+        bucket.increment(TOTAL);
+        bucket.increment(LEVEL_OFFSET + result.getLevel().ordinal());
+        int bin = (int) (result.getScore() * SCORE_BINS);
+        bucket.increment(SCORE_OFFSET + Math.max(0, Math.min(SCORE_BINS - 1, bin)));
+        long reasonCodes = result.getReasonCodes();
+        for (ReasonCode reason : REASONS) {
+            if ((reasonCodes & reason.mask()) != 0) {
+                bucket.increment(REASON_OFFSET + reason.ordinal());
+            }
+        }
+    }
+
+    private static Map<RiskLevel, Long> levels(long[] counts) {
+        Map<RiskLevel, Long> levels = new EnumMap<>(RiskLevel.class);
+        for (RiskLevel level : LEVELS) {
+            levels.put(level, counts[LEVEL_OFFSET + level.ordinal()]);
+        }
+        return levels;
+    }
+
+    private record Range(CounterRing ring, long first, long buckets, int bucketsPerStep, Instant now) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.sucheth.riskwatch.service.importer;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs a bulk import on startup when {@code risk.import.paths} is set, then exits unless
+ * {@code risk.import.exit-when-done} is false, e.g.
+ * {@code java -jar riskwatch.jar --spring.main.web-application-type=none --risk.import.paths=history.csv}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "risk.import", name = "paths")
+@RequiredArgsConstructor
+public class BulkImportRunner implements ApplicationRunner {
+
+    private final BulkImportService bulkImportService;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${risk.import.paths}")
+    private List<String> paths;
+
+    @Value("${risk.import.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = 0;
+        try {
+            List<Path> files = paths.stream().map(String::trim).map(Path::of).toList();
+            BulkImportService.ImportSummary summary = bulkImportService.importFiles(files);
+            exitCode = summary.rejected() > 0 ? 2 : 0;
+        } catch (RuntimeException ex) {
+            log.error("Bulk import of {} failed", paths, ex);
+            exitCode = 1;
+        }
+        if (exitWhenDone) {
+            int code = exitCode;
+            System.exit(SpringApplication.exit(context, () -> code));
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.sucheth.riskwatch.service.importer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sucheth.riskwatch.service.DeviceIndex;
+import com.sucheth.riskwatch.service.ProfileRebuilder;
+import com.sucheth.riskwatch.service.TransactionIdIndex;
+import com.sucheth.riskwatch.service.VelocityIndex;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads historical transactions from CSV or NDJSON files. Each file is read through
+ * memory mappings, parsed into a reusable batch of records and written in chunks of
+ * {@code risk.import.batch-size} rows, one database transaction per chunk. Rows that fail
+ * to parse or validate are counted and skipped, and rows whose transactionId already
+ * exists are left untouched. Once every file is loaded the user risk profiles are rebuilt
+ * in one pass and the in-memory velocity and device indexes are refreshed, instead of
+ * updating a profile per row.
+ */
+@Slf4j
+@Service
+public class BulkImportService {
+
+    private static final int MAX_LOGGED_REJECTS = 20;
+    private static final int STRING_CACHE_SIZE = 1 << 14;
+
+    private final TransactionBulkWriter writer;
+    private final ProfileRebuilder profileRebuilder;
+    private final TransactionIdIndex transactionIdIndex;
+    private final VelocityIndex velocityIndex;
+    private final DeviceIndex deviceIndex;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${risk.import.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${risk.import.map-window-mb:256}")
+    private int mapWindowMegabytes;
+
+    @Value("${risk.import.progress-interval-ms:5000}")
+    private long progressIntervalMillis;
+
+    public BulkImportService(TransactionBulkWriter writer,
+                             ProfileRebuilder profileRebuilder,
+                             TransactionIdIndex transactionIdIndex,
+                             VelocityIndex velocityIndex,
+                             DeviceIndex deviceIndex,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager) {
+        this.writer = writer;
+        this.profileRebuilder = profileRebuilder;
+        this.transactionIdIndex = transactionIdIndex;
+        this.velocityIndex = velocityIndex;
+        this.deviceIndex = deviceIndex;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public synchronized ImportSummary importFiles(List<Path> paths) {
+        long started = System.nanoTime();
+        ImportSummary total = ImportSummary.EMPTY;
+        for (Path path : paths) {
+            total = total.plus(importFile(path));
+        }
+        if (total.inserted() > 0) {
+            profileRebuilder.rebuildAll();
+            velocityIndex.clear();
+            deviceIndex.rebuild();
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        log.info("Bulk import finished: {} rows read, {} inserted, {} already present, {} rejected in {} ms",
+                total.read(), total.inserted(), total.duplicates(), total.rejected(), elapsedMillis);
+        return total;
+    }
+
+    private ImportSummary importFile(Path path) {
+        MappedLineReader reader = new MappedLineReader(mapWindowMegabytes * 1024 * 1024);
+        FileImport file = new FileImport(path, parserFor(path), reader);
+        try {
+            file.size = Files.size(path);
+            log.info("Importing {} ({} MB)", path, file.size / (1024 * 1024));
+            reader.read(path, file::line);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read " + path, ex);
+        }
+        file.flush();
+        file.report();
+        return file.summary();
+    }
+
+    private RecordParser parserFor(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        StringCache strings = new StringCache(STRING_CACHE_SIZE);
+        if (name.endsWith(".csv")) {
+            return new CsvRecordParser(strings);
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json")) {
+            return new NdjsonRecordParser(objectMapper.getFactory(), strings);
+        }
+        throw new IllegalArgumentException("Unsupported import file type (expected .csv, .ndjson or .jsonl): " + path);
+    }
+
+    public record ImportSummary(long read, long inserted, long rejected) {
+
+        static final ImportSummary EMPTY = new ImportSummary(0, 0, 0);
+
+        public long duplicates() {
+            return read - rejected - inserted;
+        }
+
+        ImportSummary plus(ImportSummary other) {
+            return new ImportSummary(read + other.read, inserted + other.inserted, rejected + other.rejected);
+        }
+    }
+
+    private final class FileImport {
+
+        private final Path path;
+        private final RecordParser parser;
+        private final MappedLineReader reader;
+        private final ImportRecord[] records = new ImportRecord[batchSize];
+        private final long started = System.nanoTime();
+        private int pending;
+        private long read;
+        private long inserted;
+        private long rejected;
+        private long lastProgress = started;
+        private long size;
+
+        private FileImport(Path path, RecordParser parser, MappedLineReader reader) {
+            this.path = path;
+            this.parser = parser;
+            this.reader = reader;
+            for (int i = 0; i < records.length; i++) {
+                records[i] = new ImportRecord();
+            }
+        }
+
+        private void line(ByteBuffer buffer, int from, int to, long lineNumber) {
+            ImportRecord record = records[pending];
+            record.reset();
+            String error;
+            try {
+                if (!parser.parse(buffer, from, to, record)) {
+                    return;
+                }
+                error = record.validate();
+            } catch (IllegalArgumentException | ArithmeticException ex) {
+                error = ex.getMessage();
+            }
+            read++;
+            if (error != null) {
+                if (++rejected <= MAX_LOGGED_REJECTS) {
+                    log.warn("Skipping {} line {}: {}", path.getFileName(), lineNumber, error);
+                }
+                return;
+            }
+            if (++pending == records.length) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (pending == 0) {
+                return;
+            }
+            int count = pending;
+            Integer written = transactionTemplate.execute(status -> writer.write(records, count));
+            inserted += written != null ? written : 0;
+            for (int i = 0; i < count; i++) {
+                transactionIdIndex.registerId(records[i].transactionId);
+            }
+            pending = 0;
+            progress();
+        }
+
+        private void progress() {
+            long now = System.nanoTime();
+            if ((now - lastProgress) / 1_000_000 >= progressIntervalMillis) {
+                lastProgress = now;
+                log.info("Importing {}: {} rows ({}%), {} rows/s", path.getFileName(), read,
+                        size == 0 ? 100 : reader.consumed() * 100 / size, rowsPerSecond(now));
+            }
+        }
+
+        private void report() {
+            log.info("Imported {}: {} rows read, {} inserted, {} already present, {} rejected, {} rows/s",
+                    path.getFileName(), read, inserted, read - rejected - inserted, rejected,
+                    rowsPerSecond(System.nanoTime()));
+        }
+
+        private long rowsPerSecond(long now) {
+            long elapsedNanos = Math.max(1, now - started);
+            return read * 1_000_000_000L / elapsedNanos;
+        }
+
+        private ImportSummary summary() {
+            return new ImportSummary(read, inserted, rejected);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.sucheth.riskwatch.service.importer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+import com.sucheth.riskwatch.model.enums.RiskLevel;
+
+/**
+ * Parses numeric and timestamp fields straight from the mapped bytes. The common shapes
+ * (plain decimals, epoch millis, {@code yyyy-MM-ddTHH:mm:ss[.fraction](Z|+hh:mm)}) are
+ * handled without creating a String; anything else falls back to the JDK parsers.
+ */
+final class ByteFields {
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private ByteFields() {
+    }
+
+    static long parseLong(ByteBuffer buffer, int from, int to) {
+        if (from >= to) {
+            throw new IllegalArgumentException("empty number");
+        }
+        boolean negative = buffer.get(from) == '-';
+        int i = negative || buffer.get(from) == '+' ? from + 1 : from;
+        if (i >= to || to - i > 18) {
+            return Long.parseLong(text(buffer, from, to));
+        }
+        long value = 0;
+        for (; i < to; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("not a number: " + text(buffer, from, to));
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    static double parseDouble(ByteBuffer buffer, int from, int to) {
+        if (from >= to) {
+            throw new IllegalArgumentException("empty number");
+        }
+        boolean negative = buffer.get(from) == '-';
+        int i = negative || buffer.get(from) == '+' ? from + 1 : from;
+        long mantissa = 0;
+        int scale = -1;
+        int digits = 0;
+        for (; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b == '.' && scale < 0) {
+                scale = 0;
+            } else if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+                if (mantissa >= MAX_EXACT_MANTISSA) {
+                    return slowDouble(buffer, from, to);
+                }
+            } else {
+                return slowDouble(buffer, from, to);
+            }
+        }
+        if (digits == 0 || scale >= POWERS_OF_TEN.length) {
+            return slowDouble(buffer, from, to);
+        }
+        double value = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * @return microseconds since the epoch; an all-digit value is read as epoch millis
+     */
+    static long parseEpochMicros(ByteBuffer buffer, int from, int to) {
+        if (from < to && isDigits(buffer, from, to)) {
+            return Math.multiplyExact(parseLong(buffer, from, to), 1_000L);
+        }
+        long micros = parseIsoInstant(buffer, from, to);
+        if (micros != ImportRecord.NO_TIMESTAMP) {
+            return micros;
+        }
+        try {
+            Instant instant = Instant.parse(text(buffer, from, to));
+            return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000L);
+        } catch (DateTimeParseException | ArithmeticException ex) {
+            throw new IllegalArgumentException("unparseable timestamp: " + text(buffer, from, to));
+        }
+    }
+
+    static RiskLevel parseRiskLevel(ByteBuffer buffer, int from, int to) {
+        for (RiskLevel level : RiskLevel.values()) {
+            String name = level.name();
+            if (name.length() == to - from && equalsIgnoreCase(name, buffer, from)) {
+                return level;
+            }
+        }
+        throw new IllegalArgumentException("unknown risk level: " + text(buffer, from, to));
+    }
+
+    static String text(ByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes, 0, bytes.length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long parseIsoInstant(ByteBuffer buffer, int from, int to) {
+        if (to - from < 20 || buffer.get(from + 4) != '-' || buffer.get(from + 7) != '-'
+                || (buffer.get(from + 10) != 'T' && buffer.get(from + 10) != ' ')
+                || buffer.get(from + 13) != ':' || buffer.get(from + 16) != ':') {
+            return ImportRecord.NO_TIMESTAMP;
+        }
+        int year = digits(buffer, from, 4);
+        int month = digits(buffer, from + 5, 2);
+        int day = digits(buffer, from + 8, 2);
+        int hour = digits(buffer, from + 11, 2);
+        int minute = digits(buffer, from + 14, 2);
+        int second = digits(buffer, from + 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return ImportRecord.NO_TIMESTAMP;
+        }
+
+        int i = from + 19;
+        long micros = 0;
+        if (i < to && buffer.get(i) == '.') {
+            int fractionDigits = 0;
+            for (i++; i < to && buffer.get(i) >= '0' && buffer.get(i) <= '9'; i++, fractionDigits++) {
+                if (fractionDigits < 6) {
+                    micros = micros * 10 + (buffer.get(i) - '0');
+                }
+            }
+            if (fractionDigits == 0) {
+                return ImportRecord.NO_TIMESTAMP;
+            }
+            for (int pad = fractionDigits; pad < 6; pad++) {
+                micros *= 10;
+            }
+        }
+
+        int offsetSeconds;
+        if (i == to - 1 && buffer.get(i) == 'Z') {
+            offsetSeconds = 0;
+        } else if (i == to - 6 && (buffer.get(i) == '+' || buffer.get(i) == '-') && buffer.get(i + 3) == ':') {
+            int offsetHours = digits(buffer, i + 1, 2);
+            int offsetMinutes = digits(buffer, i + 4, 2);
+            if (offsetHours < 0 || offsetHours > 18 || offsetMinutes < 0 || offsetMinutes > 59) {
+                return ImportRecord.NO_TIMESTAMP;
+            }
+            offsetSeconds = (offsetHours * 3_600 + offsetMinutes * 60) * (buffer.get(i) == '-' ? -1 : 1);
+        } else {
+            return ImportRecord.NO_TIMESTAMP;
+        }
+
+        long epochSecond = daysFromCivil(year, month, day) * 86_400L + hour * 3_600L + minute * 60L + second
+                - offsetSeconds;
+        return epochSecond * 1_000_000L + micros;
+    }
+
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468L;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static int digits(ByteBuffer buffer, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static boolean isDigits(ByteBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equalsIgnoreCase(String name, ByteBuffer buffer, int from) {
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != Character.toUpperCase((char) buffer.get(from + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double slowDouble(ByteBuffer buffer, int from, int to) {
+        try {
+            return Double.parseDouble(text(buffer, from, to));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("not a number: " + text(buffer, from, to));
+        }
+    }
+}
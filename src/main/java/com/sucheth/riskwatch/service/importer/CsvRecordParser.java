@@ -0,0 +1,166 @@
+package com.sucheth.riskwatch.service.importer;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Comma-separated rows with a header line naming the columns. Column names are matched
+ * case-insensitively with underscores ignored, so both {@code transactionId} and
+ * {@code transaction_id} are accepted; unknown columns are skipped. Fields may be quoted
+ * with {@code "} and a doubled quote inside a quoted field stands for one quote.
+ */
+final class CsvRecordParser implements RecordParser {
+
+    private enum Column {
+        TRANSACTION_ID, USER_ID, AMOUNT, TIMESTAMP, DEVICE_ID, LOCATION, RISK_SCORE, RISK_LEVEL, REASON_CODES;
+
+        private final String key = name().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static final Column[] REQUIRED = {Column.TRANSACTION_ID, Column.USER_ID, Column.AMOUNT, Column.TIMESTAMP};
+
+    private final StringCache strings;
+    private int[] positions;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private boolean[] escaped = new boolean[16];
+    private int fieldCount;
+
+    CsvRecordParser(StringCache strings) {
+        this.strings = strings;
+    }
+
+    @Override
+    public boolean parse(ByteBuffer buffer, int from, int to, ImportRecord record) {
+        if (positions == null && from + 3 <= to && (buffer.get(from) & 0xFF) == 0xEF
+                && (buffer.get(from + 1) & 0xFF) == 0xBB && (buffer.get(from + 2) & 0xFF) == 0xBF) {
+            from += 3;
+        }
+        if (from >= to) {
+            return false;
+        }
+        split(buffer, from, to);
+        if (positions == null) {
+            readHeader(buffer);
+            return false;
+        }
+
+        record.transactionId = string(buffer, Column.TRANSACTION_ID, false);
+        record.userId = string(buffer, Column.USER_ID, true);
+        record.deviceId = string(buffer, Column.DEVICE_ID, true);
+        record.location = string(buffer, Column.LOCATION, true);
+        int field = field(Column.AMOUNT);
+        if (field >= 0) {
+            record.amount = ByteFields.parseDouble(buffer, starts[field], ends[field]);
+        }
+        field = field(Column.TIMESTAMP);
+        if (field >= 0) {
+            record.epochMicros = ByteFields.parseEpochMicros(buffer, starts[field], ends[field]);
+        }
+        field = field(Column.RISK_SCORE);
+        if (field >= 0) {
+            record.riskScore = ByteFields.parseDouble(buffer, starts[field], ends[field]);
+        }
+        field = field(Column.RISK_LEVEL);
+        if (field >= 0) {
+            record.riskLevel = ByteFields.parseRiskLevel(buffer, starts[field], ends[field]);
+        }
+        field = field(Column.REASON_CODES);
+        if (field >= 0) {
+            record.reasonCodes = ByteFields.parseLong(buffer, starts[field], ends[field]);
+        }
+        return true;
+    }
+
+    private void readHeader(ByteBuffer buffer) {
+        int[] found = new int[Column.values().length];
+        Arrays.fill(found, -1);
+        for (int f = 0; f < fieldCount; f++) {
+            String name = ByteFields.text(buffer, starts[f], ends[f]).trim().replace("_", "").toLowerCase(Locale.ROOT);
+            for (Column column : Column.values()) {
+                if (column.key.equals(name) && found[column.ordinal()] < 0) {
+                    found[column.ordinal()] = f;
+                }
+            }
+        }
+        for (Column required : REQUIRED) {
+            if (found[required.ordinal()] < 0) {
+                throw new IllegalStateException("CSV header is missing required column " + required.key);
+            }
+        }
+        positions = found;
+    }
+
+    /**
+     * @return the field index holding a non-empty value for the column, or -1
+     */
+    private int field(Column column) {
+        int position = positions[column.ordinal()];
+        if (position < 0 || position >= fieldCount || starts[position] == ends[position]) {
+            return -1;
+        }
+        return position;
+    }
+
+    private String string(ByteBuffer buffer, Column column, boolean cached) {
+        int field = field(column);
+        if (field < 0) {
+            return null;
+        }
+        if (escaped[field]) {
+            return ByteFields.text(buffer, starts[field], ends[field]).replace("\"\"", "\"");
+        }
+        return cached ? strings.get(buffer, starts[field], ends[field]) : ByteFields.text(buffer, starts[field], ends[field]);
+    }
+
+    private void split(ByteBuffer buffer, int from, int to) {
+        fieldCount = 0;
+        int i = from;
+        while (true) {
+            if (fieldCount == starts.length) {
+                starts = Arrays.copyOf(starts, fieldCount * 2);
+                ends = Arrays.copyOf(ends, fieldCount * 2);
+                escaped = Arrays.copyOf(escaped, fieldCount * 2);
+            }
+            boolean hasEscapes = false;
+            int start;
+            int end;
+            if (i < to && buffer.get(i) == '"') {
+                start = ++i;
+                while (true) {
+                    if (i >= to) {
+                        throw new IllegalArgumentException("unterminated quoted field");
+                    }
+                    if (buffer.get(i) == '"') {
+                        if (i + 1 < to && buffer.get(i + 1) == '"') {
+                            hasEscapes = true;
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                end = i++;
+                if (i < to && buffer.get(i) != ',') {
+                    throw new IllegalArgumentException("unexpected character after quoted field");
+                }
+            } else {
+                start = i;
+                while (i < to && buffer.get(i) != ',') {
+                    i++;
+                }
+                end = i;
+            }
+            starts[fieldCount] = start;
+            ends[fieldCount] = end;
+            escaped[fieldCount] = hasEscapes;
+            fieldCount++;
+            if (i >= to) {
+                return;
+            }
+            i++;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.sucheth.riskwatch.service.importer;
+
+import java.time.Instant;
+
+import com.sucheth.riskwatch.model.enums.RiskLevel;
+import com.sucheth.riskwatch.util.RiskScoringUtils;
+
+/**
+ * Mutable holder for one parsed row. A batch of these is allocated once per import and
+ * refilled for every chunk, so parsing does not create an object per row beyond the
+ * strings the row needs.
+ */
+final class ImportRecord {
+
+    static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    long id;
+    String transactionId;
+    String userId;
+    double amount = Double.NaN;
+    long epochMicros = NO_TIMESTAMP;
+    String deviceId;
+    String location;
+    double riskScore;
+    RiskLevel riskLevel;
+    long reasonCodes;
+
+    void reset() {
+        id = 0L;
+        transactionId = null;
+        userId = null;
+        amount = Double.NaN;
+        epochMicros = NO_TIMESTAMP;
+        deviceId = null;
+        location = null;
+        riskScore = 0.0;
+        riskLevel = null;
+        reasonCodes = 0L;
+    }
+
+    String validate() {
+        if (transactionId == null || transactionId.isBlank()) {
+            return "missing transactionId";
+        }
+        if (userId == null || userId.isBlank()) {
+            return "missing userId";
+        }
+        if (!(amount > 0)) {
+            return "amount must be positive";
+        }
+        if (epochMicros == NO_TIMESTAMP) {
+            return "missing timestamp";
+        }
+        if (riskLevel == null) {
+            riskLevel = RiskScoringUtils.computeRiskLevel(riskScore);
+        }
+        return null;
+    }
+
+    Instant timestamp() {
+        return Instant.ofEpochSecond(Math.floorDiv(epochMicros, 1_000_000L), Math.floorMod(epochMicros, 1_000_000L) * 1_000L);
+    }
+}
@@ -0,0 +1,83 @@
+package com.sucheth.riskwatch.service.importer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Walks a file line by line through read-only memory mappings. The file is mapped in
+ * windows of at most {@code windowBytes}, each cut back to the last newline it contains
+ * so no line straddles two windows; lines are handed to the callback as byte ranges of
+ * the mapping, with any trailing carriage return removed.
+ */
+final class MappedLineReader {
+
+    interface LineHandler {
+
+        void line(ByteBuffer buffer, int from, int to, long lineNumber);
+    }
+
+    private final int windowBytes;
+    private long consumed;
+
+    MappedLineReader(int windowBytes) {
+        this.windowBytes = windowBytes;
+    }
+
+    /**
+     * @return bytes of the file handed to the callback so far
+     */
+    long consumed() {
+        return consumed;
+    }
+
+    void read(Path path, LineHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            long lineNumber = 0;
+            while (position < size) {
+                int length = (int) Math.min(windowBytes, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int end = length;
+                if (position + length < size) {
+                    end = lastNewline(window, length) + 1;
+                    if (end == 0) {
+                        throw new IOException("Line starting near byte " + position + " of " + path
+                                + " is longer than the " + windowBytes + " byte mapping window");
+                    }
+                }
+
+                int start = 0;
+                for (int i = 0; i < end; i++) {
+                    if (window.get(i) == '\n') {
+                        consumed = position + i + 1;
+                        handler.line(window, start, trimCarriageReturn(window, start, i), ++lineNumber);
+                        start = i + 1;
+                    }
+                }
+                if (start < end) {
+                    consumed = position + end;
+                    handler.line(window, start, trimCarriageReturn(window, start, end), ++lineNumber);
+                }
+                position += end;
+            }
+        }
+    }
+
+    private static int lastNewline(ByteBuffer window, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (window.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int trimCarriageReturn(ByteBuffer window, int start, int end) {
+        return end > start && window.get(end - 1) == '\r' ? end - 1 : end;
+    }
+}
@@ -0,0 +1,111 @@
+package com.sucheth.riskwatch.service.importer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.sucheth.riskwatch.model.enums.RiskLevel;
+
+/**
+ * One JSON object per line with the same field names as the API request, plus the
+ * optional {@code riskScore}, {@code riskLevel} and {@code reasonCodes}. Values are read
+ * from the token stream directly: numbers without going through a String and text fields
+ * from the parser's character buffer, so repeated values come from the string cache.
+ * A numeric timestamp is epoch millis when integral and epoch seconds otherwise.
+ */
+final class NdjsonRecordParser implements RecordParser {
+
+    private final JsonFactory jsonFactory;
+    private final StringCache strings;
+    private final ByteBuffer scratch = ByteBuffer.allocate(64);
+    private byte[] line = new byte[512];
+
+    NdjsonRecordParser(JsonFactory jsonFactory, StringCache strings) {
+        this.jsonFactory = jsonFactory;
+        this.strings = strings;
+    }
+
+    @Override
+    public boolean parse(ByteBuffer buffer, int from, int to, ImportRecord record) {
+        int length = to - from;
+        if (length == 0) {
+            return false;
+        }
+        if (line.length < length) {
+            line = new byte[Math.max(length, line.length * 2)];
+        }
+        buffer.get(from, line, 0, length);
+
+        try (JsonParser parser = jsonFactory.createParser(line, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("expected a JSON object");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (field) {
+                    case "transactionId" -> record.transactionId = parser.getText();
+                    case "userId" -> record.userId = cached(parser);
+                    case "deviceId" -> record.deviceId = cached(parser);
+                    case "location" -> record.location = cached(parser);
+                    case "amount" -> record.amount = parser.getValueAsDouble(Double.NaN);
+                    case "riskScore" -> record.riskScore = parser.getValueAsDouble(0.0);
+                    case "reasonCodes" -> record.reasonCodes = parser.getValueAsLong(0L);
+                    case "riskLevel" -> record.riskLevel = riskLevel(parser);
+                    case "timestamp" -> record.epochMicros = epochMicros(parser, value);
+                    default -> parser.skipChildren();
+                }
+            }
+            if (token != JsonToken.END_OBJECT) {
+                throw new IllegalArgumentException("malformed JSON object");
+            }
+        } catch (IOException ex) {
+            throw new IllegalArgumentException(ex.getMessage(), ex);
+        }
+        return true;
+    }
+
+    private String cached(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        return strings.get(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+    }
+
+    private ByteBuffer ascii(JsonParser parser) throws IOException {
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int length = parser.getTextLength();
+        if (length > scratch.capacity()) {
+            throw new IllegalArgumentException("value too long: " + parser.getText());
+        }
+        scratch.clear();
+        for (int i = 0; i < length; i++) {
+            scratch.put(i, (byte) chars[offset + i]);
+        }
+        scratch.limit(length);
+        return scratch;
+    }
+
+    private RiskLevel riskLevel(JsonParser parser) throws IOException {
+        ByteBuffer text = ascii(parser);
+        return ByteFields.parseRiskLevel(text, 0, text.limit());
+    }
+
+    private long epochMicros(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NUMBER_INT) {
+            return Math.multiplyExact(parser.getLongValue(), 1_000L);
+        }
+        if (value == JsonToken.VALUE_NUMBER_FLOAT) {
+            return Math.round(parser.getDoubleValue() * 1_000_000.0);
+        }
+        ByteBuffer text = ascii(parser);
+        return ByteFields.parseEpochMicros(text, 0, text.limit());
+    }
+}
@@ -0,0 +1,17 @@
+package com.sucheth.riskwatch.service.importer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Parses one line of an import file in place. Implementations keep state between lines
+ * (a CSV header, scratch buffers) and are used by a single thread.
+ */
+interface RecordParser {
+
+    /**
+     * @return {@code true} if the line filled {@code record}, {@code false} if it carried
+     *         no record (blank line, header)
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    boolean parse(ByteBuffer buffer, int from, int to, ImportRecord record);
+}
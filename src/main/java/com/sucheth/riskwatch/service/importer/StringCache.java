@@ -0,0 +1,92 @@
+package com.sucheth.riskwatch.service.importer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Direct-mapped cache of recently decoded strings for low-cardinality columns such as
+ * userId, deviceId and location. A hit returns the existing instance without decoding;
+ * a miss decodes and replaces whatever occupied the slot. Only ASCII values are cached.
+ */
+final class StringCache {
+
+    private final String[] entries;
+    private final int mask;
+    private byte[] scratch = new byte[64];
+
+    StringCache(int sizePowerOfTwo) {
+        this.entries = new String[sizePowerOfTwo];
+        this.mask = sizePowerOfTwo - 1;
+    }
+
+    String get(ByteBuffer buffer, int from, int to) {
+        int length = to - from;
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b < 0) {
+                return decodeUtf8(buffer, from, length);
+            }
+            hash = 31 * hash + b;
+        }
+        int slot = spread(hash) & mask;
+        String cached = entries[slot];
+        if (cached != null && cached.length() == length && matches(cached, buffer, from)) {
+            return cached;
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(from, scratch, 0, length);
+        String decoded = new String(scratch, 0, length, StandardCharsets.ISO_8859_1);
+        entries[slot] = decoded;
+        return decoded;
+    }
+
+    String get(char[] chars, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            char c = chars[i];
+            if (c > 0x7F) {
+                return new String(chars, offset, length);
+            }
+            hash = 31 * hash + c;
+        }
+        int slot = spread(hash) & mask;
+        String cached = entries[slot];
+        if (cached != null && cached.length() == length && matches(cached, chars, offset)) {
+            return cached;
+        }
+        String decoded = new String(chars, offset, length);
+        entries[slot] = decoded;
+        return decoded;
+    }
+
+    private String decodeUtf8(ByteBuffer buffer, int from, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(from, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean matches(String cached, ByteBuffer buffer, int from) {
+        for (int i = 0; i < cached.length(); i++) {
+            if (cached.charAt(i) != buffer.get(from + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(String cached, char[] chars, int offset) {
+        for (int i = 0; i < cached.length(); i++) {
+            if (cached.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,205 @@
+package com.sucheth.riskwatch.service.importer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import com.sucheth.riskwatch.model.Transaction;
+
+/**
+ * Writes imported rows straight to the transaction table, bypassing the entity manager.
+ * Ids are reserved from {@code transaction_seq} in the same blocks Hibernate's pooled
+ * optimizer uses, so imported and live rows never collide. On H2 rows go through a
+ * batched {@code MERGE ... WHEN NOT MATCHED}; on PostgreSQL they are streamed with
+ * {@code COPY} into a session-local staging table and moved across with a single
+ * {@code INSERT ... ON CONFLICT DO NOTHING}, or batched the same way when COPY is
+ * disabled. Rows whose transactionId already exists are skipped either way. Must be
+ * called inside a transaction.
+ */
+@Component
+class TransactionBulkWriter {
+
+    private static final List<String> COLUMNS = List.of("id", "transaction_id", "user_id", "amount", "timestamp",
+            "device_id", "location", "risk_score", "risk_level", "reason_codes");
+    private static final String COLUMN_LIST = String.join(", ", COLUMNS);
+    private static final String PLACEHOLDERS = COLUMNS.stream().map(column -> "?").collect(Collectors.joining(", "));
+
+    private static final String H2_INSERT =
+            "MERGE INTO transaction t USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR(255)), "
+            + "CAST(? AS VARCHAR(255)), CAST(? AS DOUBLE PRECISION), CAST(? AS TIMESTAMP(6) WITH TIME ZONE), "
+            + "CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), CAST(? AS DOUBLE PRECISION), "
+            + "CAST(? AS VARCHAR(255)), CAST(? AS BIGINT))) AS s(" + COLUMN_LIST + ") "
+            + "ON t.transaction_id = s.transaction_id "
+            + "WHEN NOT MATCHED THEN INSERT (" + COLUMN_LIST + ") VALUES ("
+            + COLUMNS.stream().map(column -> "s." + column).collect(Collectors.joining(", ")) + ")";
+
+    private static final String POSTGRES_INSERT =
+            "INSERT INTO transaction (" + COLUMN_LIST + ") VALUES (" + PLACEHOLDERS + ") "
+            + "ON CONFLICT (transaction_id) DO NOTHING";
+
+    private static final String POSTGRES_STAGING =
+            "CREATE TEMP TABLE IF NOT EXISTS transaction_import (LIKE transaction INCLUDING DEFAULTS) "
+            + "ON COMMIT DELETE ROWS";
+
+    private static final String POSTGRES_COPY = "COPY transaction_import (" + COLUMN_LIST + ") FROM STDIN";
+
+    private static final String POSTGRES_MOVE =
+            "INSERT INTO transaction (" + COLUMN_LIST + ") SELECT " + COLUMN_LIST + " FROM transaction_import "
+            + "ON CONFLICT (transaction_id) DO NOTHING";
+
+    private static final String H2_NEXT_IDS = "SELECT NEXT VALUE FOR transaction_seq FROM SYSTEM_RANGE(1, ?)";
+    private static final String POSTGRES_NEXT_IDS = "SELECT nextval('transaction_seq') FROM generate_series(1, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgresCopy;
+    private final ByteArrayOutputStream copyBuffer = new ByteArrayOutputStream(1 << 20);
+    private volatile String product;
+
+    TransactionBulkWriter(JdbcTemplate jdbcTemplate,
+                          @Value("${risk.import.postgres-copy:true}") boolean postgresCopy) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgresCopy = postgresCopy;
+    }
+
+    /**
+     * @return the number of rows inserted; the rest were already present
+     */
+    int write(ImportRecord[] records, int count) {
+        if (count == 0) {
+            return 0;
+        }
+        boolean h2 = "H2".equals(product());
+        assignIds(records, count, h2);
+        if (!h2 && postgresCopy) {
+            return copy(records, count);
+        }
+        int[] updates = jdbcTemplate.batchUpdate(h2 ? H2_INSERT : POSTGRES_INSERT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                bind(ps, records[i]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return count;
+            }
+        });
+        return Arrays.stream(updates).map(updated -> updated == Statement.SUCCESS_NO_INFO ? 1 : updated).sum();
+    }
+
+    private void assignIds(ImportRecord[] records, int count, boolean h2) {
+        int blockSize = Transaction.ID_ALLOCATION_SIZE;
+        List<Long> blocks = jdbcTemplate.queryForList(h2 ? H2_NEXT_IDS : POSTGRES_NEXT_IDS, Long.class,
+                (count + blockSize - 1) / blockSize + 1);
+        int assigned = 0;
+        for (long hi : blocks) {
+            for (long id = Math.max(1, hi - blockSize + 1); id <= hi && assigned < count; id++) {
+                records[assigned++].id = id;
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement ps, ImportRecord record) throws SQLException {
+        ps.setLong(1, record.id);
+        ps.setString(2, record.transactionId);
+        ps.setString(3, record.userId);
+        ps.setDouble(4, record.amount);
+        ps.setTimestamp(5, Timestamp.from(record.timestamp()));
+        ps.setString(6, record.deviceId);
+        ps.setString(7, record.location);
+        ps.setDouble(8, record.riskScore);
+        ps.setString(9, record.riskLevel.name());
+        ps.setLong(10, record.reasonCodes);
+    }
+
+    private int copy(ImportRecord[] records, int count) {
+        copyBuffer.reset();
+        for (int i = 0; i < count; i++) {
+            ImportRecord record = records[i];
+            copyField(Long.toString(record.id), false);
+            copyField(record.transactionId, false);
+            copyField(record.userId, false);
+            copyField(Double.toString(record.amount), false);
+            copyField(record.timestamp().toString(), false);
+            copyField(record.deviceId, false);
+            copyField(record.location, false);
+            copyField(Double.toString(record.riskScore), false);
+            copyField(record.riskLevel.name(), false);
+            copyField(Long.toString(record.reasonCodes), true);
+        }
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(POSTGRES_STAGING);
+                copyIn(connection);
+                return statement.executeUpdate(POSTGRES_MOVE);
+            }
+        });
+    }
+
+    private void copyIn(Connection connection) throws SQLException {
+        try {
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(POSTGRES_COPY,
+                    new ByteArrayInputStream(copyBuffer.toByteArray()));
+        } catch (IOException ex) {
+            throw new SQLException("COPY into transaction_import failed", ex);
+        }
+    }
+
+    private void copyField(String value, boolean last) {
+        if (value == null) {
+            copyBuffer.write('\\');
+            copyBuffer.write('N');
+        } else {
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                switch (b) {
+                    case '\\' -> escape('\\');
+                    case '\t' -> escape('t');
+                    case '\n' -> escape('n');
+                    case '\r' -> escape('r');
+                    default -> copyBuffer.write(b);
+                }
+            }
+        }
+        copyBuffer.write(last ? '\n' : '\t');
+    }
+
+    private void escape(char code) {
+        copyBuffer.write('\\');
+        copyBuffer.write(code);
+    }
+
+    private String product() {
+        String resolved = product;
+        if (resolved == null) {
+            try {
+                resolved = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                        metaData -> metaData.getDatabaseProductName());
+            } catch (MetaDataAccessException ex) {
+                throw new IllegalStateException("Unable to determine database product for bulk import", ex);
+            }
+            if (!"H2".equals(resolved) && !"PostgreSQL".equals(resolved)) {
+                throw new IllegalStateException("Bulk import is not supported on " + resolved);
+            }
+            product = resolved;
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,108 @@
+package com.sucheth.riskwatch.service.rescore;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.sucheth.riskwatch.dto.internal.DeviceUsage;
+import com.sucheth.riskwatch.model.Transaction;
+import com.sucheth.riskwatch.repository.TransactionRepository;
+import com.sucheth.riskwatch.service.rules.RiskFeatures;
+import com.sucheth.riskwatch.util.AmountSketch;
+
+/**
+ * Features for a user's history replayed oldest first, as they stood when each
+ * transaction arrived rather than as the live indexes see them today. Velocity and amount
+ * history are kept for the current user only. Device sharing needs other users' activity,
+ * so it is read per device over the window either side of the first lookup and reused for
+ * the user's later transactions on that device until they move past it.
+ */
+final class ReplayRiskFeatures implements RiskFeatures {
+
+    private final TransactionRepository transactionRepository;
+    private final Duration velocityWindow;
+    private final Duration deviceWindow;
+    private final int amountMinHistory;
+    private final ArrayDeque<Instant> recent = new ArrayDeque<>();
+    private final Map<String, DeviceHistory> devices = new HashMap<>();
+    private AmountSketch amounts = new AmountSketch();
+
+    ReplayRiskFeatures(TransactionRepository transactionRepository,
+                       Duration velocityWindow,
+                       Duration deviceWindow,
+                       int amountMinHistory) {
+        this.transactionRepository = transactionRepository;
+        this.velocityWindow = velocityWindow;
+        this.deviceWindow = deviceWindow;
+        this.amountMinHistory = amountMinHistory;
+    }
+
+    void startUser() {
+        recent.clear();
+        devices.clear();
+        amounts = new AmountSketch();
+    }
+
+    void record(Transaction tx) {
+        evictUpTo(tx.getTimestamp().minus(velocityWindow));
+        recent.addLast(tx.getTimestamp());
+        if (tx.getAmount() != null) {
+            amounts.record(tx.getAmount());
+        }
+    }
+
+    @Override
+    public int recentTransactionCount(Transaction tx) {
+        evictUpTo(tx.getTimestamp().minus(velocityWindow));
+        return recent.size();
+    }
+
+    @Override
+    public int deviceUserCount(Transaction tx) {
+        if (tx.getDeviceId() == null) {
+            return 0;
+        }
+        Instant asOf = tx.getTimestamp();
+        DeviceHistory history = devices.get(tx.getDeviceId());
+        if (history == null || asOf.isAfter(history.loadedTo())) {
+            Instant loadedTo = asOf.plus(deviceWindow);
+            history = new DeviceHistory(loadedTo, transactionRepository.findDeviceUsageBetween(
+                    tx.getDeviceId(), asOf.minus(deviceWindow), loadedTo));
+            devices.put(tx.getDeviceId(), history);
+        }
+        return history.distinctUsers(tx.getUserId(), asOf.minus(deviceWindow), asOf);
+    }
+
+    @Override
+    public double amountPercentile(Transaction tx) {
+        if (amounts.count() < amountMinHistory) {
+            return Double.NaN;
+        }
+        return amounts.percentile(tx.getAmount());
+    }
+
+    private void evictUpTo(Instant cutoff) {
+        while (!recent.isEmpty() && !recent.peekFirst().isAfter(cutoff)) {
+            recent.pollFirst();
+        }
+    }
+
+    private record DeviceHistory(Instant loadedTo, List<DeviceUsage> usages) {
+
+        private int distinctUsers(String userId, Instant cutoff, Instant asOf) {
+            Set<String> others = new HashSet<>();
+            for (DeviceUsage usage : usages) {
+                if (usage.getTimestamp().isAfter(cutoff) && !usage.getTimestamp().isAfter(asOf)
+                        && !usage.getUserId().equals(userId)) {
+                    others.add(usage.getUserId());
+                }
+            }
+            return others.size() + 1;
+        }
+    }
+}
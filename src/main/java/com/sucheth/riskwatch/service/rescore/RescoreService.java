@@ -0,0 +1,414 @@
+package com.sucheth.riskwatch.service.rescore;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sucheth.riskwatch.dto.api.RescoreStatusResponse;
+import com.sucheth.riskwatch.dto.internal.RiskEvaluationResult;
+import com.sucheth.riskwatch.dto.internal.UserTransactionCount;
+import com.sucheth.riskwatch.exception.RescoreInProgressException;
+import com.sucheth.riskwatch.model.RescorePartition;
+import com.sucheth.riskwatch.model.Transaction;
+import com.sucheth.riskwatch.model.enums.RescoreState;
+import com.sucheth.riskwatch.repository.RescorePartitionRepository;
+import com.sucheth.riskwatch.repository.TransactionRepository;
+import com.sucheth.riskwatch.service.ProfileRebuilder;
+import com.sucheth.riskwatch.service.RiskEvaluator;
+import com.sucheth.riskwatch.service.TransactionIdIndex;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Re-evaluates every stored transaction under the current rules and thresholds, then
+ * rebuilds the user risk profiles from the new scores. Users are split into contiguous
+ * ranges of roughly equal transaction counts; each range streams its users' histories
+ * oldest first through its own cursor, replays them through the {@link RiskEvaluator}
+ * with {@link ReplayRiskFeatures}, and writes changed rows back in batches. Ranges run in
+ * parallel on a fork-join pool; they are independent because the features only read
+ * fields a rescore never changes. Each range checkpoints the last fully rescored user
+ * with its writes, so a failed or interrupted job resumes from there on the next start.
+ * Like the profile rebuild it finishes with, best run when live traffic is quiet.
+ */
+@Slf4j
+@Service
+public class RescoreService {
+
+    private static final String UPDATE_SCORE =
+            "UPDATE transaction SET risk_score = ?, risk_level = ?, reason_codes = ? WHERE id = ?";
+    private static final String FIRST_USER = "";
+
+    private final TransactionRepository transactionRepository;
+    private final RescorePartitionRepository partitionRepository;
+    private final RiskEvaluator riskEvaluator;
+    private final ProfileRebuilder profileRebuilder;
+    private final TransactionIdIndex transactionIdIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final TransactionTemplate writeTemplate;
+    private final Duration velocityWindow;
+    private final Duration deviceWindow;
+    private final int amountMinHistory;
+    private volatile RescoreRun current;
+
+    @Value("${risk.rescore.partitions:64}")
+    private int partitionCount;
+
+    @Value("${risk.rescore.parallelism:4}")
+    private int parallelism;
+
+    @Value("${risk.rescore.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${risk.rescore.progress-interval-ms:5000}")
+    private long progressIntervalMillis;
+
+    public RescoreService(TransactionRepository transactionRepository,
+                          RescorePartitionRepository partitionRepository,
+                          RiskEvaluator riskEvaluator,
+                          ProfileRebuilder profileRebuilder,
+                          TransactionIdIndex transactionIdIndex,
+                          JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${risk.thresholds.velocity.window-minutes}") int velocityWindowMinutes,
+                          @Value("${risk.thresholds.device.window-hours:24}") int deviceWindowHours,
+                          @Value("${risk.thresholds.amount-anomaly.min-history:20}") int amountMinHistory) {
+        this.transactionRepository = transactionRepository;
+        this.partitionRepository = partitionRepository;
+        this.riskEvaluator = riskEvaluator;
+        this.profileRebuilder = profileRebuilder;
+        this.transactionIdIndex = transactionIdIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.velocityWindow = Duration.ofMinutes(velocityWindowMinutes);
+        this.deviceWindow = Duration.ofHours(deviceWindowHours);
+        this.amountMinHistory = amountMinHistory;
+    }
+
+    /**
+     * Starts a job in the background, resuming the previous one if it did not finish
+     * unless {@code restart} is set.
+     */
+    public synchronized RescoreStatusResponse start(boolean restart) {
+        RescoreRun running = current;
+        if (running != null && running.isActive()) {
+            throw new RescoreInProgressException("A rescore is already running");
+        }
+        RescoreRun run = new RescoreRun();
+        current = run;
+        Thread thread = new Thread(() -> execute(run, restart), "risk-rescore");
+        thread.setDaemon(true);
+        thread.start();
+        return run.status();
+    }
+
+    public RescoreStatusResponse status() {
+        RescoreRun run = current;
+        if (run == null) {
+            return RescoreStatusResponse.builder().state(RescoreState.IDLE).build();
+        }
+        return run.status();
+    }
+
+    private void execute(RescoreRun run, boolean restart) {
+        long started = System.nanoTime();
+        try {
+            List<RescorePartition> partitions = prepare(restart);
+            run.begin(partitions);
+            List<RescorePartition> remaining = partitions.stream().filter(partition -> !partition.isCompleted()).toList();
+            log.info("Rescoring {} transactions in {} user ranges ({} remaining) with parallelism {}",
+                    run.transactions, partitions.size(), remaining.size(), parallelism);
+
+            if (!remaining.isEmpty()) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    pool.invoke(new PartitionTask(run, remaining));
+                } finally {
+                    pool.shutdown();
+                }
+            }
+            if (run.failedPartitions.get() > 0) {
+                throw new IllegalStateException(run.failedPartitions.get()
+                        + " user ranges failed; start the rescore again to resume them");
+            }
+
+            run.state = RescoreState.REBUILDING_PROFILES;
+            run.profilesRebuilt = profileRebuilder.rebuildAll();
+            transactionIdIndex.clearRecent();
+            writeTemplate.executeWithoutResult(status -> partitionRepository.deleteAllInBatch());
+
+            run.finish(RescoreState.COMPLETED, null);
+            log.info("Rescored {} transactions ({} changed) and rebuilt {} profiles in {} ms",
+                    run.rescored.get(), run.changed.get(), run.profilesRebuilt,
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException ex) {
+            log.error("Rescore failed after {} transactions", run.rescored.get(), ex);
+            run.finish(RescoreState.FAILED, ex.getMessage());
+        }
+    }
+
+    private List<RescorePartition> prepare(boolean restart) {
+        if (restart) {
+            writeTemplate.executeWithoutResult(status -> partitionRepository.deleteAllInBatch());
+        }
+        List<RescorePartition> existing = partitionRepository.findAllByOrderByPartitionNo();
+        if (!existing.isEmpty()) {
+            log.info("Resuming rescore from {} saved user ranges", existing.size());
+            return existing;
+        }
+
+        long total = transactionRepository.count();
+        PartitionPlan plan = new PartitionPlan(Math.max(1, (total + partitionCount - 1) / partitionCount));
+        readOnlyTemplate.executeWithoutResult(status -> {
+            try (Stream<UserTransactionCount> counts = transactionRepository.streamTransactionCountsByUser()) {
+                counts.forEach(plan::accept);
+            }
+        });
+        plan.finish();
+        writeTemplate.executeWithoutResult(status -> partitionRepository.saveAll(plan.partitions));
+        return plan.partitions;
+    }
+
+    private void rescore(RescoreRun run, RescorePartition partition) {
+        PartitionRescore rescore = new PartitionRescore(run, partition);
+        try {
+            readOnlyTemplate.executeWithoutResult(status -> {
+                try (Stream<Transaction> transactions = transactionRepository.streamUserRange(
+                        partition.getAfterUserId(), partition.getLastUserId())) {
+                    transactions.forEach(rescore::accept);
+                }
+            });
+            rescore.finish();
+            run.completedPartitions.incrementAndGet();
+        } catch (RuntimeException ex) {
+            run.failedPartitions.incrementAndGet();
+            log.error("Rescoring user range {} failed; it resumes after user '{}' on the next start",
+                    partition.getPartitionNo(), partition.getAfterUserId(), ex);
+        }
+    }
+
+    private final class PartitionPlan {
+
+        private final long target;
+        private final List<RescorePartition> partitions = new ArrayList<>();
+        private String afterUserId = FIRST_USER;
+        private String lastUserId;
+        private long transactions;
+
+        private PartitionPlan(long target) {
+            this.target = target;
+        }
+
+        private void accept(UserTransactionCount count) {
+            lastUserId = count.getUserId();
+            transactions += count.getTransactions();
+            if (transactions >= target) {
+                emit();
+            }
+        }
+
+        private void finish() {
+            if (transactions > 0) {
+                emit();
+            }
+        }
+
+        private void emit() {
+            partitions.add(RescorePartition.builder()
+                    .partitionNo(partitions.size())
+                    .afterUserId(afterUserId)
+                    .lastUserId(lastUserId)
+                    .transactions(transactions)
+                    .build());
+            afterUserId = lastUserId;
+            transactions = 0;
+        }
+    }
+
+    private final class PartitionTask extends RecursiveAction {
+
+        private final RescoreRun run;
+        private final List<RescorePartition> partitions;
+
+        private PartitionTask(RescoreRun run, List<RescorePartition> partitions) {
+            this.run = run;
+            this.partitions = partitions;
+        }
+
+        @Override
+        protected void compute() {
+            if (partitions.size() == 1) {
+                rescore(run, partitions.get(0));
+                return;
+            }
+            int middle = partitions.size() / 2;
+            invokeAll(new PartitionTask(run, partitions.subList(0, middle)),
+                    new PartitionTask(run, partitions.subList(middle, partitions.size())));
+        }
+    }
+
+    /**
+     * Replays one user range. Changed rows are written whenever a batch fills; the
+     * checkpoint only moves at a user boundary, so a resumed range replays whole users.
+     */
+    private final class PartitionRescore {
+
+        private final RescoreRun run;
+        private final RescorePartition partition;
+        private final ReplayRiskFeatures features = new ReplayRiskFeatures(transactionRepository,
+                velocityWindow, deviceWindow, amountMinHistory);
+        private final List<Object[]> pending = new ArrayList<>();
+        private String currentUser;
+        private long rescored;
+        private long changed;
+
+        private PartitionRescore(RescoreRun run, RescorePartition partition) {
+            this.run = run;
+            this.partition = partition;
+        }
+
+        private void accept(Transaction tx) {
+            if (!tx.getUserId().equals(currentUser)) {
+                if (currentUser != null && rescored >= batchSize) {
+                    checkpoint(false);
+                }
+                currentUser = tx.getUserId();
+                features.startUser();
+            }
+
+            RiskEvaluationResult result = riskEvaluator.evaluate(tx, features);
+            features.record(tx);
+            rescored++;
+            run.rescored.incrementAndGet();
+            if (Double.compare(result.getScore(), tx.getRiskScore()) != 0
+                    || result.getLevel() != tx.getRiskLevel()
+                    || result.getReasonCodes() != tx.getReasonCodes()) {
+                pending.add(new Object[] {result.getScore(), result.getLevel().name(), result.getReasonCodes(), tx.getId()});
+                changed++;
+                run.changed.incrementAndGet();
+            }
+            if (pending.size() >= batchSize) {
+                write();
+            }
+        }
+
+        private void finish() {
+            checkpoint(true);
+        }
+
+        private void write() {
+            List<Object[]> batch = List.copyOf(pending);
+            writeTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_SCORE, batch));
+            pending.clear();
+        }
+
+        private void checkpoint(boolean completed) {
+            if (currentUser != null) {
+                partition.setAfterUserId(currentUser);
+            }
+            partition.setRescored(partition.getRescored() + rescored);
+            partition.setChanged(partition.getChanged() + changed);
+            partition.setCompleted(completed);
+            List<Object[]> batch = List.copyOf(pending);
+            writeTemplate.executeWithoutResult(status -> {
+                if (!batch.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPDATE_SCORE, batch);
+                }
+                partitionRepository.save(partition);
+            });
+            pending.clear();
+            rescored = 0;
+            changed = 0;
+            run.reportProgress(progressIntervalMillis);
+        }
+    }
+
+    private static final class RescoreRun {
+
+        private final Instant startedAt = Instant.now();
+        private final AtomicInteger completedPartitions = new AtomicInteger();
+        private final AtomicInteger failedPartitions = new AtomicInteger();
+        private final AtomicLong rescored = new AtomicLong();
+        private final AtomicLong changed = new AtomicLong();
+        private final AtomicLong lastProgress = new AtomicLong(System.nanoTime());
+        private volatile RescoreState state = RescoreState.RUNNING;
+        private volatile int partitions;
+        private volatile long transactions;
+        private volatile Long profilesRebuilt;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private void begin(List<RescorePartition> planned) {
+            long total = 0;
+            for (RescorePartition partition : planned) {
+                total += partition.getTransactions();
+                rescored.addAndGet(partition.getRescored());
+                changed.addAndGet(partition.getChanged());
+                if (partition.isCompleted()) {
+                    completedPartitions.incrementAndGet();
+                }
+            }
+            transactions = total;
+            partitions = planned.size();
+        }
+
+        private void finish(RescoreState finalState, String message) {
+            error = message;
+            finishedAt = Instant.now();
+            state = finalState;
+        }
+
+        private boolean isActive() {
+            return state == RescoreState.RUNNING || state == RescoreState.REBUILDING_PROFILES;
+        }
+
+        private void reportProgress(long intervalMillis) {
+            long now = System.nanoTime();
+            long last = lastProgress.get();
+            if ((now - last) / 1_000_000 >= intervalMillis && lastProgress.compareAndSet(last, now)) {
+                log.info("Rescoring: {} of {} transactions ({}%), {} changed, {} of {} user ranges done",
+                        rescored.get(), transactions, Math.round(percentComplete()), changed.get(),
+                        completedPartitions.get(), partitions);
+            }
+        }
+
+        private double percentComplete() {
+            if (state == RescoreState.COMPLETED) {
+                return 100.0;
+            }
+            return transactions == 0 ? 0.0 : Math.min(100.0, rescored.get() * 100.0 / transactions);
+        }
+
+        private RescoreStatusResponse status() {
+            return RescoreStatusResponse.builder()
+                    .state(state)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .partitions(partitions)
+                    .completedPartitions(completedPartitions.get())
+                    .transactions(transactions)
+                    .rescored(rescored.get())
+                    .changed(changed.get())
+                    .percentComplete(percentComplete())
+                    .profilesRebuilt(profilesRebuilt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.sucheth.riskwatch.service.rules;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.sucheth.riskwatch.model.enums.ReasonCode;
+
+@Component
+public class AmountAnomalyRule implements RiskRule {
+
+    @Value("${risk.thresholds.amount-anomaly.percentile:0.99}")
+    private double percentileThreshold;
+
+    @Value("${risk.rules.amount-anomaly.weight:0.3}")
+    private double weight;
+
+    @Override
+    public String name() {
+        return "amount-anomaly";
+    }
+
+    @Override
+    public RuleCost cost() {
+        return RuleCost.DATABASE;
+    }
+
+    @Override
+    public RuleOutcome evaluate(RiskContext context) {
+        double percentile = context.amountPercentile();
+        if (!Double.isNaN(percentile) && percentile >= percentileThreshold) {
+            return RuleOutcome.triggered(weight, ReasonCode.UNUSUAL_AMOUNT);
+        }
+        return RuleOutcome.pass();
+    }
+}
@@ -0,0 +1,34 @@
+package com.sucheth.riskwatch.service.rules;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.sucheth.riskwatch.model.enums.ReasonCode;
+
+@Component
+public class AmountThresholdRule implements RiskRule {
+
+    @Value("${risk.thresholds.amount}")
+    private Double amountThreshold;
+
+    @Value("${risk.rules.amount.weight:0.3}")
+    private double weight;
+
+    @Override
+    public String name() {
+        return "amount";
+    }
+
+    @Override
+    public RuleCost cost() {
+        return RuleCost.IN_MEMORY;
+    }
+
+    @Override
+    public RuleOutcome evaluate(RiskContext context) {
+        if (context.getTransaction().getAmount() > amountThreshold) {
+            return RuleOutcome.triggered(weight, ReasonCode.AMOUNT_OVER_THRESHOLD);
+        }
+        return RuleOutcome.pass();
+    }
+}
@@ -0,0 +1,34 @@
+package com.sucheth.riskwatch.service.rules;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.sucheth.riskwatch.model.enums.ReasonCode;
+
+@Component
+public class DeviceSharingRule implements RiskRule {
+
+    @Value("${risk.thresholds.device.max-users}")
+    private int maxUsersPerDevice;
+
+    @Value("${risk.rules.device.weight:0.3}")
+    private double weight;
+
+    @Override
+    public String name() {
+        return "device";
+    }
+
+    @Override
+    public RuleCost cost() {
+        return RuleCost.IN_MEMORY;
+    }
+
+    @Override
+    public RuleOutcome evaluate(RiskContext context) {
+        if (context.deviceUserCount() > maxUsersPerDevice) {
+            return RuleOutcome.triggered(weight, ReasonCode.SHARED_DEVICE);
+        }
+        return RuleOutcome.pass();
+    }
+}
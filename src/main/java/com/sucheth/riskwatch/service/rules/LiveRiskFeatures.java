@@ -0,0 +1,51 @@
+package com.sucheth.riskwatch.service.rules;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.sucheth.riskwatch.model.Transaction;
+import com.sucheth.riskwatch.service.DeviceIndex;
+import com.sucheth.riskwatch.service.UserRiskProfileAggregator;
+import com.sucheth.riskwatch.service.VelocityIndex;
+
+@Component
+public class LiveRiskFeatures implements RiskFeatures {
+
+    private final VelocityIndex velocityIndex;
+    private final DeviceIndex deviceIndex;
+    private final UserRiskProfileAggregator userRiskProfileAggregator;
+    private final Duration velocityWindow;
+    private final int amountMinHistory;
+
+    public LiveRiskFeatures(VelocityIndex velocityIndex,
+                            DeviceIndex deviceIndex,
+                            UserRiskProfileAggregator userRiskProfileAggregator,
+                            @Value("${risk.thresholds.velocity.window-minutes}") int velocityWindowMinutes,
+                            @Value("${risk.thresholds.amount-anomaly.min-history:20}") int amountMinHistory) {
+        this.velocityIndex = velocityIndex;
+        this.deviceIndex = deviceIndex;
+        this.userRiskProfileAggregator = userRiskProfileAggregator;
+        this.velocityWindow = Duration.ofMinutes(velocityWindowMinutes);
+        this.amountMinHistory = amountMinHistory;
+    }
+
+    @Override
+    public int recentTransactionCount(Transaction tx) {
+        return velocityIndex.countAfter(tx.getUserId(), tx.getTimestamp().minus(velocityWindow));
+    }
+
+    @Override
+    public int deviceUserCount(Transaction tx) {
+        if (tx.getDeviceId() == null) {
+            return 0;
+        }
+        return deviceIndex.distinctUsers(tx.getDeviceId(), tx.getUserId(), tx.getTimestamp());
+    }
+
+    @Override
+    public double amountPercentile(Transaction tx) {
+        return userRiskProfileAggregator.amountPercentile(tx.getUserId(), tx.getAmount(), amountMinHistory);
+    }
+}
@@ -0,0 +1,47 @@
+package com.sucheth.riskwatch.service.rules;
+
+import com.sucheth.riskwatch.model.Transaction;
+
+import lombok.Getter;
+
+/**
+ * Per-transaction view handed to every rule. Features are fetched from the underlying
+ * {@link RiskFeatures} on first use and memoized, so rules that need the same data share
+ * a single lookup.
+ */
+public class RiskContext {
+
+    @Getter
+    private final Transaction transaction;
+    private final RiskFeatures features;
+
+    private Integer recentTransactionCount;
+    private Integer deviceUserCount;
+    private Double amountPercentile;
+
+    public RiskContext(Transaction transaction, RiskFeatures features) {
+        this.transaction = transaction;
+        this.features = features;
+    }
+
+    public int recentTransactionCount() {
+        if (recentTransactionCount == null) {
+            recentTransactionCount = features.recentTransactionCount(transaction);
+        }
+        return recentTransactionCount;
+    }
+
+    public int deviceUserCount() {
+        if (deviceUserCount == null) {
+            deviceUserCount = features.deviceUserCount(transaction);
+        }
+        return deviceUserCount;
+    }
+
+    public double amountPercentile() {
+        if (amountPercentile == null) {
+            amountPercentile = features.amountPercentile(transaction);
+        }
+        return amountPercentile;
+    }
+}
@@ -0,0 +1,12 @@
+package com.sucheth.riskwatch.service.rules;
+
+import com.sucheth.riskwatch.model.Transaction;
+
+public interface RiskFeatures {
+
+    int recentTransactionCount(Transaction tx);
+
+    int deviceUserCount(Transaction tx);
+
+    double amountPercentile(Transaction tx);
+}
@@ -0,0 +1,10 @@
+package com.sucheth.riskwatch.service.rules;
+
+public interface RiskRule {
+
+    String name();
+
+    RuleCost cost();
+
+    RuleOutcome evaluate(RiskContext context);
+}
@@ -0,0 +1,78 @@
+package com.sucheth.riskwatch.service.rules;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs the enabled {@link RiskRule}s in cost order, in-memory rules first, and stops as soon
+ * as the accumulated score reaches the 1.0 cap or the next rule costs more than the caller
+ * allows. Each rule's evaluation time is recorded under {@code riskwatch.rule.evaluation}
+ * tagged with the rule name.
+ */
+@Slf4j
+@Component
+public class RiskRulePipeline {
+
+    public static final double MAX_SCORE = 1.0;
+
+    private final List<TimedRule> rules;
+
+    public RiskRulePipeline(List<RiskRule> candidates, Environment environment, MeterRegistry meterRegistry) {
+        List<TimedRule> enabled = new ArrayList<>();
+        for (RiskRule rule : candidates) {
+            if (environment.getProperty("risk.rules." + rule.name() + ".enabled", Boolean.class, true)) {
+                Timer timer = Timer.builder("riskwatch.rule.evaluation")
+                        .tag("rule", rule.name())
+                        .register(meterRegistry);
+                enabled.add(new TimedRule(rule, timer));
+            }
+        }
+        enabled.sort(Comparator.comparing((TimedRule timed) -> timed.rule().cost())
+                .thenComparing(timed -> timed.rule().name()));
+        this.rules = List.copyOf(enabled);
+        log.info("Risk rule pipeline: {}", rules.stream().map(timed -> timed.rule().name()).toList());
+    }
+
+    public PipelineResult evaluate(RiskContext context) {
+        return evaluate(context, RuleCost.DATABASE);
+    }
+
+    public PipelineResult evaluate(RiskContext context, RuleCost maxCost) {
+        double score = 0.0;
+        long reasonCodes = 0L;
+
+        for (TimedRule timed : rules) {
+            if (timed.rule().cost().compareTo(maxCost) > 0) {
+                break;
+            }
+            long start = System.nanoTime();
+            RuleOutcome outcome = timed.rule().evaluate(context);
+            timed.timer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            if (outcome.isTriggered()) {
+                score += outcome.getScore();
+                reasonCodes |= outcome.getReason().mask();
+                if (score >= MAX_SCORE) {
+                    break;
+                }
+            }
+        }
+
+        return new PipelineResult(Math.min(MAX_SCORE, score), reasonCodes);
+    }
+
+    public record PipelineResult(double score, long reasonCodes) {
+    }
+
+    private record TimedRule(RiskRule rule, Timer timer) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.sucheth.riskwatch.service.rules;
+
+public enum RuleCost {
+    IN_MEMORY,
+    DATABASE
+}
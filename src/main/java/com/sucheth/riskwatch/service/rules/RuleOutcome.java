@@ -0,0 +1,26 @@
+package com.sucheth.riskwatch.service.rules;
+
+import com.sucheth.riskwatch.model.enums.ReasonCode;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class RuleOutcome {
+
+    private static final RuleOutcome PASS = new RuleOutcome(false, 0.0, null);
+
+    private final boolean triggered;
+    private final double score;
+    private final ReasonCode reason;
+
+    public static RuleOutcome pass() {
+        return PASS;
+    }
+
+    public static RuleOutcome triggered(double score, ReasonCode reason) {
+        return new RuleOutcome(true, score, reason);
+    }
+}
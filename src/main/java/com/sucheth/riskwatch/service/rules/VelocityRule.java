@@ -0,0 +1,34 @@
+package com.sucheth.riskwatch.service.rules;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.sucheth.riskwatch.model.enums.ReasonCode;
+
+@Component
+public class VelocityRule implements RiskRule {
+
+    @Value("${risk.thresholds.velocity.limit}")
+    private int velocityLimit;
+
+    @Value("${risk.rules.velocity.weight:0.4}")
+    private double weight;
+
+    @Override
+    public String name() {
+        return "velocity";
+    }
+
+    @Override
+    public RuleCost cost() {
+        return RuleCost.DATABASE;
+    }
+
+    @Override
+    public RuleOutcome evaluate(RiskContext context) {
+        if (context.recentTransactionCount() > velocityLimit) {
+            return RuleOutcome.triggered(weight, ReasonCode.HIGH_VELOCITY);
+        }
+        return RuleOutcome.pass();
+    }
+}
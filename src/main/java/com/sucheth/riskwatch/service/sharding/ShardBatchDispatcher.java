@@ -0,0 +1,132 @@
+package com.sucheth.riskwatch.service.sharding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.sucheth.riskwatch.dto.api.BatchItemResult;
+import com.sucheth.riskwatch.dto.api.BatchTransactionResponse;
+import com.sucheth.riskwatch.dto.api.TransactionRequest;
+import com.sucheth.riskwatch.service.TransactionService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Splits a batch by owning shard. Each owner evaluates its part, the local part in the
+ * calling thread and the others concurrently over HTTP. Results are put back at their
+ * original indexes. A part whose owner fails is reported as rejected item by item, so
+ * one unreachable instance does not fail the items other instances accepted. A part
+ * forwarded here is evaluated here, except for items of users this instance does not
+ * serve while ownership is being handed off, which are rejected for the caller to retry.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShardBatchDispatcher {
+
+    private final TransactionService transactionService;
+    private final ShardMembership membership;
+    private final ShardForwarder forwarder;
+
+    @Value("${risk.batch.max-size:5000}")
+    private int maxBatchSize;
+
+    public BatchTransactionResponse evaluateAndSaveBatch(List<TransactionRequest> requests, boolean forwarded) {
+        if (!membership.isEnabled() || requests == null || requests.isEmpty() || requests.size() > maxBatchSize) {
+            return transactionService.evaluateAndSaveBatch(requests);
+        }
+        if (forwarded) {
+            return evaluateForwarded(requests);
+        }
+
+        Map<String, List<Integer>> indexesByOwner = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            TransactionRequest request = requests.get(i);
+            String owner = request == null || request.getUserId() == null
+                    ? membership.self()
+                    : membership.ownerOf(request.getUserId());
+            indexesByOwner.computeIfAbsent(owner, key -> new ArrayList<>()).add(i);
+        }
+        if (indexesByOwner.size() == 1 && indexesByOwner.containsKey(membership.self())) {
+            return transactionService.evaluateAndSaveBatch(requests);
+        }
+
+        Map<String, CompletableFuture<BatchTransactionResponse>> remote = new LinkedHashMap<>();
+        indexesByOwner.forEach((owner, indexes) -> {
+            if (!owner.equals(membership.self())) {
+                List<TransactionRequest> part = select(requests, indexes);
+                remote.put(owner, CompletableFuture.supplyAsync(() -> forwarder.forwardBatch(owner, part),
+                        forwarder.batchExecutor()));
+            }
+        });
+
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        List<Integer> localIndexes = indexesByOwner.get(membership.self());
+        if (localIndexes != null) {
+            try {
+                place(transactionService.evaluateAndSaveBatch(select(requests, localIndexes)), localIndexes, results);
+            } catch (RuntimeException ex) {
+                reject(requests, localIndexes, results, "Batch part failed on " + membership.self() + ": " + ex.getMessage());
+            }
+        }
+        remote.forEach((owner, future) -> {
+            List<Integer> indexes = indexesByOwner.get(owner);
+            try {
+                place(future.join(), indexes, results);
+            } catch (CompletionException ex) {
+                log.warn("Batch part of {} items failed on {}: {}", indexes.size(), owner, ex.getCause().getMessage());
+                reject(requests, indexes, results, "Batch part failed on " + owner + ": " + ex.getCause().getMessage());
+            }
+        });
+        return BatchTransactionResponse.from(Arrays.asList(results));
+    }
+
+    private BatchTransactionResponse evaluateForwarded(List<TransactionRequest> requests) {
+        List<Integer> served = new ArrayList<>();
+        List<Integer> moving = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            TransactionRequest request = requests.get(i);
+            boolean local = request == null || request.getUserId() == null || membership.isLocal(request.getUserId());
+            (local ? served : moving).add(i);
+        }
+        if (moving.isEmpty()) {
+            return transactionService.evaluateAndSaveBatch(requests);
+        }
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        reject(requests, moving, results, "User is moving to another instance; retry later.");
+        if (!served.isEmpty()) {
+            place(transactionService.evaluateAndSaveBatch(select(requests, served)), served, results);
+        }
+        return BatchTransactionResponse.from(Arrays.asList(results));
+    }
+
+    private static List<TransactionRequest> select(List<TransactionRequest> requests, List<Integer> indexes) {
+        List<TransactionRequest> part = new ArrayList<>(indexes.size());
+        indexes.forEach(index -> part.add(requests.get(index)));
+        return part;
+    }
+
+    private static void place(BatchTransactionResponse part, List<Integer> indexes, BatchItemResult[] results) {
+        for (BatchItemResult item : part.getResults()) {
+            int original = indexes.get(item.getIndex());
+            item.setIndex(original);
+            results[original] = item;
+        }
+    }
+
+    private static void reject(List<TransactionRequest> requests, List<Integer> indexes, BatchItemResult[] results,
+                               String error) {
+        for (int index : indexes) {
+            TransactionRequest request = requests.get(index);
+            results[index] = BatchItemResult.rejected(index, request != null ? request.getTransactionId() : null, error);
+        }
+    }
+}
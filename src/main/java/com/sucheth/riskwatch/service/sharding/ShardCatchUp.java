@@ -0,0 +1,86 @@
+package com.sucheth.riskwatch.service.sharding;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sucheth.riskwatch.dto.internal.ReplayEvent;
+import com.sucheth.riskwatch.repository.TransactionRepository;
+import com.sucheth.riskwatch.service.DeviceIndex;
+import com.sucheth.riskwatch.service.TransactionIdIndex;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Feeds transactions committed by other shards into the indexes that are not keyed by
+ * user: a device is shared by users on any shard, and a transaction id may be looked up on
+ * any instance. Each run reads rows whose {@code recordedAt} is later than the newest one
+ * seen by the previous run less {@code risk.sharding.catch-up-slack-ms}. Ids would not
+ * do as a mark: they are reserved in blocks per instance and a bulk import holds
+ * thousands until it commits, whereas {@code recordedAt} is the start of the inserting
+ * transaction, so a row is only missed if that transaction outlasts the slack. Both
+ * indexes ignore events they already hold.
+ */
+@Slf4j
+@Component
+public class ShardCatchUp {
+
+    private final TransactionRepository transactionRepository;
+    private final DeviceIndex deviceIndex;
+    private final TransactionIdIndex transactionIdIndex;
+    private final ShardMembership membership;
+    private final TransactionTemplate readOnlyTemplate;
+    private Instant recordedMark;
+
+    @Value("${risk.sharding.catch-up-slack-ms:10000}")
+    private long slackMillis;
+
+    public ShardCatchUp(TransactionRepository transactionRepository,
+                        DeviceIndex deviceIndex,
+                        TransactionIdIndex transactionIdIndex,
+                        ShardMembership membership,
+                        PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.deviceIndex = deviceIndex;
+        this.transactionIdIndex = transactionIdIndex;
+        this.membership = membership;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+    }
+
+    @Scheduled(fixedDelayString = "${risk.sharding.catch-up-interval-ms:1000}")
+    public void catchUp() {
+        if (!membership.isEnabled()) {
+            return;
+        }
+        try {
+            readOnlyTemplate.executeWithoutResult(status -> {
+                Instant latest = transactionRepository.findMaxRecordedAt();
+                Instant upTo = latest != null ? latest : Instant.EPOCH;
+                if (recordedMark == null) {
+                    recordedMark = upTo;
+                    return;
+                }
+                AtomicLong applied = new AtomicLong();
+                try (Stream<ReplayEvent> events = transactionRepository.streamReplayEventsRecordedAfter(
+                        recordedMark.minusMillis(slackMillis))) {
+                    events.filter(event -> !membership.isLocal(event.getUserId())).forEach(event -> {
+                        deviceIndex.record(event.getDeviceId(), event.getUserId(), event.getTimestamp());
+                        transactionIdIndex.registerId(event.getTransactionId());
+                        applied.incrementAndGet();
+                    });
+                }
+                recordedMark = upTo;
+                log.debug("Applied {} transactions from other shards recorded up to {}", applied.get(), upTo);
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Shard catch-up failed, retrying next run: {}", ex.getMessage());
+        }
+    }
+}
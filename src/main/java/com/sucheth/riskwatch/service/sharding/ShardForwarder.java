@@ -0,0 +1,129 @@
+package com.sucheth.riskwatch.service.sharding;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import com.sucheth.riskwatch.controller.EnvelopeAdvice;
+import com.sucheth.riskwatch.dto.api.BatchTransactionResponse;
+import com.sucheth.riskwatch.dto.api.TransactionRequest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * HTTP client for requests that belong to another shard. Forwarded requests carry
+ * {@link #FORWARDED_HEADER} naming the sender, and the receiving instance always serves
+ * them itself, so instances whose rings briefly disagree during a membership change
+ * cannot bounce a request back and forth. {@link #ORIGIN_HEADER} carries the base URL the
+ * client used, for links in the owner's response.
+ */
+@Component
+public class ShardForwarder {
+
+    public static final String FORWARDED_HEADER = "X-Riskwatch-Forwarded-By";
+    public static final String SHARD_HEADER = "X-Riskwatch-Shard";
+    public static final String ORIGIN_HEADER = "X-Riskwatch-Origin";
+
+    private static final List<String> FORWARDED_REQUEST_HEADERS =
+            List.of(HttpHeaders.ACCEPT, HttpHeaders.CONTENT_TYPE, EnvelopeAdvice.ENVELOPE_HEADER, ORIGIN_HEADER);
+
+    private final RestClient restClient;
+    private final ShardMembership membership;
+    private final ExecutorService batchExecutor;
+    private final Timer forwardTimer;
+
+    public ShardForwarder(RestClient.Builder restClientBuilder,
+                          ShardMembership membership,
+                          MeterRegistry meterRegistry,
+                          @Value("${risk.sharding.connect-timeout-ms:1000}") long connectTimeoutMillis,
+                          @Value("${risk.sharding.forward-timeout-ms:10000}") long forwardTimeoutMillis) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(forwardTimeoutMillis));
+        this.restClient = restClientBuilder.requestFactory(requestFactory).build();
+        this.membership = membership;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("shard-forward-");
+        threadFactory.setDaemon(true);
+        this.batchExecutor = Executors.newCachedThreadPool(threadFactory);
+        this.forwardTimer = meterRegistry.timer("riskwatch.sharding.forward");
+    }
+
+    /**
+     * Replays a request on its owner and returns the owner's response as is; error
+     * statuses are returned rather than thrown.
+     */
+    public ResponseEntity<byte[]> forward(String owner, HttpMethod method, String pathAndQuery, HttpHeaders headers,
+                                          byte[] body) {
+        return forwardTimer.record(() -> {
+            RestClient.RequestBodySpec request = restClient.method(method)
+                    .uri(owner + pathAndQuery)
+                    .headers(outgoing -> {
+                        FORWARDED_REQUEST_HEADERS.forEach(name -> {
+                            List<String> values = headers.get(name);
+                            if (values != null) {
+                                outgoing.put(name, values);
+                            }
+                        });
+                        outgoing.set(FORWARDED_HEADER, membership.self());
+                    });
+            if (body != null) {
+                request.body(body);
+            }
+            return request.retrieve()
+                    .onStatus(status -> true, (req, res) -> { })
+                    .toEntity(byte[].class);
+        });
+    }
+
+    public BatchTransactionResponse forwardBatch(String owner, List<TransactionRequest> requests) {
+        return forwardTimer.record(() -> restClient.post()
+                .uri(owner + "/api/v1/transactions/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(EnvelopeAdvice.ENVELOPE_HEADER, EnvelopeAdvice.NO_ENVELOPE)
+                .header(FORWARDED_HEADER, membership.self())
+                .body(requests)
+                .retrieve()
+                .body(new ParameterizedTypeReference<BatchTransactionResponse>() { }));
+    }
+
+    /**
+     * Reads a member's own share of a cluster-wide view, unwrapped from the response envelope.
+     */
+    public <T> T fetch(String member, String pathAndQuery, ParameterizedTypeReference<T> type) {
+        return forwardTimer.record(() -> restClient.get()
+                .uri(member + pathAndQuery)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(EnvelopeAdvice.ENVELOPE_HEADER, EnvelopeAdvice.NO_ENVELOPE)
+                .header(FORWARDED_HEADER, membership.self())
+                .retrieve()
+                .body(type));
+    }
+
+    ExecutorService batchExecutor() {
+        return batchExecutor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batchExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,239 @@
+package com.sucheth.riskwatch.service.sharding;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sucheth.riskwatch.model.ShardMember;
+import com.sucheth.riskwatch.repository.ShardMemberRepository;
+import com.sucheth.riskwatch.service.UserRiskProfileAggregator;
+import com.sucheth.riskwatch.service.VelocityIndex;
+import com.sucheth.riskwatch.util.ConsistentHashRing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Membership of the user-sharded cluster when {@code risk.sharding.enabled} is set. Each
+ * instance heartbeats its own row in the shared database and builds a consistent-hash ring
+ * over the members seen recently, so every instance derives the same owner for a user
+ * without coordination. When the ring changes, pending profile deltas are flushed and
+ * the cached profiles and velocity windows of users this instance did not own under both
+ * rings are dropped: users it lost now belong to another owner, and users it gained may
+ * have been updated elsewhere, so both are reloaded from the database when next needed.
+ * <p>
+ * Instances notice a change up to a heartbeat apart, so ownership is handed off rather
+ * than taken: each heartbeat publishes the version of the installed ring, and a user this
+ * instance gained is still reported as owned by its previous owner until that owner's row
+ * shows the new version, meaning it has flushed the user and stopped serving it. Members
+ * that left the ring hand off at once. When the last previous owner has acknowledged,
+ * the gained users are dropped once more in case anything cached them meanwhile.
+ */
+@Slf4j
+@Component
+public class ShardMembership {
+
+    private final ShardMemberRepository shardMemberRepository;
+    private final UserRiskProfileAggregator aggregator;
+    private final VelocityIndex velocityIndex;
+    private final TransactionTemplate transactionTemplate;
+    private volatile ConsistentHashRing ring;
+    private volatile Handoff handoff;
+
+    @Value("${risk.sharding.enabled:false}")
+    private boolean enabled;
+
+    @Value("${risk.sharding.self:http://localhost:${server.port:8080}}")
+    private String self;
+
+    @Value("${risk.sharding.virtual-nodes:128}")
+    private int virtualNodes;
+
+    @Value("${risk.sharding.member-timeout-ms:6000}")
+    private long memberTimeoutMillis;
+
+    public ShardMembership(ShardMemberRepository shardMemberRepository,
+                           UserRiskProfileAggregator aggregator,
+                           VelocityIndex velocityIndex,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.shardMemberRepository = shardMemberRepository;
+        this.aggregator = aggregator;
+        this.velocityIndex = velocityIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        meterRegistry.gauge("riskwatch.sharding.members", this, membership -> membership.members().size());
+    }
+
+    @PostConstruct
+    public void join() {
+        if (enabled) {
+            log.info("Joining shard ring as {}", self);
+            heartbeat();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${risk.sharding.heartbeat-ms:2000}",
+            initialDelayString = "${risk.sharding.heartbeat-ms:2000}")
+    public void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        ConsistentHashRing installed = ring;
+        int installedVersion = installed == null ? 0 : versionOf(installed);
+        Set<String> live = new TreeSet<>();
+        Set<String> acknowledged = new HashSet<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                shardMemberRepository.save(new ShardMember(self, now, installedVersion));
+                shardMemberRepository.deleteExpired(now.minusMillis(memberTimeoutMillis * 10));
+                shardMemberRepository.findByHeartbeatAtAfter(now.minusMillis(memberTimeoutMillis)).forEach(member -> {
+                    live.add(member.getUrl());
+                    if (member.getRingVersion() == installedVersion) {
+                        acknowledged.add(member.getUrl());
+                    }
+                });
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Shard heartbeat failed, keeping the current ring: {}", ex.getMessage());
+            return;
+        }
+        live.add(self);
+        if (installed == null || !installed.members().equals(List.copyOf(live))) {
+            install(new ConsistentHashRing(live, virtualNodes), installed);
+        } else {
+            progressHandoff(installed, acknowledged);
+        }
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> shardMemberRepository.deleteById(self));
+        } catch (RuntimeException ex) {
+            log.warn("Could not leave the shard ring cleanly: {}", ex.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String self() {
+        return self;
+    }
+
+    public List<String> members() {
+        ConsistentHashRing current = ring;
+        return current == null ? List.of() : current.members();
+    }
+
+    /**
+     * @return the instance serving the user now: its owner under the installed ring, or
+     *         the previous owner while that owner has not yet handed the user off
+     */
+    public String ownerOf(String userId) {
+        ConsistentHashRing current = ring;
+        if (current == null) {
+            return self;
+        }
+        String owner = current.ownerOf(userId);
+        Handoff pending = handoff;
+        if (pending != null && self.equals(owner)) {
+            String previous = pending.from().ownerOf(userId);
+            if (pending.waitingFor().contains(previous)) {
+                return previous;
+            }
+        }
+        return owner;
+    }
+
+    /**
+     * @return members that still serve users this instance gained in the last ring change
+     */
+    public Set<String> handoffPending() {
+        Handoff pending = handoff;
+        return pending == null ? Set.of() : pending.waitingFor();
+    }
+
+    public boolean isLocal(String userId) {
+        return self.equals(ownerOf(userId));
+    }
+
+    private synchronized void install(ConsistentHashRing next, ConsistentHashRing previous) {
+        if (ring != previous) {
+            return;
+        }
+        if (previous == null) {
+            // on joining, the other members still route by the ring without this instance
+            Set<String> others = new TreeSet<>(next.members());
+            others.remove(self);
+            handoff = others.isEmpty() ? null : new Handoff(new ConsistentHashRing(others, virtualNodes), Set.copyOf(others));
+            ring = next;
+            log.info("Shard ring: {}{}", next.members(), handoff == null ? "" : "; waiting for " + others + " to hand off");
+            return;
+        }
+        // an unfinished handoff still waits on owners from the older ring, so it keeps that ring as its origin
+        ConsistentHashRing from = handoff != null ? handoff.from() : previous;
+        Set<String> waitingFor = new TreeSet<>(from.members());
+        waitingFor.retainAll(next.members());
+        waitingFor.remove(self);
+        handoff = waitingFor.isEmpty() ? null : new Handoff(from, Set.copyOf(waitingFor));
+        ring = next;
+        long started = System.nanoTime();
+        Predicate<String> notKept = userId -> !self.equals(previous.ownerOf(userId)) || !self.equals(next.ownerOf(userId));
+        int profiles = aggregator.evictUsers(notKept);
+        int windows = velocityIndex.evictUsers(notKept);
+        log.info("Shard ring changed from {} to {}; dropped {} cached profiles and {} velocity windows in {} ms{}",
+                previous.members(), next.members(), profiles, windows, (System.nanoTime() - started) / 1_000_000,
+                handoff == null ? "" : "; waiting for " + handoff.waitingFor() + " to hand off");
+    }
+
+    private synchronized void progressHandoff(ConsistentHashRing installed, Set<String> acknowledged) {
+        Handoff pending = handoff;
+        if (pending == null || ring != installed) {
+            return;
+        }
+        Set<String> waitingFor = new TreeSet<>(pending.waitingFor());
+        waitingFor.removeAll(acknowledged);
+        if (waitingFor.size() == pending.waitingFor().size()) {
+            return;
+        }
+        if (!waitingFor.isEmpty()) {
+            handoff = new Handoff(pending.from(), Set.copyOf(waitingFor));
+            return;
+        }
+        handoff = null;
+        Predicate<String> gained = userId -> self.equals(installed.ownerOf(userId))
+                && !self.equals(pending.from().ownerOf(userId));
+        int profiles = aggregator.evictUsers(gained);
+        int windows = velocityIndex.evictUsers(gained);
+        log.info("Previous owners handed off; dropped {} cached profiles and {} velocity windows of gained users",
+                profiles, windows);
+    }
+
+    private static int versionOf(ConsistentHashRing ring) {
+        return ring.members().hashCode();
+    }
+
+    /**
+     * @param from       the ring the gained users were owned under
+     * @param waitingFor previous owners still on the ring that have not yet installed the current one
+     */
+    private record Handoff(ConsistentHashRing from, Set<String> waitingFor) {
+    }
+}
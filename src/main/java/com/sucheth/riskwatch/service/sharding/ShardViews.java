@@ -0,0 +1,140 @@
+package com.sucheth.riskwatch.service.sharding;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+
+import com.sucheth.riskwatch.dto.api.RiskAnalyticsPoint;
+import com.sucheth.riskwatch.dto.api.RiskAnalyticsResponse;
+import com.sucheth.riskwatch.dto.api.UserRiskProfileResponse;
+import com.sucheth.riskwatch.repository.UserRiskProfileRepository;
+import com.sucheth.riskwatch.service.UserRiskProfileService;
+import com.sucheth.riskwatch.service.analytics.RiskAnalytics;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cluster-wide answers for views that span every user. In sharded mode the instance a
+ * client asks gathers each member's share concurrently over HTTP and merges them; a
+ * request forwarded here for that purpose is answered with this instance's share only.
+ * Flagged users are taken from each user's owner, falling back to the stored profiles
+ * for the users of a member that does not answer. Analytics add every member's counts
+ * not yet flushed to the shared tallies; a member that does not answer contributes only
+ * what it has flushed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShardViews {
+
+    private final ShardMembership membership;
+    private final ShardForwarder forwarder;
+    private final UserRiskProfileService userRiskProfileService;
+    private final UserRiskProfileRepository userRiskProfileRepository;
+    private final RiskAnalytics riskAnalytics;
+
+    public List<UserRiskProfileResponse> flaggedUsers(boolean forwarded) {
+        List<UserRiskProfileResponse> local = userRiskProfileService.getFlaggedUsers().stream()
+                .map(UserRiskProfileResponse::from)
+                .collect(Collectors.toList());
+        if (!membership.isEnabled()) {
+            return local;
+        }
+        if (forwarded) {
+            return local.stream().filter(profile -> membership.isLocal(profile.getUserId())).toList();
+        }
+        Map<String, List<UserRiskProfileResponse>> shares = gather("/api/v1/users/flagged",
+                new ParameterizedTypeReference<List<UserRiskProfileResponse>>() { });
+        shares.put(membership.self(), local);
+
+        List<UserRiskProfileResponse> flagged = new ArrayList<>();
+        shares.forEach((member, share) -> {
+            if (share != null) {
+                share.stream()
+                        .filter(profile -> member.equals(membership.ownerOf(profile.getUserId())))
+                        .forEach(flagged::add);
+            }
+        });
+        Set<String> unanswered = shares.entrySet().stream()
+                .filter(entry -> entry.getValue() == null)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        if (!unanswered.isEmpty()) {
+            userRiskProfileRepository.findByIsFlaggedTrue().stream()
+                    .filter(profile -> unanswered.contains(membership.ownerOf(profile.getUserId())))
+                    .map(UserRiskProfileResponse::from)
+                    .forEach(flagged::add);
+        }
+        return flagged;
+    }
+
+    public RiskAnalyticsResponse riskAnalytics(Duration window, Duration step, boolean forwarded) {
+        if (!membership.isEnabled()) {
+            return riskAnalytics.query(window, step);
+        }
+        if (forwarded) {
+            return riskAnalytics.queryUnflushed(window, step);
+        }
+        RiskAnalyticsResponse merged = riskAnalytics.queryStored(window, step);
+        String query = "/api/v1/analytics/risk?window=" + window.getSeconds() + "s&step=" + merged.getStepSeconds() + "s";
+        Map<String, RiskAnalyticsResponse> shares = gather(query, new ParameterizedTypeReference<RiskAnalyticsResponse>() { });
+        shares.put(membership.self(), riskAnalytics.queryUnflushed(window, step));
+        shares.values().forEach(share -> {
+            if (share != null) {
+                add(merged, share);
+            }
+        });
+        return merged;
+    }
+
+    /**
+     * @return every other member's share by member, {@code null} for a member that failed
+     */
+    private <T> Map<String, T> gather(String pathAndQuery, ParameterizedTypeReference<T> type) {
+        Map<String, CompletableFuture<T>> pending = new LinkedHashMap<>();
+        for (String member : membership.members()) {
+            if (!member.equals(membership.self())) {
+                pending.put(member, CompletableFuture.supplyAsync(() -> forwarder.fetch(member, pathAndQuery, type),
+                        forwarder.batchExecutor()));
+            }
+        }
+        Map<String, T> shares = new LinkedHashMap<>();
+        pending.forEach((member, future) -> {
+            try {
+                shares.put(member, future.join());
+            } catch (CompletionException ex) {
+                log.warn("Could not read {} from shard member {}: {}", pathAndQuery, member, ex.getCause().getMessage());
+                shares.put(member, null);
+            }
+        });
+        return shares;
+    }
+
+    private static void add(RiskAnalyticsResponse into, RiskAnalyticsResponse share) {
+        into.setTransactions(into.getTransactions() + share.getTransactions());
+        share.getRiskLevels().forEach((level, count) -> into.getRiskLevels().merge(level, count, Long::sum));
+        share.getScoreHistogram().forEach((bin, count) -> into.getScoreHistogram().merge(bin, count, Long::sum));
+        share.getReasons().forEach((reason, count) -> into.getReasons().merge(reason, count, Long::sum));
+        Map<Instant, RiskAnalyticsPoint> points = into.getSeries().stream()
+                .collect(Collectors.toMap(RiskAnalyticsPoint::getStart, Function.identity()));
+        for (RiskAnalyticsPoint point : share.getSeries()) {
+            RiskAnalyticsPoint target = points.get(point.getStart());
+            if (target != null) {
+                target.setTransactions(target.getTransactions() + point.getTransactions());
+                point.getRiskLevels().forEach((level, count) -> target.getRiskLevels().merge(level, count, Long::sum));
+            }
+        }
+    }
+}
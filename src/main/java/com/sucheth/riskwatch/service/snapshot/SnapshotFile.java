@@ -0,0 +1,153 @@
+package com.sucheth.riskwatch.service.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * On-disk layout of a state snapshot: a fixed header carrying the format version, the
+ * creation time, the transaction id high-water mark and the latest {@code recordedAt}
+ * committed before the state was read, followed by typed sections, each
+ * with its own length and CRC-32C. Files are written beside the target and moved into
+ * place atomically, and read through a read-only mapping. A section that fails its
+ * checksum is reported and skipped; sections of unknown type are ignored.
+ */
+final class SnapshotFile {
+
+    static final int SECTION_HEADER_BYTES = Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    private static final int MAGIC = 0x52575354;
+    private static final int FORMAT_VERSION = 3;
+    private static final int HEADER_BYTES =
+            Integer.BYTES + Integer.BYTES + Long.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES;
+
+    enum Section {
+        TRANSACTION_IDS(1),
+        DEVICES(2),
+        VELOCITY(3),
+        PROFILES(4);
+
+        private final int type;
+
+        Section(int type) {
+            this.type = type;
+        }
+
+        private static Section of(int type) {
+            for (Section section : values()) {
+                if (section.type == type) {
+                    return section;
+                }
+            }
+            return null;
+        }
+    }
+
+    record Contents(Instant createdAt, long highWaterMark, Instant recordedMark, Map<Section, SnapshotInput> sections,
+                    List<Section> rejected) {
+    }
+
+    private SnapshotFile() {
+    }
+
+    static long write(Path path, long highWaterMark, Instant recordedMark,
+                      Map<Section, Consumer<SnapshotOutput>> writers) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        long size;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            SnapshotOutput out = new SnapshotOutput(channel);
+            out.writeRaw(header(Instant.now(), highWaterMark, recordedMark));
+            writers.forEach((section, writer) -> {
+                out.beginSection(section.type);
+                writer.accept(out);
+                out.endSection();
+            });
+            size = out.position();
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return size;
+    }
+
+    static Contents read(Path path) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Snapshot " + path + " has an invalid size of " + channel.size() + " bytes");
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        int magic = mapped.getInt();
+        int version = mapped.getInt();
+        long createdAtMillis = mapped.getLong();
+        long highWaterMark = mapped.getLong();
+        long recordedMarkMicros = mapped.getLong();
+        int headerCrc = mapped.getInt();
+        if (magic != MAGIC || headerCrc != checksum(mapped.slice(0, HEADER_BYTES - Integer.BYTES))) {
+            throw new IllegalStateException("Snapshot " + path + " has a corrupt header");
+        }
+        if (version != FORMAT_VERSION) {
+            throw new IllegalStateException("Snapshot " + path + " has format version " + version
+                    + ", expected " + FORMAT_VERSION);
+        }
+
+        Map<Section, SnapshotInput> sections = new EnumMap<>(Section.class);
+        List<Section> rejected = new ArrayList<>();
+        while (mapped.remaining() >= SECTION_HEADER_BYTES) {
+            Section section = Section.of(mapped.getInt());
+            long length = mapped.getLong();
+            int crc = mapped.getInt();
+            if (length < 0 || length > mapped.remaining()) {
+                if (section != null) {
+                    rejected.add(section);
+                }
+                break;
+            }
+            ByteBuffer payload = mapped.slice(mapped.position(), (int) length);
+            mapped.position(mapped.position() + (int) length);
+            if (section == null) {
+                continue;
+            }
+            if (checksum(payload) != crc) {
+                rejected.add(section);
+            } else {
+                sections.put(section, new SnapshotInput(payload));
+            }
+        }
+        return new Contents(Instant.ofEpochMilli(createdAtMillis), highWaterMark,
+                Instant.EPOCH.plus(recordedMarkMicros, ChronoUnit.MICROS), sections, rejected);
+    }
+
+    private static ByteBuffer header(Instant createdAt, long highWaterMark, Instant recordedMark) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(createdAt.toEpochMilli()).putLong(highWaterMark)
+                .putLong(ChronoUnit.MICROS.between(Instant.EPOCH, recordedMark));
+        header.putInt(checksum(header.slice(0, HEADER_BYTES - Integer.BYTES)));
+        return header.flip();
+    }
+
+    private static int checksum(ByteBuffer bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes.duplicate());
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,64 @@
+package com.sucheth.riskwatch.service.snapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Reader over one verified snapshot section. Reading past the end of the section throws
+ * {@link java.nio.BufferUnderflowException}.
+ */
+public final class SnapshotInput {
+
+    private final ByteBuffer buffer;
+
+    SnapshotInput(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    public boolean hasRemaining() {
+        return buffer.hasRemaining();
+    }
+
+    public byte getByte() {
+        return buffer.get();
+    }
+
+    public boolean getBoolean() {
+        return buffer.get() != 0;
+    }
+
+    public int getInt() {
+        return buffer.getInt();
+    }
+
+    public long getLong() {
+        return buffer.getLong();
+    }
+
+    public double getDouble() {
+        return buffer.getDouble();
+    }
+
+    public String getString() {
+        return new String(getBytes(), StandardCharsets.UTF_8);
+    }
+
+    public Instant getInstant() {
+        if (!getBoolean()) {
+            return null;
+        }
+        long epochSecond = buffer.getLong();
+        return Instant.ofEpochSecond(epochSecond, buffer.getInt());
+    }
+
+    public byte[] getBytes() {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalStateException("Corrupt length " + length + " in snapshot section");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,137 @@
+package com.sucheth.riskwatch.service.snapshot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.zip.CRC32C;
+
+/**
+ * Sequential writer for one snapshot file. Values are staged in a direct buffer and
+ * written through the channel as it fills; each section's length and CRC-32C are patched
+ * into its header once the section is closed, so a section never has to be held in
+ * memory whole.
+ */
+public final class SnapshotOutput {
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final CRC32C crc = new CRC32C();
+    private long sectionStart = -1;
+    private long sectionLength;
+
+    SnapshotOutput(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    public void putByte(byte value) {
+        ensure(Byte.BYTES).put(value);
+    }
+
+    public void putBoolean(boolean value) {
+        putByte(value ? (byte) 1 : (byte) 0);
+    }
+
+    public void putInt(int value) {
+        ensure(Integer.BYTES).putInt(value);
+    }
+
+    public void putLong(long value) {
+        ensure(Long.BYTES).putLong(value);
+    }
+
+    public void putDouble(double value) {
+        ensure(Double.BYTES).putDouble(value);
+    }
+
+    public void putString(String value) {
+        putBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void putInstant(Instant value) {
+        putBoolean(value != null);
+        if (value != null) {
+            putLong(value.getEpochSecond());
+            putInt(value.getNano());
+        }
+    }
+
+    public void putBytes(byte[] value) {
+        putInt(value.length);
+        int written = 0;
+        while (written < value.length) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            int chunk = Math.min(buffer.remaining(), value.length - written);
+            buffer.put(value, written, chunk);
+            written += chunk;
+        }
+    }
+
+    void beginSection(int type) {
+        drain();
+        sectionStart = position();
+        sectionLength = 0;
+        crc.reset();
+        ByteBuffer header = ByteBuffer.allocate(SnapshotFile.SECTION_HEADER_BYTES);
+        header.putInt(type).putLong(0L).putInt(0).flip();
+        writeFully(header);
+    }
+
+    void endSection() {
+        drain();
+        ByteBuffer patch = ByteBuffer.allocate(Long.BYTES + Integer.BYTES);
+        patch.putLong(sectionLength).putInt((int) crc.getValue()).flip();
+        try {
+            channel.write(patch, sectionStart + Integer.BYTES);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        sectionStart = -1;
+    }
+
+    void writeRaw(ByteBuffer bytes) {
+        drain();
+        writeFully(bytes);
+    }
+
+    long position() {
+        try {
+            return channel.position();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private ByteBuffer ensure(int bytes) {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+        return buffer;
+    }
+
+    private void drain() {
+        buffer.flip();
+        if (sectionStart >= 0) {
+            sectionLength += buffer.remaining();
+            crc.update(buffer.duplicate());
+        }
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer bytes) {
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
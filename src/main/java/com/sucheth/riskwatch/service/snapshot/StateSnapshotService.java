@@ -0,0 +1,243 @@
+package com.sucheth.riskwatch.service.snapshot;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sucheth.riskwatch.dto.internal.ReplayEvent;
+import com.sucheth.riskwatch.repository.TransactionRepository;
+import com.sucheth.riskwatch.service.DeviceIndex;
+import com.sucheth.riskwatch.service.TransactionIdIndex;
+import com.sucheth.riskwatch.service.UserRiskProfileAggregator;
+import com.sucheth.riskwatch.service.VelocityIndex;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Warms the in-memory risk state at startup and, when {@code risk.snapshot.enabled} is
+ * set, keeps a local snapshot of it: the transaction id filter, the device index, the
+ * velocity windows and the clean resident profiles. A snapshot records the latest
+ * {@code recordedAt} committed before it was taken; on restart the state is restored from
+ * it and transactions recorded after that mark less {@code risk.snapshot.replay-slack-ms}
+ * are replayed. Ids are no watermark here: they are reserved in blocks per instance and a
+ * bulk import holds thousands until it commits, whereas a row's {@code recordedAt} is the
+ * start of its inserting transaction, so only a transaction open for longer than the
+ * slack could be missed. Replay is idempotent for every index, and
+ * profiles of users with replayed transactions are left to load from the database. A
+ * missing, foreign or corrupt snapshot, or a single bad section, falls back to the full
+ * rebuild for the state concerned.
+ */
+@Slf4j
+@Component
+public class StateSnapshotService {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionIdIndex transactionIdIndex;
+    private final DeviceIndex deviceIndex;
+    private final VelocityIndex velocityIndex;
+    private final UserRiskProfileAggregator aggregator;
+    private final TransactionTemplate readOnlyTemplate;
+    private final Timer writeTimer;
+    private final AtomicLong snapshotBytes = new AtomicLong();
+    private final AtomicLong warmMillis = new AtomicLong();
+    private final AtomicLong readyMillis = new AtomicLong();
+    private String warmedFrom = "database";
+
+    @Value("${risk.snapshot.enabled:false}")
+    private boolean enabled;
+
+    @Value("${risk.snapshot.path:data/riskwatch-state.snapshot}")
+    private Path path;
+
+    @Value("${risk.snapshot.replay-slack-ms:60000}")
+    private long replaySlackMillis;
+
+    public StateSnapshotService(TransactionRepository transactionRepository,
+                                TransactionIdIndex transactionIdIndex,
+                                DeviceIndex deviceIndex,
+                                VelocityIndex velocityIndex,
+                                UserRiskProfileAggregator aggregator,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.transactionIdIndex = transactionIdIndex;
+        this.deviceIndex = deviceIndex;
+        this.velocityIndex = velocityIndex;
+        this.aggregator = aggregator;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+
+        this.writeTimer = meterRegistry.timer("riskwatch.snapshot.write");
+        meterRegistry.gauge("riskwatch.snapshot.size", snapshotBytes, AtomicLong::get);
+        TimeGauge.builder("riskwatch.startup.warm", warmMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .register(meterRegistry);
+        TimeGauge.builder("riskwatch.startup.ready", readyMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void warmUp() {
+        long started = System.nanoTime();
+        if (!enabled || !restore()) {
+            transactionIdIndex.warm();
+            deviceIndex.rebuild();
+        }
+        warmMillis.set((System.nanoTime() - started) / 1_000_000);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportStartup(ApplicationReadyEvent event) {
+        readyMillis.set(ManagementFactory.getRuntimeMXBean().getUptime());
+        log.info("Ready {} ms after JVM start ({} ms to start the application); risk state warmed from {} in {} ms",
+                readyMillis.get(), event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1,
+                warmedFrom, warmMillis.get());
+    }
+
+    @Scheduled(fixedDelayString = "${risk.snapshot.interval-ms:300000}",
+            initialDelayString = "${risk.snapshot.interval-ms:300000}")
+    public void scheduledSnapshot() {
+        snapshot();
+    }
+
+    public synchronized void snapshot() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        long highWaterMark = readOnlyTemplate.execute(status -> transactionRepository.findMaxId());
+        Instant recordedMark = readOnlyTemplate.execute(status -> transactionRepository.findMaxRecordedAt());
+        Map<SnapshotFile.Section, Consumer<SnapshotOutput>> writers = new EnumMap<>(SnapshotFile.Section.class);
+        writers.put(SnapshotFile.Section.TRANSACTION_IDS, transactionIdIndex::writeSnapshot);
+        writers.put(SnapshotFile.Section.DEVICES, deviceIndex::writeSnapshot);
+        writers.put(SnapshotFile.Section.VELOCITY, velocityIndex::writeSnapshot);
+        writers.put(SnapshotFile.Section.PROFILES, aggregator::writeSnapshot);
+        try {
+            snapshotBytes.set(SnapshotFile.write(path, highWaterMark,
+                    recordedMark != null ? recordedMark : Instant.EPOCH, writers));
+        } catch (IOException | RuntimeException ex) {
+            log.error("Failed to write state snapshot {}", path, ex);
+            return;
+        }
+        long elapsed = System.nanoTime() - started;
+        writeTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Wrote state snapshot {} up to transaction {} ({} bytes) in {} ms",
+                path, highWaterMark, snapshotBytes.get(), elapsed / 1_000_000);
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        if (enabled) {
+            aggregator.flush();
+            snapshot();
+        }
+    }
+
+    private boolean restore() {
+        if (!Files.exists(path)) {
+            log.info("No state snapshot at {}, warming from the database", path);
+            return false;
+        }
+        long started = System.nanoTime();
+        SnapshotFile.Contents contents;
+        try {
+            contents = SnapshotFile.read(path);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Ignoring unreadable state snapshot {}: {}", path, ex.getMessage());
+            return false;
+        }
+        long maxId = readOnlyTemplate.execute(status -> transactionRepository.findMaxId());
+        if (contents.highWaterMark() > maxId) {
+            log.warn("Ignoring state snapshot {}: it covers transaction {} but the table ends at {}",
+                    path, contents.highWaterMark(), maxId);
+            return false;
+        }
+        contents.rejected().forEach(section ->
+                log.warn("State snapshot section {} failed its checksum, rebuilding it", section));
+
+        if (!restoreSection(contents, SnapshotFile.Section.TRANSACTION_IDS, transactionIdIndex::restoreSnapshot)) {
+            transactionIdIndex.warm();
+        }
+        if (!restoreSection(contents, SnapshotFile.Section.DEVICES, deviceIndex::restoreSnapshot)) {
+            deviceIndex.clear();
+            deviceIndex.rebuild();
+        }
+        if (!restoreSection(contents, SnapshotFile.Section.VELOCITY, velocityIndex::restoreSnapshot)) {
+            velocityIndex.clear();
+        }
+
+        Instant replayFrom = contents.recordedMark().minusMillis(replaySlackMillis);
+        Set<String> replayedUsers = new HashSet<>();
+        long replayed = replayAfter(replayFrom, replayedUsers);
+
+        int profiles = 0;
+        SnapshotInput profileSection = contents.sections().get(SnapshotFile.Section.PROFILES);
+        if (profileSection != null) {
+            try {
+                profiles = aggregator.restoreSnapshot(profileSection, replayedUsers);
+            } catch (RuntimeException ex) {
+                log.warn("Could not restore profiles from state snapshot {}: {}", path, ex.getMessage());
+            }
+        }
+
+        warmedFrom = "snapshot taken " + contents.createdAt();
+        log.info("Restored state snapshot {} taken {} ({} devices, {} velocity windows, {} profiles) and replayed {} "
+                        + "transactions recorded after {} in {} ms",
+                path, contents.createdAt(), deviceIndex.trackedDevices(), velocityIndex.trackedUsers(), profiles,
+                replayed, replayFrom, (System.nanoTime() - started) / 1_000_000);
+        return true;
+    }
+
+    private boolean restoreSection(SnapshotFile.Contents contents, SnapshotFile.Section section,
+                                   Consumer<SnapshotInput> reader) {
+        SnapshotInput in = contents.sections().get(section);
+        if (in == null) {
+            return false;
+        }
+        try {
+            reader.accept(in);
+            return true;
+        } catch (RuntimeException ex) {
+            log.warn("Could not restore {} from state snapshot {}: {}", section, path, ex.getMessage());
+            return false;
+        }
+    }
+
+    private long replayAfter(Instant since, Set<String> replayedUsers) {
+        AtomicLong replayed = new AtomicLong();
+        readOnlyTemplate.executeWithoutResult(status -> {
+            try (Stream<ReplayEvent> events = transactionRepository.streamReplayEventsRecordedAfter(since)) {
+                events.forEach(event -> {
+                    transactionIdIndex.registerId(event.getTransactionId());
+                    deviceIndex.record(event.getDeviceId(), event.getUserId(), event.getTimestamp());
+                    velocityIndex.replay(event.getUserId(), event.getTransactionId(), event.getTimestamp());
+                    replayedUsers.add(event.getUserId());
+                    replayed.incrementAndGet();
+                });
+            }
+        });
+        return replayed.get();
+    }
+}
@@ -0,0 +1,180 @@
+package com.sucheth.riskwatch.util;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+/**
+ * Fixed-size ring buffers of per-hour and per-day transaction counts, high-risk counts
+ * and score sums. Recording an event touches one slot and clears any slots the ring has
+ * rotated past, so updates are constant time; the whole window packs into a small byte
+ * array stored alongside the profile.
+ */
+public final class ActivityWindow {
+
+    public static final int HOURS = 24;
+    public static final int DAYS = 30;
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final long SECONDS_PER_HOUR = 3_600L;
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    private final Ring hourly;
+    private final Ring daily;
+
+    public ActivityWindow() {
+        this(new Ring(HOURS, SECONDS_PER_HOUR), new Ring(DAYS, SECONDS_PER_DAY));
+    }
+
+    private ActivityWindow(Ring hourly, Ring daily) {
+        this.hourly = hourly;
+        this.daily = daily;
+    }
+
+    public void record(Instant time, double riskScore, boolean highRisk) {
+        add(time, 1, highRisk ? 1 : 0, riskScore);
+    }
+
+    public void unrecord(Instant time, double riskScore, boolean highRisk) {
+        add(time, -1, highRisk ? -1 : 0, -riskScore);
+    }
+
+    public Stats lastHours(int hours, Instant now) {
+        return hourly.stats(Math.min(hours, HOURS), now.getEpochSecond());
+    }
+
+    public Stats lastDays(int days, Instant now) {
+        return daily.stats(Math.min(days, DAYS), now.getEpochSecond());
+    }
+
+    public byte[] pack() {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + hourly.packedSize() + daily.packedSize());
+        buffer.put(FORMAT_VERSION);
+        hourly.pack(buffer);
+        daily.pack(buffer);
+        return buffer.array();
+    }
+
+    public static ActivityWindow unpack(byte[] packed) {
+        if (packed == null || packed.length == 0 || packed[0] != FORMAT_VERSION) {
+            return new ActivityWindow();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(packed, 1, packed.length - 1);
+        Ring hourly = Ring.unpack(buffer, SECONDS_PER_HOUR);
+        Ring daily = hourly == null ? null : Ring.unpack(buffer, SECONDS_PER_DAY);
+        if (daily == null || hourly.slots() != HOURS || daily.slots() != DAYS) {
+            return new ActivityWindow();
+        }
+        return new ActivityWindow(hourly, daily);
+    }
+
+    private void add(Instant time, int transactions, int highRisk, double riskScore) {
+        long epochSecond = time.getEpochSecond();
+        hourly.add(epochSecond, transactions, highRisk, riskScore);
+        daily.add(epochSecond, transactions, highRisk, riskScore);
+    }
+
+    public record Stats(int transactions, int highRiskTransactions, double scoreSum) {
+
+        public double averageRiskScore() {
+            return transactions == 0 ? 0.0 : scoreSum / transactions;
+        }
+    }
+
+    private static final class Ring {
+
+        private static final int SLOT_BYTES = Integer.BYTES + Integer.BYTES + Float.BYTES;
+
+        private final long bucketSeconds;
+        private final int[] counts;
+        private final int[] highRisk;
+        private final float[] scoreSums;
+        private long head = -1;
+
+        private Ring(int slots, long bucketSeconds) {
+            this.bucketSeconds = bucketSeconds;
+            this.counts = new int[slots];
+            this.highRisk = new int[slots];
+            this.scoreSums = new float[slots];
+        }
+
+        private int slots() {
+            return counts.length;
+        }
+
+        private void add(long epochSecond, int transactions, int highRiskTransactions, double riskScore) {
+            long bucket = Math.floorDiv(epochSecond, bucketSeconds);
+            if (head < 0) {
+                head = bucket;
+            } else if (bucket > head) {
+                advanceTo(bucket);
+            } else if (bucket <= head - slots()) {
+                return;
+            }
+            int slot = (int) Math.floorMod(bucket, (long) slots());
+            counts[slot] = Math.max(0, counts[slot] + transactions);
+            highRisk[slot] = Math.max(0, highRisk[slot] + highRiskTransactions);
+            scoreSums[slot] = Math.max(0f, scoreSums[slot] + (float) riskScore);
+        }
+
+        private void advanceTo(long bucket) {
+            long steps = Math.min(bucket - head, slots());
+            for (long b = bucket - steps + 1; b <= bucket; b++) {
+                int slot = (int) Math.floorMod(b, (long) slots());
+                counts[slot] = 0;
+                highRisk[slot] = 0;
+                scoreSums[slot] = 0f;
+            }
+            head = bucket;
+        }
+
+        private Stats stats(int buckets, long nowEpochSecond) {
+            if (head < 0) {
+                return new Stats(0, 0, 0.0);
+            }
+            long newest = Math.floorDiv(nowEpochSecond, bucketSeconds);
+            long oldest = Math.max(newest - buckets, head - slots());
+            int transactions = 0;
+            int high = 0;
+            double sum = 0.0;
+            for (long b = Math.min(newest, head); b > oldest; b--) {
+                int slot = (int) Math.floorMod(b, (long) slots());
+                transactions += counts[slot];
+                high += highRisk[slot];
+                sum += scoreSums[slot];
+            }
+            return new Stats(transactions, high, sum);
+        }
+
+        private int packedSize() {
+            return Integer.BYTES + Long.BYTES + slots() * SLOT_BYTES;
+        }
+
+        private void pack(ByteBuffer buffer) {
+            buffer.putInt(slots());
+            buffer.putLong(head);
+            for (int i = 0; i < slots(); i++) {
+                buffer.putInt(counts[i]);
+                buffer.putInt(highRisk[i]);
+                buffer.putFloat(scoreSums[i]);
+            }
+        }
+
+        private static Ring unpack(ByteBuffer buffer, long bucketSeconds) {
+            if (buffer.remaining() < Integer.BYTES) {
+                return null;
+            }
+            int slots = buffer.getInt();
+            if (slots <= 0 || (long) slots * SLOT_BYTES + Long.BYTES > buffer.remaining()) {
+                return null;
+            }
+            Ring ring = new Ring(slots, bucketSeconds);
+            ring.head = buffer.getLong();
+            for (int i = 0; i < slots; i++) {
+                ring.counts[i] = buffer.getInt();
+                ring.highRisk[i] = buffer.getInt();
+                ring.scoreSums[i] = buffer.getFloat();
+            }
+            return ring;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.sucheth.riskwatch.util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Streaming quantile sketch of transaction amounts using logarithmic buckets with a fixed
+ * relative accuracy (each bucket spans about 10% of its value). Recording and ranking an
+ * amount are bounded by the number of occupied buckets and never allocate once the
+ * bucket range covers the user's spend. When the total count reaches the cap every bucket
+ * is halved, so older history fades and counts stay small. Amounts are clamped to
+ * {@link #MAX_AMOUNT}, which bounds the bucket range and with it the packed size: a sketch
+ * never packs to more than {@link #MAX_PACKED_BYTES} varint-encoded bytes.
+ */
+public final class AmountSketch {
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final double GAMMA = 1.1;
+    private static final double INV_LOG_GAMMA = 1.0 / Math.log(GAMMA);
+    private static final double MIN_AMOUNT = 0.01;
+    private static final int MAX_COUNT = 10_000;
+
+    public static final double MAX_AMOUNT = 1_000_000_000.0;
+
+    private static final int MIN_INDEX = index(MIN_AMOUNT);
+    private static final int MAX_INDEX = index(MAX_AMOUNT);
+    private static final int MAX_BUCKETS = MAX_INDEX - MIN_INDEX + 1;
+
+    /**
+     * Version byte, bucket count and offset at up to five bytes each, and every count
+     * below {@code MAX_COUNT}, which fits in two.
+     */
+    public static final int MAX_PACKED_BYTES = 11 + MAX_BUCKETS * 2;
+
+    private int offset;
+    private int[] counts;
+    private int total;
+
+    public void record(double amount) {
+        int index = index(amount);
+        ensureCovers(index);
+        counts[index - offset]++;
+        if (++total >= MAX_COUNT) {
+            halve();
+        }
+    }
+
+    public void unrecord(double amount) {
+        int index = index(amount);
+        if (counts == null || index < offset || index >= offset + counts.length || counts[index - offset] == 0) {
+            return;
+        }
+        counts[index - offset]--;
+        total--;
+    }
+
+    public int count() {
+        return total;
+    }
+
+    public double percentile(double amount) {
+        if (total == 0) {
+            return Double.NaN;
+        }
+        int index = index(amount);
+        if (index < offset) {
+            return 0.0;
+        }
+        if (index >= offset + counts.length) {
+            return 1.0;
+        }
+        long below = 0;
+        for (int i = 0; i < index - offset; i++) {
+            below += counts[i];
+        }
+        return (below + counts[index - offset] / 2.0) / total;
+    }
+
+    public double quantile(double q) {
+        if (total == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank && counts[i] > 0) {
+                return Math.pow(GAMMA, offset + i + 0.5);
+            }
+        }
+        return Math.pow(GAMMA, offset + counts.length - 0.5);
+    }
+
+    public byte[] pack() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + (counts == null ? 0 : counts.length * 2));
+        out.write(FORMAT_VERSION);
+        if (counts == null) {
+            writeVarint(out, 0);
+            return out.toByteArray();
+        }
+        writeVarint(out, counts.length);
+        writeVarint(out, zigzag(offset));
+        for (int count : counts) {
+            writeVarint(out, count);
+        }
+        return out.toByteArray();
+    }
+
+    public static AmountSketch unpack(byte[] packed) {
+        AmountSketch sketch = new AmountSketch();
+        if (packed == null || packed.length < 2 || packed[0] != FORMAT_VERSION) {
+            return sketch;
+        }
+        int[] position = {1};
+        int length = readVarint(packed, position);
+        if (length <= 0 || length > packed.length || length > MAX_BUCKETS) {
+            return sketch;
+        }
+        int encodedOffset = readVarint(packed, position);
+        if (encodedOffset < 0) {
+            return sketch;
+        }
+        int offset = unzigzag(encodedOffset);
+        if (offset < MIN_INDEX || offset + length - 1 > MAX_INDEX) {
+            return sketch;
+        }
+        int[] counts = new int[length];
+        int total = 0;
+        for (int i = 0; i < length; i++) {
+            int count = readVarint(packed, position);
+            if (count < 0 || count >= MAX_COUNT) {
+                return new AmountSketch();
+            }
+            counts[i] = count;
+            total += count;
+        }
+        sketch.offset = offset;
+        sketch.counts = counts;
+        sketch.total = total;
+        return sketch;
+    }
+
+    private void ensureCovers(int index) {
+        if (counts == null) {
+            offset = Math.min(index, MAX_INDEX - 3);
+            counts = new int[4];
+            return;
+        }
+        if (index < offset) {
+            int grow = Math.max(offset - index, counts.length / 2);
+            int newOffset = Math.max(MIN_INDEX, offset - grow);
+            int[] grown = new int[counts.length + (offset - newOffset)];
+            System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+            counts = grown;
+            offset = newOffset;
+        } else if (index >= offset + counts.length) {
+            int needed = index - offset + 1;
+            int grown = Math.max(needed, counts.length + counts.length / 2);
+            counts = Arrays.copyOf(counts, Math.min(grown, MAX_INDEX - offset + 1));
+        }
+    }
+
+    private void halve() {
+        total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] >>>= 1;
+            total += counts[i];
+        }
+    }
+
+    private static int index(double amount) {
+        return (int) Math.floor(Math.log(Math.min(Math.max(amount, MIN_AMOUNT), MAX_AMOUNT)) * INV_LOG_GAMMA);
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] bytes, int[] position) {
+        int value = 0;
+        for (int shift = 0; shift < 32 && position[0] < bytes.length; shift += 7) {
+            byte b = bytes[position[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,85 @@
+package com.sucheth.riskwatch.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent-hash ring over a set of member names. Each member is placed at a
+ * number of virtual points, and a key belongs to the member owning the first point at or
+ * after the key's hash, so adding or removing one member only moves the keys on that
+ * member's arcs.
+ */
+public final class ConsistentHashRing {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final List<String> members;
+    private final long[] points;
+    private final int[] owners;
+
+    public ConsistentHashRing(Iterable<String> members, int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be positive");
+        }
+        TreeSet<String> sorted = new TreeSet<>();
+        members.forEach(sorted::add);
+        if (sorted.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one member");
+        }
+        this.members = List.copyOf(sorted);
+
+        long[] placed = new long[this.members.size() * virtualNodes];
+        int[] placedOwners = new int[placed.length];
+        for (int m = 0; m < this.members.size(); m++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                int i = m * virtualNodes + v;
+                placed[i] = hash(this.members.get(m) + "#" + v);
+                placedOwners[i] = m;
+            }
+        }
+        Integer[] order = new Integer[placed.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> placed[a] != placed[b]
+                ? Long.compare(placed[a], placed[b])
+                : Integer.compare(placedOwners[a], placedOwners[b]));
+        this.points = new long[placed.length];
+        this.owners = new int[placed.length];
+        for (int i = 0; i < order.length; i++) {
+            points[i] = placed[order[i]];
+            owners[i] = placedOwners[order[i]];
+        }
+    }
+
+    public String ownerOf(String key) {
+        int i = Arrays.binarySearch(points, hash(key));
+        if (i < 0) {
+            i = -i - 1;
+        } else {
+            while (i > 0 && points[i - 1] == points[i]) {
+                i--;
+            }
+        }
+        return members.get(owners[i == points.length ? 0 : i]);
+    }
+
+    public List<String> members() {
+        return members;
+    }
+
+    private static long hash(String value) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * FNV_PRIME;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe1a85ec3L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,65 @@
+package com.sucheth.riskwatch.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded multi-producer ring of events addressed by a global sequence number. Publishing
+ * claims a sequence with one atomic increment and overwrites the oldest slot, so producers
+ * never wait for readers. Readers keep their own next sequence and poll: a slot still
+ * holding an older sequence means the event is not published yet, and one holding a newer
+ * sequence means the reader fell more than a ring behind and the event is gone.
+ */
+public final class EventRing<T> {
+
+    private final AtomicReferenceArray<Slot<T>> slots;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+
+    public EventRing(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public long publish(T event) {
+        long sequence = claimed.getAndIncrement();
+        slots.set((int) (sequence & mask), new Slot<>(sequence, event));
+        return sequence;
+    }
+
+    /**
+     * @return the event at {@code sequence}, or null if it is not published yet or was
+     * overwritten
+     */
+    public T get(long sequence) {
+        Slot<T> slot = slots.get((int) (sequence & mask));
+        return slot != null && slot.sequence() == sequence ? slot.event() : null;
+    }
+
+    public boolean isOverwritten(long sequence) {
+        Slot<T> slot = slots.get((int) (sequence & mask));
+        return slot != null && slot.sequence() > sequence;
+    }
+
+    /**
+     * @return the sequence the next publish will claim
+     */
+    public long nextSequence() {
+        return claimed.get();
+    }
+
+    public long oldestSequence() {
+        return Math.max(0, claimed.get() - capacity());
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    private record Slot<T>(long sequence, T event) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.sucheth.riskwatch.util;
+
+import com.sucheth.riskwatch.model.enums.RiskLevel;
+import com.sucheth.riskwatch.model.enums.UserRiskLevel;
+
+public final class RiskScoringUtils {
+
+    public static final double MEDIUM_RISK_SCORE = 0.4;
+    public static final double HIGH_RISK_SCORE = 0.7;
+    public static final double USER_MEDIUM_RISK_THRESHOLD = 0.4;
+    public static final double USER_HIGH_RISK_THRESHOLD = 0.7;
+    public static final double HIGH_RISK_TRANSACTION_SCORE = 0.8;
+    public static final int FLAG_HIGH_RISK_TRANSACTION_COUNT = 5;
+    public static final int FLAG_RECENT_HIGH_RISK_TRANSACTION_COUNT = 3;
+    public static final int RECENT_WINDOW_HOURS = 24;
+
+    private RiskScoringUtils() {
+    }
+
+    public static RiskLevel computeRiskLevel(double score) {
+        if (score >= HIGH_RISK_SCORE) {
+            return RiskLevel.HIGH;
+        } else if (score >= MEDIUM_RISK_SCORE) {
+            return RiskLevel.MEDIUM;
+        } else {
+            return RiskLevel.LOW;
+        }
+    }
+
+    public static UserRiskLevel computeUserRiskLevel(double avgRiskScore) {
+        if (avgRiskScore < USER_MEDIUM_RISK_THRESHOLD) {
+            return UserRiskLevel.LOW;
+        } else if (avgRiskScore < USER_HIGH_RISK_THRESHOLD) {
+            return UserRiskLevel.MEDIUM;
+        } else {
+            return UserRiskLevel.HIGH;
+        }
+    }
+
+    public static boolean isFlagged(UserRiskLevel level, int highRiskTransactionCount) {
+        return level == UserRiskLevel.HIGH || highRiskTransactionCount >= FLAG_HIGH_RISK_TRANSACTION_COUNT;
+    }
+
+    public static boolean isFlagged(UserRiskLevel level, int highRiskTransactionCount, int recentHighRiskTransactionCount) {
+        return isFlagged(level, highRiskTransactionCount)
+                || recentHighRiskTransactionCount >= FLAG_RECENT_HIGH_RISK_TRANSACTION_COUNT;
+    }
+
+    public static boolean isHighRiskTransaction(RiskLevel level, double riskScore) {
+        return level == RiskLevel.HIGH || riskScore >= HIGH_RISK_TRANSACTION_SCORE;
+    }
+}
@@ -0,0 +1,56 @@
+package com.sucheth.riskwatch.util;
+
+/**
+ * Token bucket refilled continuously at a fixed rate up to its burst capacity. Not
+ * thread-safe; callers guard each bucket with their own lock.
+ */
+public final class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(double ratePerSecond, double capacity, long nowNanos) {
+        if (ratePerSecond <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("rate must be positive and capacity at least 1");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = ratePerSecond / NANOS_PER_SECOND;
+        this.tokens = capacity;
+        this.refilledAt = nowNanos;
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be
+     */
+    public long tryAcquire(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano));
+    }
+
+    /**
+     * @return whether the bucket has refilled completely, i.e. it is indistinguishable
+     * from a new one
+     */
+    public boolean isFull(long nowNanos) {
+        refill(nowNanos);
+        return tokens >= capacity;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - refilledAt;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            refilledAt = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.sucheth.riskwatch.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.sucheth.riskwatch.dto.internal.UserRiskProfileDelta;
+import com.sucheth.riskwatch.model.Transaction;
+import com.sucheth.riskwatch.model.UserRiskProfile;
+import com.sucheth.riskwatch.model.enums.RiskLevel;
+import com.sucheth.riskwatch.model.enums.UserRiskLevel;
+import com.sucheth.riskwatch.service.UserRiskProfileAggregator;
+import com.sucheth.riskwatch.service.UserRiskProfileService;
+
+@SpringBootTest
+class UserRiskProfileRepositoryConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int UPDATES_PER_THREAD = 250;
+
+    @Autowired
+    private UserRiskProfileRepository userRiskProfileRepository;
+
+    @Autowired
+    private UserRiskProfileService userRiskProfileService;
+
+    @Autowired
+    private UserRiskProfileAggregator userRiskProfileAggregator;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentUpsertsForOneUserAreNotLost() throws Exception {
+        String userId = "upsert-" + UUID.randomUUID();
+        userRiskProfileRepository.upsertDeltas(List.of(new UserRiskProfileDelta(userId, 1, 0.1, 0, Instant.now())));
+
+        hammer(i -> {
+            boolean high = i % 4 == 0;
+            userRiskProfileRepository.upsertDeltas(List.of(
+                    new UserRiskProfileDelta(userId, 1, high ? 0.9 : 0.1, high ? 1 : 0, Instant.now())));
+        });
+
+        int updates = THREADS * UPDATES_PER_THREAD;
+        int highRisk = updates / 4;
+        UserRiskProfile profile = userRiskProfileRepository.findById(userId).orElseThrow();
+        assertThat(profile.getTotalTransactions()).isEqualTo(updates + 1);
+        assertThat(profile.getHighRiskTransactionCount()).isEqualTo(highRisk);
+        assertThat(profile.getAverageRiskScore())
+                .isCloseTo((highRisk * 0.9 + (updates - highRisk + 1) * 0.1) / (updates + 1), within(1e-9));
+        assertThat(profile.getUserRiskLevel()).isEqualTo(UserRiskLevel.LOW);
+        assertThat(profile.getIsFlagged()).isTrue();
+    }
+
+    @Test
+    void concurrentProfileUpdatesForOneUserAreNotLost() throws Exception {
+        String userId = "service-" + UUID.randomUUID();
+
+        hammer(i -> {
+            boolean high = i % 2 == 0;
+            userRiskProfileService.updateUserRiskProfile(Transaction.builder()
+                    .transactionId(UUID.randomUUID().toString())
+                    .userId(userId)
+                    .amount(10.0)
+                    .timestamp(Instant.now())
+                    .riskScore(high ? 0.7 : 0.3)
+                    .riskLevel(high ? RiskLevel.HIGH : RiskLevel.LOW)
+                    .build());
+            if (i % 50 == 0) {
+                userRiskProfileAggregator.flush();
+            }
+        });
+        userRiskProfileAggregator.flush();
+
+        int updates = THREADS * UPDATES_PER_THREAD;
+        UserRiskProfile profile = userRiskProfileRepository.findById(userId).orElseThrow();
+        assertThat(profile.getTotalTransactions()).isEqualTo(updates);
+        assertThat(profile.getHighRiskTransactionCount()).isEqualTo(updates / 2);
+        assertThat(profile.getAverageRiskScore()).isCloseTo(0.5, within(1e-9));
+        assertThat(profile.getUserRiskLevel()).isEqualTo(UserRiskLevel.MEDIUM);
+        assertThat(userRiskProfileService.getProfileByUserId(userId).getTotalTransactions()).isEqualTo(updates);
+    }
+
+    private void hammer(IndexedAction action) throws Exception {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            tasks.add(() -> {
+                for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                    action.run(thread * UPDATES_PER_THREAD + i);
+                }
+                return null;
+            });
+        }
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+            future.get();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexedAction {
+        void run(int index);
+    }
+}
@@ -0,0 +1,71 @@
+package com.sucheth.riskwatch.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.sucheth.riskwatch.dto.internal.TransactionStamp;
+import com.sucheth.riskwatch.repository.TransactionRepository;
+
+class VelocityIndexTest {
+
+    private static final String USER = "user-1";
+
+    private final TransactionRepository repository = mock(TransactionRepository.class);
+    private final VelocityIndex index = new VelocityIndex(repository, 2, 4);
+    private final Instant now = Instant.now();
+    private final Instant cutoff = now.minusSeconds(120);
+
+    @Test
+    void seedingKeepsTransactionsThatShareATimestamp() {
+        when(repository.findStampsByUserIdAndTimestampAfter(USER, cutoff))
+                .thenReturn(List.of(new TransactionStamp("tx-1", now), new TransactionStamp("tx-2", now)));
+
+        assertThat(index.countAfter(USER, cutoff)).isEqualTo(2);
+    }
+
+    @Test
+    void eventsRecordedWhileSeedingAreMergedByTransactionId() {
+        when(repository.findStampsByUserIdAndTimestampAfter(eq(USER), any())).thenAnswer(invocation -> {
+            index.record(USER, "tx-1", now);
+            index.record(USER, "tx-2", now);
+            return List.of(new TransactionStamp("tx-1", now));
+        });
+
+        assertThat(index.countAfter(USER, cutoff)).isEqualTo(2);
+    }
+
+    @Test
+    void replayAddsSameTimestampTransactionsOnce() {
+        when(repository.findStampsByUserIdAndTimestampAfter(USER, cutoff))
+                .thenReturn(List.of(new TransactionStamp("tx-1", now)));
+        assertThat(index.countAfter(USER, cutoff)).isEqualTo(1);
+
+        index.replay(USER, "tx-2", now);
+        index.replay(USER, "tx-1", now);
+        index.replay(USER, "tx-2", now);
+
+        assertThat(index.countAfter(USER, cutoff)).isEqualTo(2);
+    }
+
+    @Test
+    void widerSeedKeepsSameTimestampTransactionsOfTheNarrowerWindow() {
+        Instant narrower = now.minusSeconds(30);
+        when(repository.findStampsByUserIdAndTimestampAfter(USER, narrower)).thenReturn(List.of());
+        assertThat(index.countAfter(USER, narrower)).isZero();
+        index.record(USER, "tx-1", now);
+        index.record(USER, "tx-2", now);
+
+        when(repository.findStampsByUserIdAndTimestampAfter(USER, cutoff))
+                .thenReturn(List.of(new TransactionStamp("tx-1", now)));
+
+        assertThat(index.countAfter(USER, cutoff)).isEqualTo(2);
+    }
+}
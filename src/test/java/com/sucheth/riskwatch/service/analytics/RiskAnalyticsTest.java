@@ -0,0 +1,64 @@
+package com.sucheth.riskwatch.service.analytics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sucheth.riskwatch.dto.api.TransactionRequest;
+import com.sucheth.riskwatch.service.TransactionService;
+
+@SpringBootTest
+class RiskAnalyticsTest {
+
+    private static final Duration WINDOW = Duration.ofHours(1);
+    private static final Duration STEP = Duration.ofMinutes(1);
+
+    @Autowired
+    private RiskAnalytics riskAnalytics;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void committedEvaluationsAreCounted() {
+        long before = riskAnalytics.query(WINDOW, STEP).getTransactions();
+
+        transactionService.evaluateAndSave(request());
+
+        assertThat(riskAnalytics.query(WINDOW, STEP).getTransactions()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void rolledBackEvaluationsLeaveTheCountersUnchanged() {
+        long before = riskAnalytics.query(WINDOW, STEP).getTransactions();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            transactionService.evaluateAndSave(request());
+            status.setRollbackOnly();
+        });
+
+        assertThat(riskAnalytics.query(WINDOW, STEP).getTransactions()).isEqualTo(before);
+    }
+
+    private static TransactionRequest request() {
+        String userId = "analytics-" + UUID.randomUUID();
+        TransactionRequest request = new TransactionRequest();
+        request.setTransactionId(userId + "-0");
+        request.setUserId(userId);
+        request.setAmount(25.0);
+        request.setTimestamp(Instant.now());
+        request.setDeviceId("device-" + userId);
+        request.setLocation("Bengaluru");
+        return request;
+    }
+}
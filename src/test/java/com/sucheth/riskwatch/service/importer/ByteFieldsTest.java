@@ -0,0 +1,76 @@
+package com.sucheth.riskwatch.service.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import com.sucheth.riskwatch.model.enums.RiskLevel;
+
+class ByteFieldsTest {
+
+    @Test
+    void parsesLongs() {
+        assertThat(ByteFields.parseLong(bytes("12345"), 0, 5)).isEqualTo(12_345L);
+        assertThat(ByteFields.parseLong(bytes("-42"), 0, 3)).isEqualTo(-42L);
+        assertThat(ByteFields.parseLong(bytes("+7"), 0, 2)).isEqualTo(7L);
+        assertThat(ByteFields.parseLong(bytes("9223372036854775807"), 0, 19)).isEqualTo(Long.MAX_VALUE);
+        assertThatThrownBy(() -> ByteFields.parseLong(bytes("12a"), 0, 3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ByteFields.parseLong(bytes(""), 0, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void parsesDoublesOnTheFastAndSlowPaths() {
+        assertThat(ByteFields.parseDouble(bytes("125.50"), 0, 6)).isEqualTo(125.5);
+        assertThat(ByteFields.parseDouble(bytes("-0.1"), 0, 4)).isEqualTo(-0.1);
+        assertThat(ByteFields.parseDouble(bytes("42"), 0, 2)).isEqualTo(42.0);
+        assertThat(ByteFields.parseDouble(bytes("1.5e3"), 0, 5)).isEqualTo(1_500.0);
+        assertThat(ByteFields.parseDouble(bytes("12345678901234567890.5"), 0, 22)).isEqualTo(12345678901234567890.5);
+        assertThatThrownBy(() -> ByteFields.parseDouble(bytes("abc"), 0, 3)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void parsesFieldsInsideALargerBuffer() {
+        ByteBuffer buffer = bytes("x,99.25,y");
+
+        assertThat(ByteFields.parseDouble(buffer, 2, 7)).isEqualTo(99.25);
+        assertThat(ByteFields.text(buffer, 2, 7)).isEqualTo("99.25");
+    }
+
+    @Test
+    void parsesTimestamps() {
+        assertThat(micros("2025-03-01T10:15:30Z")).isEqualTo(epochMicros("2025-03-01T10:15:30Z"));
+        assertThat(micros("2025-03-01T10:15:30.123456789Z")).isEqualTo(epochMicros("2025-03-01T10:15:30.123456Z"));
+        assertThat(micros("2025-03-01 10:15:30.5+05:30")).isEqualTo(epochMicros("2025-03-01T04:45:30.5Z"));
+        assertThat(micros("2024-02-29T00:00:00-01:00")).isEqualTo(epochMicros("2024-02-29T01:00:00Z"));
+        assertThat(micros("1740824130000")).isEqualTo(1_740_824_130_000_000L);
+        assertThatThrownBy(() -> micros("2025-02-30T00:00:00Z")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> micros("yesterday")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void parsesRiskLevelsIgnoringCase() {
+        assertThat(ByteFields.parseRiskLevel(bytes("high"), 0, 4)).isEqualTo(RiskLevel.HIGH);
+        assertThat(ByteFields.parseRiskLevel(bytes("Low"), 0, 3)).isEqualTo(RiskLevel.LOW);
+        assertThatThrownBy(() -> ByteFields.parseRiskLevel(bytes("severe"), 0, 6))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long micros(String text) {
+        ByteBuffer buffer = bytes(text);
+        return ByteFields.parseEpochMicros(buffer, 0, buffer.limit());
+    }
+
+    private static long epochMicros(String iso) {
+        Instant instant = Instant.parse(iso);
+        return instant.getEpochSecond() * 1_000_000L + instant.getNano() / 1_000L;
+    }
+
+    private static ByteBuffer bytes(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,97 @@
+package com.sucheth.riskwatch.service.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.sucheth.riskwatch.model.enums.RiskLevel;
+
+class CsvRecordParserTest {
+
+    private static final String HEADER = "transaction_id,userId,amount,timestamp,deviceId,location,riskScore,riskLevel";
+
+    private final CsvRecordParser parser = new CsvRecordParser(new StringCache(64));
+
+    @Test
+    void readsRowsByHeaderName() {
+        assertThat(parse(HEADER)).isNull();
+
+        ImportRecord record = parse("tx-1,user-1,120.5,1740824130000,device-1,Bengaluru,0.4,medium");
+
+        assertThat(record.transactionId).isEqualTo("tx-1");
+        assertThat(record.userId).isEqualTo("user-1");
+        assertThat(record.amount).isEqualTo(120.5);
+        assertThat(record.epochMicros).isEqualTo(1_740_824_130_000_000L);
+        assertThat(record.deviceId).isEqualTo("device-1");
+        assertThat(record.location).isEqualTo("Bengaluru");
+        assertThat(record.riskScore).isEqualTo(0.4);
+        assertThat(record.riskLevel).isEqualTo(RiskLevel.MEDIUM);
+    }
+
+    @Test
+    void headerColumnsMayComeInAnyOrderWithUnknownOnesSkipped() {
+        parse("Amount,extra,TIMESTAMP,user_id,transactionId");
+
+        ImportRecord record = parse("9.99,ignored,1740824130000,user-2,tx-2");
+
+        assertThat(record.transactionId).isEqualTo("tx-2");
+        assertThat(record.userId).isEqualTo("user-2");
+        assertThat(record.amount).isEqualTo(9.99);
+        assertThat(record.deviceId).isNull();
+    }
+
+    @Test
+    void missingRequiredColumnIsRejected() {
+        assertThatThrownBy(() -> parse("transactionId,userId,timestamp"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("amount");
+    }
+
+    @Test
+    void quotedFieldsKeepCommasAndUnescapeDoubledQuotes() {
+        parse(HEADER);
+
+        ImportRecord record = parse("\"tx,3\",user-3,5,1740824130000,\"dev \"\"A\"\"\",\"Pune, MH\",,");
+
+        assertThat(record.transactionId).isEqualTo("tx,3");
+        assertThat(record.deviceId).isEqualTo("dev \"A\"");
+        assertThat(record.location).isEqualTo("Pune, MH");
+        assertThat(record.riskLevel).isNull();
+    }
+
+    @Test
+    void malformedQuotingIsRejected() {
+        parse(HEADER);
+
+        assertThatThrownBy(() -> parse("\"tx-4,user-4,5,1740824130000"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("unterminated");
+        assertThatThrownBy(() -> parse("\"tx-4\"x,user-4,5,1740824130000"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void byteOrderMarkBeforeTheHeaderIsSkipped() {
+        byte[] header = ("﻿" + HEADER).getBytes(StandardCharsets.UTF_8);
+        assertThat(parser.parse(ByteBuffer.wrap(header), 0, header.length, new ImportRecord())).isFalse();
+
+        assertThat(parse("tx-5,user-5,1,1740824130000").transactionId).isEqualTo("tx-5");
+    }
+
+    @Test
+    void blankLinesCarryNoRecord() {
+        parse(HEADER);
+
+        assertThat(parse("")).isNull();
+    }
+
+    private ImportRecord parse(String line) {
+        byte[] bytes = ("##" + line + "##").getBytes(StandardCharsets.UTF_8);
+        ImportRecord record = new ImportRecord();
+        return parser.parse(ByteBuffer.wrap(bytes), 2, bytes.length - 2, record) ? record : null;
+    }
+}
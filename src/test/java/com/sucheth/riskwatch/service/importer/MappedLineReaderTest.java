@@ -0,0 +1,103 @@
+package com.sucheth.riskwatch.service.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedLineReaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void splitsLinesAndStripsCarriageReturns() throws IOException {
+        assertThat(read("one\r\ntwo\nthree\r\n", 1024)).containsExactly("one", "two", "three");
+    }
+
+    @Test
+    void lastLineWithoutNewlineIsDelivered() throws IOException {
+        assertThat(read("one\ntwo", 1024)).containsExactly("one", "two");
+    }
+
+    @Test
+    void blankLinesAreDeliveredAsEmpty() throws IOException {
+        assertThat(read("one\n\r\n\nfour\n", 1024)).containsExactly("one", "", "", "four");
+    }
+
+    @Test
+    void linesAreNeverSplitAcrossWindows() throws IOException {
+        StringBuilder content = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String line = "line-" + i + "-" + "x".repeat(i % 7);
+            expected.add(line);
+            content.append(line).append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+
+        for (int window : new int[] {17, 18, 23, 64}) {
+            assertThat(read(content.toString(), window)).as("window %d", window).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void lineEndingExactlyAtAWindowBoundaryIsNotRepeated() throws IOException {
+        assertThat(read("1234567\nabcdefg\nlast", 8)).containsExactly("1234567", "abcdefg", "last");
+        assertThat(read("123456\r\nabc\n", 8)).containsExactly("123456", "abc");
+    }
+
+    @Test
+    void lineLongerThanTheWindowIsRejected() {
+        assertThatThrownBy(() -> read("short\n" + "y".repeat(40) + "\nafter\n", 16))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("longer than the 16 byte mapping window");
+    }
+
+    @Test
+    void overLongFinalLineFitsWhenItEndsTheFile() throws IOException {
+        assertThat(read("a\n" + "z".repeat(10), 16)).containsExactly("a", "z".repeat(10));
+    }
+
+    @Test
+    void countsLinesAndConsumedBytes() throws IOException {
+        Path file = write("a\r\nbb\nccc");
+        MappedLineReader reader = new MappedLineReader(4);
+        List<Long> lineNumbers = new ArrayList<>();
+        List<Long> consumed = new ArrayList<>();
+
+        reader.read(file, (buffer, from, to, lineNumber) -> {
+            lineNumbers.add(lineNumber);
+            consumed.add(reader.consumed());
+        });
+
+        assertThat(lineNumbers).containsExactly(1L, 2L, 3L);
+        assertThat(consumed).containsExactly(3L, 6L, 9L);
+        assertThat(reader.consumed()).isEqualTo(Files.size(file));
+    }
+
+    @Test
+    void emptyFileHasNoLines() throws IOException {
+        assertThat(read("", 16)).isEmpty();
+    }
+
+    private List<String> read(String content, int windowBytes) throws IOException {
+        List<String> lines = new ArrayList<>();
+        new MappedLineReader(windowBytes).read(write(content),
+                (buffer, from, to, lineNumber) -> lines.add(ByteFields.text(buffer, from, to)));
+        return lines;
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = Files.createTempFile(directory, "import", ".txt");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
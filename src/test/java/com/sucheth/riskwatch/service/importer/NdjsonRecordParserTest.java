@@ -0,0 +1,79 @@
+package com.sucheth.riskwatch.service.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.sucheth.riskwatch.model.enums.RiskLevel;
+
+class NdjsonRecordParserTest {
+
+    private final NdjsonRecordParser parser = new NdjsonRecordParser(new JsonFactory(), new StringCache(64));
+
+    @Test
+    void readsKnownFieldsAndSkipsTheRest() {
+        ImportRecord record = parse("{\"transactionId\":\"tx-1\",\"userId\":\"user-1\",\"amount\":120.5,"
+                + "\"timestamp\":\"2025-03-01T10:15:30Z\",\"deviceId\":\"device-1\",\"location\":\"Pune\","
+                + "\"extra\":{\"nested\":[1,2]},\"riskScore\":0.8,\"riskLevel\":\"high\",\"reasonCodes\":5}");
+
+        assertThat(record.transactionId).isEqualTo("tx-1");
+        assertThat(record.userId).isEqualTo("user-1");
+        assertThat(record.amount).isEqualTo(120.5);
+        assertThat(record.epochMicros).isEqualTo(1_740_824_130_000_000L);
+        assertThat(record.deviceId).isEqualTo("device-1");
+        assertThat(record.location).isEqualTo("Pune");
+        assertThat(record.riskScore).isEqualTo(0.8);
+        assertThat(record.riskLevel).isEqualTo(RiskLevel.HIGH);
+        assertThat(record.reasonCodes).isEqualTo(5L);
+    }
+
+    @Test
+    void numericTimestampsAreMillisWhenIntegralAndSecondsOtherwise() {
+        assertThat(parse("{\"timestamp\":1740824130000}").epochMicros).isEqualTo(1_740_824_130_000_000L);
+        assertThat(parse("{\"timestamp\":1740824130.5}").epochMicros).isEqualTo(1_740_824_130_500_000L);
+    }
+
+    @Test
+    void escapedStringsAndNullsAreHandled() {
+        ImportRecord record = parse("{\"transactionId\":\"tx-\\\"2\\\"\",\"location\":\"S\\u00e3o Paulo\",\"deviceId\":null}");
+
+        assertThat(record.transactionId).isEqualTo("tx-\"2\"");
+        assertThat(record.location).isEqualTo("São Paulo");
+        assertThat(record.deviceId).isNull();
+    }
+
+    @Test
+    void byteOrderMarkIsSkipped() {
+        assertThat(parse("﻿{\"transactionId\":\"tx-3\"}").transactionId).isEqualTo("tx-3");
+    }
+
+    @Test
+    void malformedLinesAreRejected() {
+        assertThatThrownBy(() -> parse("[1,2]")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> parse("{\"transactionId\":\"tx-4\"")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> parse("{\"riskLevel\":\"severe\"}")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void blankLinesCarryNoRecord() {
+        assertThat(parse("")).isNull();
+    }
+
+    @Test
+    void linesLongerThanTheScratchBufferAreRead() {
+        String id = "tx-" + "x".repeat(2_000);
+
+        assertThat(parse("{\"transactionId\":\"" + id + "\"}").transactionId).isEqualTo(id);
+    }
+
+    private ImportRecord parse(String line) {
+        byte[] bytes = ("\n" + line + "\n").getBytes(StandardCharsets.UTF_8);
+        ImportRecord record = new ImportRecord();
+        return parser.parse(ByteBuffer.wrap(bytes), 1, bytes.length - 1, record) ? record : null;
+    }
+}
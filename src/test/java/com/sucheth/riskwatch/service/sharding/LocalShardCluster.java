@@ -0,0 +1,149 @@
+package com.sucheth.riskwatch.service.sharding;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.sucheth.riskwatch.RiskWatchApplication;
+
+/**
+ * Several sharded instances of the application in one JVM, each on its own localhost port
+ * and all sharing one in-memory H2 database. Instances are started one after another so
+ * only the first creates the schema.
+ */
+public final class LocalShardCluster implements AutoCloseable {
+
+    private final List<ConfigurableApplicationContext> instances = new ArrayList<>();
+    private final List<URI> urls = new ArrayList<>();
+
+    private LocalShardCluster() {
+    }
+
+    /**
+     * @param extraProperties {@code name=value} pairs applied to every instance, replacing the defaults
+     */
+    public static LocalShardCluster start(int size, String... extraProperties) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        String database = "jdbc:h2:mem:shard-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+        LocalShardCluster cluster = new LocalShardCluster();
+        try {
+            for (int i = 0; i < size; i++) {
+                int port = freePort();
+                String self = "http://localhost:" + port;
+                Map<String, String> properties = new LinkedHashMap<>();
+                properties.put("server.port", String.valueOf(port));
+                properties.put("spring.datasource.url", database);
+                properties.put("spring.main.banner-mode", "off");
+                properties.put("spring.jpa.show-sql", "false");
+                properties.put("risk.sharding.enabled", "true");
+                properties.put("risk.sharding.self", self);
+                properties.put("risk.sharding.heartbeat-ms", "250");
+                properties.put("risk.sharding.member-timeout-ms", "3000");
+                properties.put("risk.sharding.catch-up-interval-ms", "250");
+                properties.put("risk.rate-limit.enabled", "false");
+                // devtools would shut the shared in-memory database down when any one instance stops
+                properties.put("spring.autoconfigure.exclude",
+                        "org.springframework.boot.devtools.autoconfigure.DevToolsDataSourceAutoConfiguration");
+                properties.put("logging.level.root", "WARN");
+                properties.put("logging.level.com.sucheth.riskwatch.service.sharding", "INFO");
+                for (String property : extraProperties) {
+                    int split = property.indexOf('=');
+                    properties.put(property.substring(0, split), property.substring(split + 1));
+                }
+                String[] args = properties.entrySet().stream()
+                        .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                        .toArray(String[]::new);
+                cluster.instances.add(new SpringApplicationBuilder(RiskWatchApplication.class)
+                        .web(WebApplicationType.SERVLET)
+                        .run(args));
+                cluster.urls.add(URI.create(self));
+            }
+            cluster.awaitMembers(size, Duration.ofSeconds(30));
+            return cluster;
+        } catch (RuntimeException | InterruptedException ex) {
+            cluster.close();
+            throw new IllegalStateException("Could not start a cluster of " + size + " instances", ex);
+        }
+    }
+
+    public int size() {
+        return instances.size();
+    }
+
+    public URI url(int index) {
+        return urls.get(index);
+    }
+
+    public List<URI> urls() {
+        return List.copyOf(urls);
+    }
+
+    public <T> T bean(int index, Class<T> type) {
+        return instances.get(index).getBean(type);
+    }
+
+    /**
+     * Waits until every running instance sees exactly the running instances as ring members
+     * and no longer waits on another member to hand users off.
+     */
+    public void awaitMembers(int expected, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            List<String> running = new ArrayList<>();
+            for (int i = 0; i < instances.size(); i++) {
+                if (instances.get(i).isActive()) {
+                    running.add(urls.get(i).toString());
+                }
+            }
+            List<String> sorted = running.stream().sorted().collect(Collectors.toList());
+            boolean converged = running.size() == expected;
+            for (int i = 0; converged && i < instances.size(); i++) {
+                if (instances.get(i).isActive()) {
+                    ShardMembership membership = bean(i, ShardMembership.class);
+                    converged = membership.members().equals(sorted) && membership.handoffPending().isEmpty();
+                }
+            }
+            if (converged) {
+                return;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Shard ring did not converge on " + expected + " members");
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * Shuts one instance down; it leaves the ring the way a normally stopped instance does.
+     */
+    public void stop(int index) {
+        instances.get(index).close();
+    }
+
+    @Override
+    public void close() {
+        for (int i = instances.size() - 1; i >= 0; i--) {
+            instances.get(i).close();
+        }
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.sucheth.riskwatch.service.sharding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.sucheth.riskwatch.model.ShardMember;
+import com.sucheth.riskwatch.repository.ShardMemberRepository;
+import com.sucheth.riskwatch.service.UserRiskProfileAggregator;
+import com.sucheth.riskwatch.service.VelocityIndex;
+import com.sucheth.riskwatch.util.ConsistentHashRing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ShardMembershipTest {
+
+    private static final String A = "http://a:8080";
+    private static final String B = "http://b:8080";
+    private static final String C = "http://c:8080";
+    private static final int VIRTUAL_NODES = 16;
+
+    private final ShardMemberRepository repository = mock(ShardMemberRepository.class);
+    private final UserRiskProfileAggregator aggregator = mock(UserRiskProfileAggregator.class);
+    private final VelocityIndex velocityIndex = mock(VelocityIndex.class);
+    private ShardMembership membership;
+
+    @BeforeEach
+    void setUp() {
+        membership = new ShardMembership(repository, aggregator, velocityIndex, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(membership, "enabled", true);
+        ReflectionTestUtils.setField(membership, "self", B);
+        ReflectionTestUtils.setField(membership, "virtualNodes", VIRTUAL_NODES);
+        ReflectionTestUtils.setField(membership, "memberTimeoutMillis", 6_000L);
+    }
+
+    @Test
+    void joiningInstanceServesGainedUsersOnlyAfterThePreviousOwnerAcknowledges() {
+        String gained = userOwnedBy(B, List.of(A, B));
+        liveMembers(new ShardMember(A, Instant.now(), version(A)));
+
+        membership.heartbeat();
+
+        assertThat(membership.members()).containsExactly(A, B);
+        assertThat(membership.handoffPending()).containsExactly(A);
+        assertThat(membership.ownerOf(gained)).isEqualTo(A);
+        assertThat(membership.isLocal(gained)).isFalse();
+
+        membership.heartbeat();
+        assertThat(membership.ownerOf(gained)).isEqualTo(A);
+        verify(aggregator, never()).evictUsers(any());
+
+        liveMembers(new ShardMember(A, Instant.now(), version(A, B)));
+        membership.heartbeat();
+
+        assertThat(membership.handoffPending()).isEmpty();
+        assertThat(membership.ownerOf(gained)).isEqualTo(B);
+        verify(aggregator).evictUsers(any());
+        verify(velocityIndex).evictUsers(any());
+    }
+
+    @Test
+    void usersOfADepartedMemberAreTakenOverAtOnce() {
+        liveMembers(new ShardMember(A, Instant.now(), version(A, B, C)),
+                new ShardMember(C, Instant.now(), version(A, B, C)));
+        membership.heartbeat();
+        liveMembers(new ShardMember(A, Instant.now(), version(A, B, C)),
+                new ShardMember(C, Instant.now(), version(A, B, C)));
+        membership.heartbeat();
+        assertThat(membership.handoffPending()).isEmpty();
+
+        String fromDeparted = userOwnedBy(B, List.of(A, B), C, List.of(A, B, C));
+        liveMembers(new ShardMember(A, Instant.now(), version(A, B, C)));
+        membership.heartbeat();
+
+        assertThat(membership.members()).containsExactly(A, B);
+        assertThat(membership.ownerOf(fromDeparted)).isEqualTo(B);
+        assertThat(membership.handoffPending()).containsExactly(A);
+        verify(aggregator, times(2)).evictUsers(any());
+    }
+
+    @Test
+    void keptUsersStayLocalThroughARingChange() {
+        liveMembers();
+        membership.heartbeat();
+        assertThat(membership.handoffPending()).isEmpty();
+
+        String kept = userOwnedBy(B, List.of(B), B, List.of(A, B));
+        liveMembers(new ShardMember(A, Instant.now(), 0));
+        membership.heartbeat();
+
+        assertThat(membership.handoffPending()).isEmpty();
+        assertThat(membership.isLocal(kept)).isTrue();
+    }
+
+    private void liveMembers(ShardMember... others) {
+        when(repository.findByHeartbeatAtAfter(any())).thenReturn(List.of(others));
+    }
+
+    private static int version(String... members) {
+        return List.of(members).hashCode();
+    }
+
+    private static String userOwnedBy(String owner, List<String> members) {
+        return userOwnedBy(owner, members, null, null);
+    }
+
+    /**
+     * A user owned by {@code owner} on {@code members} and, when given, by {@code previousOwner}
+     * on {@code previousMembers}.
+     */
+    private static String userOwnedBy(String owner, List<String> members, String previousOwner,
+                                      List<String> previousMembers) {
+        ConsistentHashRing ring = new ConsistentHashRing(Set.copyOf(members), VIRTUAL_NODES);
+        ConsistentHashRing previous = previousMembers == null ? null
+                : new ConsistentHashRing(Set.copyOf(previousMembers), VIRTUAL_NODES);
+        while (true) {
+            String userId = "user-" + UUID.randomUUID();
+            if (ring.ownerOf(userId).equals(owner) && (previous == null || previous.ownerOf(userId).equals(previousOwner))) {
+                return userId;
+            }
+        }
+    }
+}
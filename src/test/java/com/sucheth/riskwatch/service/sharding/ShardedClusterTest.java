@@ -0,0 +1,303 @@
+package com.sucheth.riskwatch.service.sharding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.sucheth.riskwatch.dto.api.TransactionRequest;
+import com.sucheth.riskwatch.service.DeviceIndex;
+
+class ShardedClusterTest {
+
+    private static final int INSTANCES = 3;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private static final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory())
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private static final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    private static LocalShardCluster cluster;
+
+    @BeforeAll
+    static void startCluster() {
+        cluster = LocalShardCluster.start(INSTANCES, "risk.rules.amount.weight=1.0");
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        if (cluster != null) {
+            cluster.close();
+        }
+    }
+
+    @Test
+    void singleRequestsAreServedByTheOwnerWhicheverInstanceReceivesThem() throws Exception {
+        Map<String, String> owners = usersByOwner("single-");
+        int sent = 0;
+        for (Map.Entry<String, String> entry : owners.entrySet()) {
+            String userId = entry.getKey();
+            for (int i = 0; i < INSTANCES; i++) {
+                HttpResponse<String> response = post(cluster.url(i), "/api/v1/transactions", request(userId, sent++));
+                assertThat(response.statusCode()).isEqualTo(201);
+                assertThat(response.headers().firstValue(ShardForwarder.SHARD_HEADER))
+                        .isEqualTo(entry.getValue().equals(cluster.url(i).toString())
+                                ? Optional.empty()
+                                : Optional.of(entry.getValue()));
+            }
+        }
+
+        for (String userId : owners.keySet()) {
+            for (int i = 0; i < INSTANCES; i++) {
+                assertThat(totalTransactions(cluster.url(i), userId)).isEqualTo(INSTANCES);
+            }
+        }
+    }
+
+    @Test
+    void binaryBodiesAreRoutedToTheOwner() throws Exception {
+        Map.Entry<String, String> user = usersByOwner("cbor-").entrySet().iterator().next();
+        int receiver = nonOwner(user.getValue());
+
+        HttpRequest request = HttpRequest.newBuilder(cluster.url(receiver).resolve("/api/v1/transactions"))
+                .header("Content-Type", "application/cbor")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(cborMapper.writeValueAsBytes(request(user.getKey(), 0))))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(201);
+        assertThat(response.headers().firstValue(ShardForwarder.SHARD_HEADER)).contains(user.getValue());
+        assertThat(totalTransactions(cluster.url(receiver), user.getKey())).isEqualTo(1);
+    }
+
+    @Test
+    void unsupportedContentTypesAreRefusedBeforeRouting() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(cluster.url(0).resolve("/api/v1/transactions"))
+                .header("Content-Type", "text/plain")
+                .POST(HttpRequest.BodyPublishers.ofString("userId=someone"))
+                .build();
+
+        assertThat(client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode()).isEqualTo(415);
+    }
+
+    @Test
+    void asyncStatusUrlsAreRoutedToTheOwner() throws Exception {
+        Map.Entry<String, String> user = usersByOwner("async-").entrySet().iterator().next();
+        int receiver = nonOwner(user.getValue());
+
+        HttpResponse<String> accepted = post(cluster.url(receiver), "/api/v1/transactions/async", request(user.getKey(), 0));
+        assertThat(accepted.statusCode()).isIn(200, 202);
+        assertThat(accepted.headers().firstValue(ShardForwarder.SHARD_HEADER)).contains(user.getValue());
+        String statusUrl = objectMapper.readTree(accepted.body()).path("data").path("statusUrl").asText();
+        assertThat(statusUrl).startsWith(cluster.url(receiver).toString()).contains("userId=" + user.getKey());
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        JsonNode status;
+        HttpResponse<String> polled;
+        do {
+            polled = client.send(HttpRequest.newBuilder(URI.create(statusUrl)).build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(polled.statusCode()).isEqualTo(200);
+            status = objectMapper.readTree(polled.body()).path("data");
+        } while (!"COMPLETED".equals(status.path("status").asText()) && System.nanoTime() < deadline);
+
+        assertThat(polled.headers().firstValue(ShardForwarder.SHARD_HEADER)).contains(user.getValue());
+        assertThat(status.path("status").asText()).isEqualTo("COMPLETED");
+        assertThat(status.path("statusUrl").asText()).isEqualTo(statusUrl);
+    }
+
+    @Test
+    void devicesSharedAcrossShardsReachEveryInstance() throws Exception {
+        Map<String, String> owners = usersByOwner("device-");
+        String deviceId = "shared-" + UUID.randomUUID();
+        for (String userId : owners.keySet()) {
+            TransactionRequest request = request(userId, 0);
+            request.setDeviceId(deviceId);
+            assertThat(post(cluster.url(0), "/api/v1/transactions", request).statusCode()).isEqualTo(201);
+        }
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        for (int i = 0; i < INSTANCES; i++) {
+            DeviceIndex deviceIndex = cluster.bean(i, DeviceIndex.class);
+            while (deviceIndex.distinctUsers(deviceId, "probe", Instant.now()) <= owners.size()
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            assertThat(deviceIndex.distinctUsers(deviceId, "probe", Instant.now())).isEqualTo(owners.size() + 1);
+        }
+    }
+
+    @Test
+    void flaggedUsersOfEveryShardAreListedByEveryInstance() throws Exception {
+        Map<String, String> owners = usersByOwner("flagged-");
+        for (String userId : owners.keySet()) {
+            TransactionRequest request = request(userId, 0);
+            request.setAmount(500_000.0);
+            assertThat(post(cluster.url(0), "/api/v1/transactions", request).statusCode()).isEqualTo(201);
+        }
+
+        for (int i = 0; i < INSTANCES; i++) {
+            JsonNode flagged = get(cluster.url(i), "/api/v1/users/flagged").path("data");
+            List<String> userIds = new ArrayList<>();
+            flagged.forEach(profile -> userIds.add(profile.path("userId").asText()));
+            assertThat(userIds).containsAll(owners.keySet()).doesNotHaveDuplicates();
+        }
+    }
+
+    @Test
+    void riskAnalyticsCountEveryShard() throws Exception {
+        List<String> queries = List.of("/api/v1/analytics/risk?window=1h&step=1m", "/api/v1/analytics/risk?window=2h&step=1h");
+        Map<String, Long> before = new LinkedHashMap<>();
+        for (String query : queries) {
+            before.put(query, get(cluster.url(0), query).path("data").path("transactions").asLong());
+        }
+        Map<String, String> owners = usersByOwner("analytics-");
+        for (String userId : owners.keySet()) {
+            assertThat(post(cluster.url(0), "/api/v1/transactions", request(userId, 0)).statusCode()).isEqualTo(201);
+        }
+
+        for (String query : queries) {
+            for (int i = 0; i < INSTANCES; i++) {
+                JsonNode analytics = get(cluster.url(i), query).path("data");
+                assertThat(analytics.path("transactions").asLong()).isEqualTo(before.get(query) + owners.size());
+                long series = 0;
+                for (JsonNode point : analytics.path("series")) {
+                    series += point.path("transactions").asLong();
+                }
+                assertThat(series).isEqualTo(analytics.path("transactions").asLong());
+            }
+        }
+    }
+
+    @Test
+    void batchesAreSplitByOwnerAndKeepTheirOrder() throws Exception {
+        List<String> users = new ArrayList<>(usersByOwner("batch-").keySet());
+        List<TransactionRequest> batch = new ArrayList<>();
+        for (int i = 0; i < users.size() * 5; i++) {
+            batch.add(request(users.get(i % users.size()), i));
+        }
+        batch.add(request(users.get(0), 0));
+
+        HttpResponse<String> response = post(cluster.url(0), "/api/v1/transactions/batch", batch);
+        assertThat(response.statusCode()).isEqualTo(200);
+        JsonNode results = objectMapper.readTree(response.body()).path("data").path("results");
+        assertThat(results).hasSize(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            assertThat(results.get(i).path("index").asInt()).isEqualTo(i);
+            assertThat(results.get(i).path("transactionId").asText()).isEqualTo(batch.get(i).getTransactionId());
+        }
+        assertThat(results.get(batch.size() - 1).path("accepted").asBoolean()).isFalse();
+        for (String userId : users) {
+            assertThat(totalTransactions(cluster.url(1), userId)).isEqualTo(5);
+        }
+    }
+
+    @Test
+    void usersMoveToTheRemainingInstancesWhenOneLeaves() throws Exception {
+        try (LocalShardCluster shrinking = LocalShardCluster.start(INSTANCES)) {
+            Map<String, String> owners = new LinkedHashMap<>();
+            for (int i = 0; i < 60; i++) {
+                String userId = "leave-" + UUID.randomUUID();
+                owners.put(userId, shrinking.bean(0, ShardMembership.class).ownerOf(userId));
+                assertThat(post(shrinking.url(0), "/api/v1/transactions", request(userId, 0)).statusCode()).isEqualTo(201);
+            }
+
+            shrinking.stop(INSTANCES - 1);
+            shrinking.awaitMembers(INSTANCES - 1, Duration.ofSeconds(30));
+
+            String departed = shrinking.url(INSTANCES - 1).toString();
+            assertThat(owners).containsValue(departed);
+            for (String userId : owners.keySet()) {
+                assertThat(shrinking.bean(0, ShardMembership.class).ownerOf(userId)).isNotEqualTo(departed);
+                assertThat(post(shrinking.url(1), "/api/v1/transactions", request(userId, 1)).statusCode()).isEqualTo(201);
+                assertThat(totalTransactions(shrinking.url(0), userId)).isEqualTo(2);
+            }
+        }
+    }
+
+    /**
+     * Users spread over every instance, checking on the way that all instances agree on
+     * each user's owner.
+     */
+    private static Map<String, String> usersByOwner(String prefix) {
+        Map<String, String> owners = new LinkedHashMap<>();
+        while (owners.size() < INSTANCES * 2 || !owners.values().containsAll(urlStrings())) {
+            String userId = prefix + UUID.randomUUID();
+            String owner = cluster.bean(0, ShardMembership.class).ownerOf(userId);
+            for (int i = 1; i < INSTANCES; i++) {
+                assertThat(cluster.bean(i, ShardMembership.class).ownerOf(userId)).isEqualTo(owner);
+            }
+            owners.put(userId, owner);
+        }
+        return owners;
+    }
+
+    private static int nonOwner(String owner) {
+        for (int i = 0; i < INSTANCES; i++) {
+            if (!cluster.url(i).toString().equals(owner)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Every instance owns " + owner);
+    }
+
+    private static List<String> urlStrings() {
+        return cluster.urls().stream().map(URI::toString).toList();
+    }
+
+    private static TransactionRequest request(String userId, int sequence) {
+        TransactionRequest request = new TransactionRequest();
+        request.setTransactionId(userId + "-" + sequence);
+        request.setUserId(userId);
+        request.setAmount(25.0);
+        request.setTimestamp(Instant.now());
+        request.setDeviceId("device-" + userId);
+        request.setLocation("Bengaluru");
+        return request;
+    }
+
+    private static HttpResponse<String> post(URI baseUri, String path, Object body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static JsonNode get(URI baseUri, String pathAndQuery) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(baseUri.resolve(pathAndQuery)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body());
+    }
+
+    private static int totalTransactions(URI baseUri, String userId) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/api/v1/users/" + userId + "/risk-profile")).build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body()).path("data").path("totalTransactions").asInt();
+    }
+}
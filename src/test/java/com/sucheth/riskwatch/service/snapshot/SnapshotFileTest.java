@@ -0,0 +1,176 @@
+package com.sucheth.riskwatch.service.snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SnapshotFileTest {
+
+    private static final Instant RECORDED_MARK = Instant.parse("2025-03-01T10:15:30.123456Z");
+    private static final int HEADER_BYTES = 36;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void valuesRoundTripThroughEverySection() throws IOException {
+        Path path = directory.resolve("state.snapshot");
+        Instant seen = Instant.parse("2025-02-28T23:59:59.987654321Z");
+        Map<SnapshotFile.Section, Consumer<SnapshotOutput>> writers = new EnumMap<>(SnapshotFile.Section.class);
+        writers.put(SnapshotFile.Section.TRANSACTION_IDS, out -> {
+            out.putByte((byte) -7);
+            out.putBoolean(true);
+            out.putInt(42);
+            out.putLong(Long.MIN_VALUE);
+            out.putDouble(0.125);
+            out.putString("São Paulo");
+            out.putInstant(seen);
+            out.putInstant(null);
+            out.putBytes(new byte[0]);
+        });
+        writers.put(SnapshotFile.Section.DEVICES, out -> out.putInt(7));
+
+        long size = SnapshotFile.write(path, 1_234L, RECORDED_MARK, writers);
+
+        assertThat(size).isEqualTo(Files.size(path));
+        assertThat(directory.resolve("state.snapshot.tmp")).doesNotExist();
+        SnapshotFile.Contents contents = SnapshotFile.read(path);
+        assertThat(contents.highWaterMark()).isEqualTo(1_234L);
+        assertThat(contents.recordedMark()).isEqualTo(RECORDED_MARK);
+        assertThat(contents.rejected()).isEmpty();
+        assertThat(contents.sections()).containsOnlyKeys(SnapshotFile.Section.TRANSACTION_IDS, SnapshotFile.Section.DEVICES);
+
+        SnapshotInput in = contents.sections().get(SnapshotFile.Section.TRANSACTION_IDS);
+        assertThat(in.getByte()).isEqualTo((byte) -7);
+        assertThat(in.getBoolean()).isTrue();
+        assertThat(in.getInt()).isEqualTo(42);
+        assertThat(in.getLong()).isEqualTo(Long.MIN_VALUE);
+        assertThat(in.getDouble()).isEqualTo(0.125);
+        assertThat(in.getString()).isEqualTo("São Paulo");
+        assertThat(in.getInstant()).isEqualTo(seen);
+        assertThat(in.getInstant()).isNull();
+        assertThat(in.getBytes()).isEmpty();
+        assertThat(in.hasRemaining()).isFalse();
+        assertThatThrownBy(in::getInt).isInstanceOf(BufferUnderflowException.class);
+        assertThat(contents.sections().get(SnapshotFile.Section.DEVICES).getInt()).isEqualTo(7);
+    }
+
+    @Test
+    void sectionsLargerThanTheWriteBufferKeepAValidChecksum() throws IOException {
+        Path path = directory.resolve("large.snapshot");
+        byte[] blob = new byte[200_000];
+        Arrays.fill(blob, (byte) 0x5A);
+        Map<SnapshotFile.Section, Consumer<SnapshotOutput>> writers = new EnumMap<>(SnapshotFile.Section.class);
+        writers.put(SnapshotFile.Section.PROFILES, out -> {
+            for (int i = 0; i < 20_000; i++) {
+                out.putLong(i);
+            }
+            out.putBytes(blob);
+        });
+
+        SnapshotFile.write(path, 1L, RECORDED_MARK, writers);
+
+        SnapshotInput in = SnapshotFile.read(path).sections().get(SnapshotFile.Section.PROFILES);
+        for (int i = 0; i < 20_000; i++) {
+            assertThat(in.getLong()).isEqualTo(i);
+        }
+        assertThat(in.getBytes()).isEqualTo(blob);
+    }
+
+    @Test
+    void sectionFailingItsChecksumIsRejectedAndTheOthersSurvive() throws IOException {
+        Path path = twoSections();
+        byte[] bytes = Files.readAllBytes(path);
+        // first payload byte of the first section
+        bytes[HEADER_BYTES + 16] ^= 0x01;
+        Files.write(path, bytes);
+
+        SnapshotFile.Contents contents = SnapshotFile.read(path);
+
+        assertThat(contents.rejected()).containsExactly(SnapshotFile.Section.DEVICES);
+        assertThat(contents.sections()).containsOnlyKeys(SnapshotFile.Section.VELOCITY);
+        assertThat(contents.sections().get(SnapshotFile.Section.VELOCITY).getLong()).isEqualTo(99L);
+    }
+
+    @Test
+    void truncatedSectionIsRejected() throws IOException {
+        Path path = twoSections();
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 3));
+
+        SnapshotFile.Contents contents = SnapshotFile.read(path);
+
+        assertThat(contents.sections()).containsOnlyKeys(SnapshotFile.Section.DEVICES);
+        assertThat(contents.rejected()).containsExactly(SnapshotFile.Section.VELOCITY);
+    }
+
+    @Test
+    void fileCutInsideTheHeaderIsRefused() throws IOException {
+        Path path = twoSections();
+        Files.write(path, Arrays.copyOf(Files.readAllBytes(path), HEADER_BYTES - 1));
+
+        assertThatThrownBy(() -> SnapshotFile.read(path))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("invalid size");
+    }
+
+    @Test
+    void corruptHeaderIsRefused() throws IOException {
+        Path path = twoSections();
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[20] ^= 0x10;
+        Files.write(path, bytes);
+
+        assertThatThrownBy(() -> SnapshotFile.read(path))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("corrupt header");
+    }
+
+    @Test
+    void unknownSectionTypesAreSkipped() throws IOException {
+        Path path = twoSections();
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[HEADER_BYTES + 3] = 99;
+        Files.write(path, bytes);
+
+        SnapshotFile.Contents contents = SnapshotFile.read(path);
+
+        assertThat(contents.rejected()).isEmpty();
+        assertThat(contents.sections()).containsOnlyKeys(SnapshotFile.Section.VELOCITY);
+    }
+
+    @Test
+    void corruptLengthInsideASectionIsReported() throws IOException {
+        Path path = directory.resolve("lengths.snapshot");
+        Map<SnapshotFile.Section, Consumer<SnapshotOutput>> writers = new EnumMap<>(SnapshotFile.Section.class);
+        writers.put(SnapshotFile.Section.DEVICES, out -> out.putInt(1_000));
+        SnapshotFile.write(path, 1L, RECORDED_MARK, writers);
+
+        SnapshotInput in = SnapshotFile.read(path).sections().get(SnapshotFile.Section.DEVICES);
+
+        assertThatThrownBy(in::getString)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Corrupt length");
+    }
+
+    private Path twoSections() throws IOException {
+        Path path = directory.resolve("two.snapshot");
+        Map<SnapshotFile.Section, Consumer<SnapshotOutput>> writers = new EnumMap<>(SnapshotFile.Section.class);
+        writers.put(SnapshotFile.Section.DEVICES, out -> out.putString("device-1"));
+        writers.put(SnapshotFile.Section.VELOCITY, out -> out.putLong(99L));
+        SnapshotFile.write(path, 10L, RECORDED_MARK, writers);
+        return path;
+    }
+}
@@ -0,0 +1,115 @@
+package com.sucheth.riskwatch.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+import com.sucheth.riskwatch.model.UserRiskProfile;
+
+class AmountSketchTest {
+
+    @Test
+    void packAndUnpackRoundTrip() {
+        AmountSketch sketch = new AmountSketch();
+        for (int i = 1; i <= 200; i++) {
+            sketch.record(i * 3.5);
+        }
+
+        AmountSketch restored = AmountSketch.unpack(sketch.pack());
+
+        assertThat(restored.count()).isEqualTo(200);
+        assertThat(restored.pack()).isEqualTo(sketch.pack());
+        for (double amount : new double[] {1, 50, 350, 700, 10_000}) {
+            assertThat(restored.percentile(amount)).isEqualTo(sketch.percentile(amount));
+        }
+    }
+
+    @Test
+    void emptySketchRoundTrips() {
+        AmountSketch restored = AmountSketch.unpack(new AmountSketch().pack());
+
+        assertThat(restored.count()).isZero();
+        assertThat(restored.percentile(10)).isNaN();
+    }
+
+    @Test
+    void extremeAmountsAreClampedSoTheSketchFitsItsColumn() {
+        AmountSketch sketch = new AmountSketch();
+        sketch.record(1e100);
+        for (int i = 0; i < 50; i++) {
+            sketch.record(20 + i);
+        }
+        sketch.record(1e-9);
+
+        byte[] packed = sketch.pack();
+
+        assertThat(packed.length).isLessThanOrEqualTo(AmountSketch.MAX_PACKED_BYTES);
+        assertThat(AmountSketch.MAX_PACKED_BYTES).isLessThanOrEqualTo(UserRiskProfile.AMOUNT_SKETCH_BYTES);
+        AmountSketch restored = AmountSketch.unpack(packed);
+        assertThat(restored.count()).isEqualTo(52);
+        assertThat(restored.percentile(AmountSketch.MAX_AMOUNT * 10)).isEqualTo(sketch.percentile(1e100));
+    }
+
+    @Test
+    void sketchStartedAtTheTopOfTheRangeStillUnpacks() {
+        AmountSketch sketch = new AmountSketch();
+        sketch.record(AmountSketch.MAX_AMOUNT);
+
+        assertThat(AmountSketch.unpack(sketch.pack()).count()).isEqualTo(1);
+    }
+
+    @Test
+    void percentileRanksAgainstRecordedAmounts() {
+        AmountSketch sketch = new AmountSketch();
+        for (int i = 1; i <= 100; i++) {
+            sketch.record(i);
+        }
+
+        assertThat(sketch.percentile(0.001)).isZero();
+        assertThat(sketch.percentile(50)).isCloseTo(0.5, within(0.06));
+        assertThat(sketch.percentile(90)).isCloseTo(0.9, within(0.06));
+        assertThat(sketch.percentile(1e6)).isEqualTo(1.0);
+        assertThat(sketch.quantile(0.5)).isCloseTo(50, within(5.0));
+    }
+
+    @Test
+    void unrecordIgnoresAmountsThatWereNeverRecorded() {
+        AmountSketch sketch = new AmountSketch();
+        sketch.record(10);
+
+        sketch.unrecord(10_000);
+        sketch.unrecord(10);
+        sketch.unrecord(10);
+
+        assertThat(sketch.count()).isZero();
+    }
+
+    @Test
+    void countsAreHalvedWhenTheTotalReachesTheCap() {
+        AmountSketch sketch = new AmountSketch();
+        for (int i = 0; i < 9_999; i++) {
+            sketch.record(i % 2 == 0 ? 10 : 1_000);
+        }
+        assertThat(sketch.count()).isEqualTo(9_999);
+        double before = sketch.percentile(10);
+
+        sketch.record(1_000);
+
+        assertThat(sketch.count()).isEqualTo(5_000);
+        assertThat(sketch.percentile(10)).isCloseTo(before, within(0.01));
+    }
+
+    @Test
+    void malformedOrOutOfRangeBlobsUnpackEmpty() {
+        assertThat(AmountSketch.unpack(null).count()).isZero();
+        assertThat(AmountSketch.unpack(new byte[] {1}).count()).isZero();
+        assertThat(AmountSketch.unpack(new byte[] {9, 1, 0, 1}).count()).isZero();
+        // 300 buckets is more than the clamped range can ever need
+        assertThat(AmountSketch.unpack(new byte[] {1, (byte) 0xAC, 0x02, 0, 1}).count()).isZero();
+        // offset far above the largest bucket
+        assertThat(AmountSketch.unpack(new byte[] {1, 1, (byte) 0x80, 0x10, 1}).count()).isZero();
+        // truncated counts
+        assertThat(AmountSketch.unpack(new byte[] {1, 3, 0, 1}).count()).isZero();
+    }
+}